@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositoryEvent.EventType;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the collection of resolution events, and the grouping of the 
+ * collected artifacts into deploy sets.  Each artifact is resolved twice, as
+ * happens when several roots share dependencies.  The heap retained by a 
+ * collector is reported as an auxiliary counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+public class CollectorBenchmark
+{
+	private static final RemoteRepository REPO = 
+			new RemoteRepository.Builder("central", "default", "https://repo.example.com/").build();
+	
+	/**
+	 * The heap retained by a collector, once the resolved artifacts are no
+	 * longer referenced by anything else
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint
+	{
+		public long retainedBytes;
+	}
+	
+	@Param({"10000", "100000"})
+	private int size;
+	
+	private List<RepositoryEvent> events;
+	private ResolutionCollector collected;
+	
+	@Setup
+	public void setup()
+	{
+		DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+		events = new ArrayList<>(size * 2);
+		for (int i = 0; i < 2; i++)
+		{
+			for (Artifact artifact: Corpus.artifacts(size, 1))
+			{
+				events.add(new RepositoryEvent.Builder(session, EventType.ARTIFACT_RESOLVED)
+						.setArtifact(artifact)
+						.setRepository(REPO)
+						.build());
+			}
+		}
+	}
+	
+	@Setup(Level.Iteration)
+	public void setupCollected()
+	{
+		collected = collect();
+	}
+	
+	@Benchmark
+	public ResolutionCollector collect()
+	{
+		ResolutionCollector collector = 
+				new ResolutionCollector(new SystemStreamLog(), "https://target.example.com/");
+		for (RepositoryEvent event: events)
+		{
+			collector.artifactResolved(event);
+		}
+		return collector;
+	}
+	
+	@Benchmark
+	public Iterable<Collection<Artifact>> getArtifactSets()
+	{
+		return collected.getArtifactSets();
+	}
+	
+	private static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+		{
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	public ResolutionCollector retained(Footprint footprint)
+	{
+		long before = usedHeap();
+		ResolutionCollector collector = 
+				new ResolutionCollector(new SystemStreamLog(), "https://target.example.com/");
+		DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+		for (Artifact artifact: Corpus.artifacts(size, 2))
+		{
+			collector.artifactResolved(new RepositoryEvent.Builder(session, EventType.ARTIFACT_RESOLVED)
+					.setArtifact(artifact)
+					.setRepository(REPO)
+					.build());
+		}
+		footprint.retainedBytes = usedHeap() - before;
+		return collector;
+	}
+}
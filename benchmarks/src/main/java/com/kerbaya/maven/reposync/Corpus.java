@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+/**
+ * Generates synthetic artifact coordinates that resemble those of a large 
+ * resolution: a few thousand group IDs sharing common prefixes, several 
+ * artifacts per group, several versions per artifact, and a POM, a JAR and 
+ * sometimes sources and javadoc for each version.  The same seed always 
+ * generates the same corpus.
+ */
+final class Corpus
+{
+	private static final String[] TOP_LEVEL = {"org", "com", "io", "net"};
+	private static final String[] WORDS = {
+			"apache", "example", "spring", "jakarta", "eclipse", "google", 
+			"commons", "maven", "core", "util", "http", "json", "xml", "data", 
+			"api", "impl", "plugins", "tools", "cloud", "test"};
+	private static final File FILE = new File("artifact");
+	
+	private Corpus() {}
+	
+	private static String groupId(Random random)
+	{
+		StringBuilder sb = new StringBuilder(TOP_LEVEL[random.nextInt(TOP_LEVEL.length)]);
+		int segments = 1 + random.nextInt(3);
+		for (int i = 0; i < segments; i++)
+		{
+			sb.append('.').append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+	
+	private static String version(Random random)
+	{
+		String version = random.nextInt(6) + "." + random.nextInt(20) + "." + random.nextInt(10);
+		return random.nextInt(10) == 0 ? version + "-SNAPSHOT" : version;
+	}
+	
+	/**
+	 * Generates artifacts
+	 * 
+	 * @param size
+	 * The number of artifacts to generate
+	 * 
+	 * @param seed
+	 * The seed of the generator
+	 * 
+	 * @return
+	 * The artifacts, each with a file
+	 */
+	public static List<Artifact> artifacts(int size, long seed)
+	{
+		Random random = new Random(seed);
+		List<Artifact> artifacts = new ArrayList<>(size);
+		while (artifacts.size() < size)
+		{
+			String groupId = groupId(random);
+			int artifactCount = 1 + random.nextInt(10);
+			for (int a = 0; a < artifactCount && artifacts.size() < size; a++)
+			{
+				String artifactId = WORDS[random.nextInt(WORDS.length)] + "-" + a;
+				int versionCount = 1 + random.nextInt(5);
+				for (int v = 0; v < versionCount && artifacts.size() < size; v++)
+				{
+					String version = version(random);
+					artifacts.add(new DefaultArtifact(
+							groupId, artifactId, "", "pom", version).setFile(FILE));
+					artifacts.add(new DefaultArtifact(
+							groupId, artifactId, "", "jar", version).setFile(FILE));
+					if (random.nextBoolean())
+					{
+						artifacts.add(new DefaultArtifact(
+								groupId, artifactId, "sources", "jar", version).setFile(FILE));
+						artifacts.add(new DefaultArtifact(
+								groupId, artifactId, "javadoc", "jar", version).setFile(FILE));
+					}
+				}
+			}
+		}
+		return new ArrayList<>(artifacts.subList(0, size));
+	}
+	
+	/**
+	 * Generates coordinates in the format accepted by 
+	 * {@link ArtifactItem#ArtifactItem(String)}
+	 * 
+	 * @param size
+	 * The number of coordinates to generate
+	 * 
+	 * @param seed
+	 * The seed of the generator
+	 * 
+	 * @return
+	 * The coordinates
+	 */
+	public static List<String> coordinates(int size, long seed)
+	{
+		List<String> coordinates = new ArrayList<>(size);
+		for (Artifact artifact: artifacts(size, seed))
+		{
+			coordinates.add(new ArtifactItem(artifact).toString());
+		}
+		return coordinates;
+	}
+}
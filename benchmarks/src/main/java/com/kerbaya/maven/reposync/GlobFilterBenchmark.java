@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the glob filter against every artifact of a corpus, with a 
+ * whitelist of many group globs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Fork(1)
+public class GlobFilterBenchmark
+{
+	@Param({"100000"})
+	private int size;
+	
+	@Param({"100", "5000"})
+	private int rules;
+	
+	private List<Artifact> artifacts;
+	private GlobFilter filter;
+	
+	@Setup
+	public void setup()
+	{
+		artifacts = Corpus.artifacts(size, 1);
+		List<String> includes = new ArrayList<>(rules);
+		for (int i = 0; i < rules; i++)
+		{
+			includes.add(Corpus.artifacts(1, i).get(0).getGroupId() + ".sub" + i + ".**:*:jar:*");
+		}
+		includes.add("org.apache.**:*:jar:*");
+		filter = new GlobFilter(includes, Collections.emptyList());
+	}
+	
+	@Benchmark
+	public int test()
+	{
+		int matches = 0;
+		for (Artifact artifact: artifacts)
+		{
+			if (filter.test(artifact))
+			{
+				matches++;
+			}
+		}
+		return matches;
+	}
+}
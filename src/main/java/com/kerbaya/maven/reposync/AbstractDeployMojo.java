@@ -0,0 +1,1048 @@
+/*
+ * Copyright 2018 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.NoTransporterException;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Base class of the goals that deploy artifacts to a target repository
+ */
+abstract class AbstractDeployMojo implements Mojo
+{
+	/**
+	 * Supplies the artifacts to deploy, grouped by group-artifact-version 
+	 * coordinate
+	 */
+	protected interface ArtifactSetSource
+	{
+		Iterable<? extends Collection<Artifact>> getArtifactSets() 
+				throws MojoExecutionException;
+	}
+	
+	/**
+	 * The number of artifact sets read ahead of the slowest target repository
+	 */
+	private static final int TARGET_QUEUE_CAPACITY = 64;
+	
+	/**
+	 * A target repository, along with the files that record what was deployed
+	 * to it
+	 */
+	private final class Target implements Closeable
+	{
+		final RemoteRepository repository;
+		
+		/**
+		 * Tells the target repository apart from the others, or {@code null}
+		 * if it is the only one
+		 */
+		final String label;
+		
+		final SyncReport report;
+		DeployLedger deployLedger;
+		DeployJournal deployJournal;
+		TargetInspector inspector;
+		TargetIndex index;
+		
+		Target(RemoteRepository repository, String label) 
+				throws IOException, MojoExecutionException
+		{
+			this.repository = repository;
+			this.label = label;
+			report = label == null ? syncReport : syncReport.forTarget(label);
+			String url = repository.getUrl();
+			try
+			{
+				if (ledger != null)
+				{
+					deployLedger = new DeployLedger(log, getFile(ledger), url, checksums);
+				}
+				if (journal != null)
+				{
+					deployJournal = new DeployJournal(log, getFile(journal), url, resume, checksums);
+				}
+				if (precheck || (ledger != null && ledgerVerify) || targetIndex != null)
+				{
+					inspector = newTargetInspector(repository);
+				}
+				if (targetIndex != null)
+				{
+					index = new TargetIndex(
+							log, 
+							getFile(targetIndex), 
+							url, 
+							TargetInspector.getBasedir(repository), 
+							inspector, 
+							checksums, 
+							rebuildTargetIndex);
+				}
+			}
+			catch (IOException | MojoExecutionException | RuntimeException e)
+			{
+				try
+				{
+					close();
+				}
+				catch (IOException e2)
+				{
+					e.addSuppressed(e2);
+				}
+				throw e;
+			}
+		}
+		
+		/**
+		 * Obtains the file of this target repository, which is named after its
+		 * label when there are several target repositories
+		 */
+		private File getFile(File file)
+		{
+			if (label == null)
+			{
+				return file;
+			}
+			String name = file.getName();
+			int dot = name.lastIndexOf('.');
+			return new File(
+					file.getParentFile(), 
+					dot > 0 ?
+							name.substring(0, dot) + "-" + label + name.substring(dot)
+							: name + "-" + label);
+		}
+		
+		/**
+		 * Completes a log message with the target repository, if there are 
+		 * several
+		 */
+		String describe(String message)
+		{
+			return label == null ? message : message + " for " + label;
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			closeAll(Arrays.asList(deployLedger, deployJournal, inspector, index));
+		}
+	}
+	
+	@Getter
+	@Setter
+	protected Log log;
+
+	@Parameter(defaultValue="${repositorySystemSession}", required=true, readonly=true)
+	protected RepositorySystemSession rss;
+	
+    /**
+     * The ID of the repository that should be updated with dependencies.  If
+     * used in combination with the {@link #repositoryUrl} parameter, the updated 
+     * repository is the provided URL used in combination with proxy/login 
+     * settings associated to the provided repository ID.  When several URLs are
+     * given, either one ID applies to all of them, or one ID is given per URL,
+     * in the same order, separated by commas.
+     */
+    @Parameter(property="repositoryId", defaultValue="remote-repository", required=true)
+    protected String repositoryId;
+    
+    /**
+     * The URL of the repository that should be updated with dependencies.  Used 
+     * in combination with the {@link #repositoryId} parameter, the 
+     * updated repository is the provided URL used in combination with 
+     * proxy/login settings associated to the provided repository ID.  Required
+     * unless the artifacts are written to a bundle.
+     * <p>
+     * Several repositories can be updated by one execution by separating 
+     * their URLs with commas.  The artifacts are resolved once, then deployed 
+     * to all repositories concurrently.  Each repository is checked, skipped 
+     * and reported on separately, and a failure to deploy to one repository
+     * does not stop the others.  Each repository then has its own 
+     * {@link #ledger}, {@link #journal} and {@link #targetIndex}: their file 
+     * names are given the repository's ID before the extension, followed by
+     * its position when IDs repeat.
+     */
+    @Parameter(property="repositoryUrl")
+    protected String repositoryUrl;
+    
+    /**
+     * The maximum number of deploy requests that are sent to the target 
+     * repository concurrently.  Artifacts sharing the same 
+     * {@code <groupId>:<artifactId>} are always deployed one version at a time.
+     */
+    @Parameter(property="deployThreads", defaultValue="1")
+    private int deployThreads;
+    
+    /**
+     * If <code>true</code>, and the target repository has a <code>file</code> 
+     * URL, release artifacts are copied into the target repository directly,
+     * rather than streamed through the repository system.  The checksums and
+     * meta-data written are the same.
+     */
+    @Parameter(property="localDeploy", defaultValue="false")
+    private boolean localDeploy;
+    
+    /**
+     * If <code>true</code>, the artifacts deployed by {@link #localDeploy} 
+     * are hard-linked into the target repository when the file system allows
+     * it, rather than copied.  The target repository then shares the files 
+     * of the local repository: changing a file in one changes it in the 
+     * other.
+     */
+    @Parameter(property="localDeploy.hardLink", defaultValue="false")
+    private boolean localDeployHardLink;
+    
+    /**
+     * If <code>true</code>, the released versions of each 
+     * {@code <groupId>:<artifactId>} are uploaded first, then its 
+     * <code>maven-metadata.xml</code> is downloaded, merged with all of them, 
+     * and uploaded once.  Otherwise, the meta-data is updated by one deploy 
+     * request per version.
+     * <p>
+     * The uploads bypass the repository system, so fewer requests are made at
+     * the cost of what the repository system does around a deployment: no 
+     * <code>SyncContext</code> locks the meta-data against other processes 
+     * deploying to the same repository, no <code>RepositoryListener</code> 
+     * receives deploy events, and no <code>MetadataGenerator</code> 
+     * contributes meta-data.
+     */
+    @Parameter(property="batchMetadata", defaultValue="false")
+    private boolean batchMetadata;
+    
+    /**
+     * A file recording the artifacts deployed to the target repository, 
+     * along with their checksums.  Artifacts recorded with the same checksum 
+     * are not deployed again.  The ledger is updated after each successful 
+     * deployment.
+     */
+    @Parameter(property="reposync.ledger")
+    private File ledger;
+    
+    /**
+     * If <code>true</code>, the entries of the {@link #ledger} are checked 
+     * against the target repository in the background while dependencies are
+     * resolved.  Artifacts whose entries no longer match are deployed again.
+     */
+    @Parameter(property="reposync.ledger.verify", defaultValue="false")
+    private boolean ledgerVerify;
+    
+    /**
+     * A file recording the artifact sets deployed by the current run, each 
+     * with a fingerprint of its artifacts' coordinates and checksums.  The 
+     * journal is updated after each successful deployment, and started anew 
+     * unless {@link #resume} is enabled.  No journal is kept unless this
+     * parameter is set, as it takes the checksum of every artifact deployed.
+     */
+    @Parameter(property="reposync.journal")
+    private File journal;
+    
+    /**
+     * If <code>true</code>, the artifact sets recorded in the {@link #journal}
+     * by a previous run to the same target repository are not deployed again,
+     * as long as their artifacts have not changed.  Requires a 
+     * {@link #journal}.
+     */
+    @Parameter(property="resume", defaultValue="false")
+    private boolean resume;
+    
+    /**
+     * The file holding an index of the content of the target repository, 
+     * which rules out redeploying artifacts that the target repository 
+     * already holds without contacting it.  The index of a repository with a 
+     * <code>file</code> URL is built by walking the repository; otherwise it
+     * is built from the meta-data of the artifacts looked up.  Artifacts 
+     * deployed by each execution are added to the index, but changes made to 
+     * the target repository by anything else are not noticed until the index
+     * is rebuilt.
+     */
+    @Parameter(property="reposync.targetIndex")
+    private File targetIndex;
+    
+    /**
+     * If <code>true</code>, the {@link #targetIndex} is discarded and built 
+     * anew
+     */
+    @Parameter(property="rebuildTargetIndex", defaultValue="false")
+    private boolean rebuildTargetIndex;
+    
+    /**
+     * If <code>true</code>, the target repository is checked for each artifact
+     * before deploying.  Artifacts that the target repository already holds
+     * with the same checksum are not deployed.  Repositories with a 
+     * <code>file</code> URL are checked directly on the file system.  The 
+     * checks run while the artifacts are deployed, a bounded number of 
+     * artifacts ahead.
+     */
+    @Parameter(property="precheck", defaultValue="false")
+    private boolean precheck;
+    
+    /**
+     * The number of threads used to check the target repository when 
+     * {@link #precheck} is enabled
+     */
+    @Parameter(property="precheckThreads", defaultValue="8")
+    private int precheckThreads;
+    
+    /**
+     * The number of times a failed deploy request, dependency resolution of a
+     * requested artifact, or resolution of extras is repeated before it 
+     * counts as a failure.  Artifacts that are not found are not retried.
+     */
+    @Parameter(property="retries", defaultValue="2")
+    private int retries;
+    
+    /**
+     * The delay, in milliseconds, before the first retry of a failed 
+     * operation.  The delay doubles with each further retry, and is jittered 
+     * so that concurrent retries are spread out.
+     */
+    @Parameter(property="retryDelay", defaultValue="1000")
+    private long retryDelay;
+    
+    /**
+     * If <code>true</code>, the execution stops at the first failure that 
+     * survives its retries.  Otherwise, everything else is still processed,
+     * and the execution fails at the end with a summary of all failures.
+     */
+    @Parameter(property="failFast", defaultValue="false")
+    private boolean failFast;
+    
+    /**
+     * The file to which a JSON report of the execution is written.  The report
+     * holds the duration of each phase, artifact and byte counts, the 
+     * resolution latency of each requested artifact, and the duration and 
+     * throughput of each deploy request.
+     */
+    @Parameter(property="reposync.report", defaultValue="${project.build.directory}/reposync-report.json")
+    private File reportFile;
+    
+    @Inject
+    protected RepositorySystem repositorySystem;
+    
+    @Inject
+    private TransporterProvider transporterProvider;
+    
+    @Inject
+    private RepositoryConnectorProvider repositoryConnectorProvider;
+    
+    /**
+     * Calculates the checksums of the artifacts handled by this execution
+     */
+    protected final ChecksumCache checksums = new ChecksumCache();
+    
+    /**
+     * Records the timing of this execution
+     */
+    protected final SyncReport syncReport = new SyncReport();
+    
+    private FailureSummary failures;
+    
+    /**
+     * Builds the target repository of goals that support only one
+     * 
+     * @return
+     * The target repository
+     * 
+     * @throws MojoExecutionException
+     * If several target repositories are configured
+     */
+    protected RemoteRepository buildDistRepo() throws MojoExecutionException
+    {
+    	List<RemoteRepository> distRepos = buildDistRepos();
+    	if (distRepos.size() != 1)
+    	{
+    		throw new MojoExecutionException(
+    				"This goal supports only one repositoryUrl");
+    	}
+    	return distRepos.get(0);
+    }
+    
+    /**
+     * Builds the target repositories from the comma-separated 
+     * {@link #repositoryId} and {@link #repositoryUrl}
+     * 
+     * @return
+     * The target repositories, in the order of their URLs
+     */
+    protected List<RemoteRepository> buildDistRepos() throws MojoExecutionException
+    {
+    	List<String> urls = Utils.getTokens(repositoryUrl);
+    	List<String> ids = Utils.getTokens(repositoryId);
+    	if (ids.size() != 1 && ids.size() != urls.size())
+    	{
+    		throw new MojoExecutionException(String.format(
+    				"%d repository IDs given for %d repository URLs", 
+    				ids.size(), 
+    				urls.size()));
+    	}
+    	
+    	List<RemoteRepository> distRepos = new ArrayList<>(urls.size());
+    	for (int i = 0; i < urls.size(); i++)
+    	{
+    		distRepos.add(buildRepository(ids.get(ids.size() == 1 ? 0 : i), urls.get(i)));
+    	}
+    	return distRepos;
+    }
+    
+    /**
+     * Tells target repositories apart by ID, or by ID and position if their
+     * IDs repeat
+     * 
+     * @return
+     * The labels of the target repositories, or a single {@code null} label
+     * if there is only one
+     */
+    private static List<String> getLabels(List<RemoteRepository> distRepos)
+    {
+    	if (distRepos.size() == 1)
+    	{
+    		return Collections.singletonList(null);
+    	}
+    	
+    	Set<String> ids = new HashSet<>();
+    	for (RemoteRepository distRepo: distRepos)
+    	{
+    		ids.add(distRepo.getId());
+    	}
+    	boolean distinct = ids.size() == distRepos.size();
+    	
+    	List<String> labels = new ArrayList<>(distRepos.size());
+    	for (int i = 0; i < distRepos.size(); i++)
+    	{
+    		String id = distRepos.get(i).getId();
+    		labels.add(distinct ? id : id + "-" + (i + 1));
+    	}
+    	return labels;
+    }
+    
+    /**
+     * Builds a repository, applying the proxy and authentication settings of
+     * its ID
+     * 
+     * @param id
+     * The ID of the repository
+     * 
+     * @param url
+     * The URL of the repository
+     * 
+     * @return
+     * The repository
+     */
+    protected RemoteRepository buildRepository(String id, String url)
+    {
+        RemoteRepository remoteRepo = new RemoteRepository.Builder(id, "default", url).build();
+        
+        boolean hasAuthentication = remoteRepo.getAuthentication() != null;
+        boolean hasProxy = remoteRepo.getProxy() != null;
+        
+        if (hasAuthentication && hasProxy)
+        {
+        	return remoteRepo;
+        }
+        
+        RemoteRepository.Builder builder = new RemoteRepository.Builder(remoteRepo);
+        if (!hasAuthentication)
+        {
+        	builder.setAuthentication(rss.getAuthenticationSelector().getAuthentication(remoteRepo));
+        }
+        
+        if (!hasProxy)
+        {
+        	builder.setProxy(rss.getProxySelector().getProxy(remoteRepo));
+        }
+        
+        return builder.build();
+    }
+    
+    /**
+     * Fails unless a target repository is configured.  The 
+     * {@link #repositoryUrl} is only optional for goals that can write 
+     * somewhere else.
+     */
+    protected void requireRepositoryUrl() throws MojoExecutionException
+    {
+    	if (Utils.getTokens(repositoryUrl).isEmpty())
+    	{
+    		throw new MojoExecutionException("repositoryUrl is required");
+    	}
+    }
+    
+    protected TargetInspector newTargetInspector(RemoteRepository distRepo)
+    		throws MojoExecutionException
+    {
+    	try
+    	{
+    		return new TargetInspector(transporterProvider, rss, distRepo);
+    	}
+    	catch (NoTransporterException e)
+    	{
+    		throw new MojoExecutionException(
+    				"Cannot access repository " + distRepo.getUrl(), e);
+    	}
+    }
+    
+	/**
+	 * Creates the retrier of the operations that may fail transiently
+	 * 
+	 * @return
+	 * A retrier using {@link #retries} and {@link #retryDelay}
+	 */
+	protected Retrier newRetrier()
+	{
+		return new Retrier(log, retries, retryDelay);
+	}
+	
+	/**
+	 * Obtains the failures that did not stop this execution
+	 * 
+	 * @return
+	 * The failures, or {@code null} if {@link #failFast} is enabled
+	 */
+	protected synchronized FailureSummary getFailures()
+	{
+		if (failFast)
+		{
+			return null;
+		}
+		if (failures == null)
+		{
+			failures = new FailureSummary(log);
+		}
+		return failures;
+	}
+	
+	/**
+	 * Reports a failure that survived its retries
+	 * 
+	 * @param message
+	 * Describes what failed
+	 * 
+	 * @param cause
+	 * The failure
+	 * 
+	 * @throws MojoExecutionException
+	 * If {@link #failFast} is enabled
+	 */
+	protected void fail(String message, Throwable cause) throws MojoExecutionException
+	{
+		if (failFast)
+		{
+			throw new MojoExecutionException(message, cause);
+		}
+		getFailures().add(message, cause);
+	}
+	
+	/**
+	 * Fails the execution if any failure was reported
+	 * 
+	 * @throws MojoExecutionException
+	 * Summarizes the reported failures
+	 */
+	protected void checkFailures() throws MojoExecutionException
+	{
+		if (failures != null && failures.size() > 0)
+		{
+			syncReport.count("failures", failures.size());
+			failures.check();
+		}
+	}
+	
+	/**
+	 * Writes the {@link #syncReport} to the {@link #reportFile}, and 
+	 * summarizes it in the log.  Failing to write the report does not fail 
+	 * the execution.
+	 */
+	protected void writeReport()
+	{
+		syncReport.logSummary(log);
+		if (reportFile == null)
+		{
+			return;
+		}
+		
+		try
+		{
+			syncReport.write(reportFile);
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to write report " + reportFile, e);
+		}
+	}
+	
+	/**
+	 * Closes resources in the reverse order of the list, even if closing one
+	 * of them fails
+	 * 
+	 * @param closeables
+	 * The resources to close, which may include {@code null}
+	 */
+	private static void closeAll(List<? extends Closeable> closeables) throws IOException
+	{
+		IOException failure = null;
+		for (int i = closeables.size() - 1; i >= 0; i--)
+		{
+			Closeable closeable = closeables.get(i);
+			if (closeable == null)
+			{
+				continue;
+			}
+			try
+			{
+				closeable.close();
+			}
+			catch (IOException e)
+			{
+				if (failure == null)
+				{
+					failure = e;
+				}
+				else
+				{
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+	
+	/**
+	 * Describes a failure to use the files kept for the target repositories
+	 */
+	private String describeTargetFiles()
+	{
+		List<String> files = new ArrayList<>(3);
+		if (ledger != null)
+		{
+			files.add("ledger " + ledger);
+		}
+		if (journal != null)
+		{
+			files.add("journal " + journal);
+		}
+		if (targetIndex != null)
+		{
+			files.add("target index " + targetIndex);
+		}
+		return files.isEmpty() ? 
+				"Failed to access target repository" 
+				: "Failed to update " + String.join(" or ", files);
+	}
+	
+	/**
+	 * Deploys artifacts to the target repositories, then writes the report
+	 * 
+	 * @param source
+	 * Supplies the artifacts to deploy.  The target repositories' ledgers are
+	 * verified while the source is obtaining its artifacts.
+	 */
+	protected void deploy(ArtifactSetSource source) throws MojoExecutionException
+	{
+		requireRepositoryUrl();
+		if (resume && journal == null)
+		{
+			throw new MojoExecutionException("resume requires a journal");
+		}
+		
+		List<RemoteRepository> distRepos = buildDistRepos();
+		List<String> labels = getLabels(distRepos);
+		List<Target> targets = new ArrayList<>(distRepos.size());
+		
+		/*
+		 * The ledgers are opened first, so that they can be verified while 
+		 * the artifacts are being obtained
+		 */
+		try (Closeable closeTargets = () -> closeAll(targets))
+		{
+			for (int i = 0; i < distRepos.size(); i++)
+			{
+				targets.add(new Target(distRepos.get(i), labels.get(i)));
+			}
+			
+			if (ledgerVerify)
+			{
+				for (Target target: targets)
+				{
+					if (target.deployLedger != null)
+					{
+						target.deployLedger.verify(target.inspector, deployThreads);
+					}
+				}
+			}
+			
+			Iterable<? extends Collection<Artifact>> artifactSets = source.getArtifactSets();
+			
+			/*
+			 * All artifacts have been obtained.  Now we push them to the 
+			 * remote repositories.
+			 */
+			for (Target target: targets)
+			{
+				if (target.deployLedger != null)
+				{
+					target.deployLedger.awaitVerification();
+				}
+			}
+			if (targets.size() == 1)
+			{
+				deploy(artifactSets, targets.get(0));
+			}
+			else
+			{
+				deploy(artifactSets, targets);
+			}
+			checkFailures();
+		}
+		catch (IOException e)
+		{
+			throw new MojoExecutionException(describeTargetFiles(), e);
+		}
+		catch (UncheckedIOException e)
+		{
+			throw new MojoExecutionException("Failed to read artifacts to deploy", e);
+		}
+		finally
+		{
+			writeReport();
+		}
+	}
+	
+	/**
+	 * Deploys artifact sets to several target repositories concurrently.  The
+	 * sets are read once, and handed to one thread per target repository.  A
+	 * target repository that fails stops taking sets, without holding back 
+	 * the others.
+	 * 
+	 * @throws MojoExecutionException
+	 * The failure of the first target repository that failed, once all 
+	 * target repositories are done
+	 */
+	private void deploy(
+			Iterable<? extends Collection<Artifact>> artifactSets, 
+			List<Target> targets) 
+			throws MojoExecutionException
+	{
+		ExecutorService executor = Utils.newExecutor("reposync-target", targets.size());
+		try
+		{
+			List<ArtifactSetQueue> queues = new ArrayList<>(targets.size());
+			List<Future<?>> futures = new ArrayList<>(targets.size());
+			for (Target target: targets)
+			{
+				ArtifactSetQueue queue = new ArtifactSetQueue(TARGET_QUEUE_CAPACITY);
+				queues.add(queue);
+				futures.add(executor.submit(() -> {
+					try
+					{
+						deploy(queue, target);
+						return null;
+					}
+					finally
+					{
+						queue.abandon();
+					}
+				}));
+			}
+			
+			try
+			{
+				for (Collection<Artifact> artifactSet: artifactSets)
+				{
+					for (ArtifactSetQueue queue: queues)
+					{
+						queue.add(artifactSet);
+					}
+				}
+			}
+			catch (RuntimeException e)
+			{
+				/*
+				 * The execution fails with the source, and the target 
+				 * repositories stop with it
+				 */
+				queues.forEach(queue -> queue.fail(e));
+				throw e;
+			}
+			queues.forEach(ArtifactSetQueue::finish);
+			
+			MojoExecutionException failure = null;
+			for (int i = 0; i < targets.size(); i++)
+			{
+				try
+				{
+					futures.get(i).get();
+				}
+				catch (ExecutionException e)
+				{
+					MojoExecutionException targetFailure = 
+							e.getCause() instanceof MojoExecutionException ?
+									(MojoExecutionException) e.getCause()
+									: new MojoExecutionException(
+											"Failed to deploy to " + targets.get(i).label, 
+											e.getCause());
+					if (failure == null)
+					{
+						failure = targetFailure;
+					}
+					else
+					{
+						failure.addSuppressed(targetFailure);
+					}
+				}
+			}
+			if (failure != null)
+			{
+				throw failure;
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted during deployment", e);
+		}
+		finally
+		{
+			Utils.shutdown(executor);
+		}
+	}
+	
+	private void deploy(Iterable<? extends Collection<Artifact>> artifactSets, Target target) 
+			throws MojoExecutionException
+	{
+		DeployLedger deployLedger = target.deployLedger;
+		DeployJournal deployJournal = target.deployJournal;
+		TargetIndex index = target.index;
+		
+		/*
+		 * The artifact sets are filtered as they are deployed, so they need 
+		 * not all be held in memory.  The artifacts resolved from the target 
+		 * repository are left out first.  The journal then takes note of the 
+		 * sets before any other artifacts are filtered out, so a resumed run 
+		 * skips the sets whose deployment completed without consulting the 
+		 * other filters.
+		 */
+		AtomicInteger originSkipCount = new AtomicInteger();
+		String url = target.repository.getUrl();
+		Iterable<? extends Collection<Artifact>> deploySets = 
+				Utils.transform(artifactSets, artifactSet -> {
+					Collection<Artifact> toDeploy = IgnoredTargets.forTarget(artifactSet, url);
+					originSkipCount.addAndGet(artifactSet.size() - toDeploy.size());
+					return toDeploy;
+				});
+		
+		AtomicInteger journalSkipCount = new AtomicInteger();
+		if (deployJournal != null)
+		{
+			deploySets = Utils.transform(deploySets, artifactSet -> {
+				if (!deployJournal.expect(artifactSet))
+				{
+					return artifactSet;
+				}
+				journalSkipCount.incrementAndGet();
+				return Collections.<Artifact>emptyList();
+			});
+		}
+		
+		AtomicInteger ledgerSkipCount = new AtomicInteger();
+		if (deployLedger != null)
+		{
+			deploySets = Utils.transform(deploySets, artifactSet -> {
+				Collection<Artifact> toDeploy = new ArrayList<>(artifactSet.size());
+				for (Artifact a: artifactSet)
+				{
+					if (deployLedger.contains(a))
+					{
+						ledgerSkipCount.incrementAndGet();
+					}
+					else
+					{
+						toDeploy.add(a);
+					}
+				}
+				return filtered(deployJournal, artifactSet, toDeploy);
+			});
+		}
+		
+		AtomicInteger indexSkipCount = new AtomicInteger();
+		if (index != null)
+		{
+			deploySets = Utils.transform(deploySets, artifactSet -> {
+				Collection<Artifact> toDeploy = new ArrayList<>(artifactSet.size());
+				for (Artifact a: artifactSet)
+				{
+					TargetIndex.Presence presence;
+					try
+					{
+						presence = index.lookup(a);
+					}
+					catch (IOException e)
+					{
+						throw new UncheckedIOException(e);
+					}
+					if (presence == TargetIndex.Presence.PRESENT)
+					{
+						indexSkipCount.incrementAndGet();
+					}
+					else
+					{
+						toDeploy.add(a);
+					}
+				}
+				return filtered(deployJournal, artifactSet, toDeploy);
+			});
+		}
+		
+		/*
+		 * The checks run in parallel, a bounded number of artifacts ahead of 
+		 * the deployment
+		 */
+		TargetPrecheck targetPrecheck = precheck ?
+				new TargetPrecheck(log, target.inspector, checksums, precheckThreads)
+						.setIndex(index)
+						.setPresentListener(deployJournal == null ? null : deployJournal::record)
+				: null;
+		if (targetPrecheck != null)
+		{
+			deploySets = targetPrecheck.removePresent(deploySets);
+		}
+		
+		long phaseStart = System.nanoTime();
+		RemoteRepository distRepo = target.repository;
+		DeployEngine deployEngine = 
+				new DeployEngine(repositorySystem, rss, distRepo, deployThreads)
+				.setReport(target.report)
+				.setRetrier(newRetrier())
+				.setFailures(getFailures())
+				.setTarget(target.label);
+		File basedir = localDeploy ? TargetInspector.getBasedir(distRepo) : null;
+		if (basedir != null)
+		{
+			deployEngine.setReleaseDeployer(new LocalDeployer(rss, basedir, localDeployHardLink));
+		}
+		else if (batchMetadata)
+		{
+			deployEngine.setReleaseDeployer(
+					new ConnectorDeployer(repositoryConnectorProvider, rss, distRepo));
+		}
+		if (deployLedger != null)
+		{
+			deployEngine.addListener(deployLedger::record);
+		}
+		if (deployJournal != null)
+		{
+			deployEngine.addListener(deployJournal::record);
+		}
+		if (index != null)
+		{
+			deployEngine.addListener(index::record);
+		}
+		try
+		{
+			deployEngine.deploy(deploySets);
+		}
+		finally
+		{
+			target.report.phase("deploy", phaseStart);
+			if (originSkipCount.get() != 0)
+			{
+				log.info(target.describe(String.format(
+						"Skipped %d artifacts resolved from the target repository", 
+						originSkipCount.get())));
+				target.report.count("originSkippedArtifacts", originSkipCount.get());
+			}
+			if (targetPrecheck != null)
+			{
+				targetPrecheck.close();
+				log.info(target.describe(String.format(
+						"Skipped %d artifacts already present in the target repository", 
+						targetPrecheck.getPresentCount())));
+				target.report.count("precheckSkippedArtifacts", targetPrecheck.getPresentCount());
+			}
+			if (deployLedger != null)
+			{
+				log.info(target.describe(String.format(
+						"Skipped %d artifacts recorded in ledger", 
+						ledgerSkipCount.get())));
+				target.report.count("ledgerSkippedArtifacts", ledgerSkipCount.get());
+			}
+			if (index != null)
+			{
+				log.info(target.describe(String.format(
+						"Skipped %d artifacts found in target index", 
+						indexSkipCount.get())));
+				target.report.count("indexSkippedArtifacts", indexSkipCount.get());
+			}
+			if (deployJournal != null && resume)
+			{
+				log.info(target.describe(String.format(
+						"Skipped %d artifact sets recorded in journal", 
+						journalSkipCount.get())));
+				target.report.count("journalSkippedSets", journalSkipCount.get());
+			}
+		}
+	}
+	
+	/**
+	 * Records the artifact sets that a filter emptied in the journal, as the 
+	 * target repository already holds all of their artifacts
+	 */
+	private static Collection<Artifact> filtered(
+			DeployJournal deployJournal, 
+			Collection<Artifact> artifactSet, 
+			Collection<Artifact> toDeploy)
+	{
+		if (deployJournal != null && toDeploy.isEmpty() && !artifactSet.isEmpty())
+		{
+			deployJournal.record(artifactSet);
+		}
+		return toDeploy;
+	}
+}
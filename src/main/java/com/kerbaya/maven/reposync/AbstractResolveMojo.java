@@ -0,0 +1,929 @@
+/*
+ * Copyright 2018 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResult;
+
+/**
+ * Base class of the goals that resolve artifacts, along with their 
+ * dependencies and extras
+ */
+abstract class AbstractResolveMojo extends AbstractDeployMojo
+{
+    @Parameter(defaultValue="${project}", readonly=true, required=true)
+    private MavenProject project;
+    
+    /**
+     * The artifacts to update when executing the plugin within a POM 
+     * configuration 
+     */
+    @Parameter
+    private List<ArtifactItem> artifactItems;
+    
+    /**
+     * The artifact to update when executing the plugin from the command-line, 
+     * in the format <code>&lt;groupId&gt;:&lt;artifactId&gt;[:&lt;extension&gt;[:&lt;classifier&gt;]]:[version]</code>.
+     * If {@code version} is omitted, dependency management will be used to determine the version.
+     * If {@code version} is a range, such as {@code [2.0,3.0)}, every version in the range is updated
+     * (see {@link #rangeLimit}).
+     * Multiple artifacts may be specified, separated by a comma, or one or more 
+     * whitespace characters.  Use {@link #artifactItems} when executing the 
+     * plugin within a POM configuration.
+     */
+    @Parameter(property="artifact")
+    private String artifact;
+    
+    /**
+     * A file listing artifacts to update, one per line, in the same format as
+     * {@link #artifact}.  Blank lines and lines starting with <code>#</code> 
+     * are ignored.  The file is read as the artifacts are resolved, so it may
+     * list more artifacts than fit on a command-line.
+     */
+    @Parameter(property="artifactsFile")
+    private File artifactsFile;
+    
+    /**
+     * Bills of materials whose managed dependencies are all updated, in the 
+     * format <code>&lt;groupId&gt;:&lt;artifactId&gt;:&lt;version&gt;</code>.
+     * The managed dependencies of BOMs imported by these BOMs are updated 
+     * too.  Multiple BOMs may be specified, separated by a comma, or one or 
+     * more whitespace characters.
+     */
+    @Parameter(property="bom")
+    private String bom;
+    
+    /**
+     * Extra artifacts to include when executing the plugin within a POM
+     * configuration
+     */
+    @Parameter
+    private List<ExtraItem> extraItems;
+    
+    /**
+     * Extra artifacts to include when executing the plugin from the command-
+     * line, in the format
+     * <code>&lt;extension&gt;[:&lt;classifier&gt;]</code>.  Multiple extras may
+     * be specified, separated by a comma, or one or more whitespace characters.  For 
+     * example, "jar:sources jar:javadoc"
+     */
+    @Parameter(property="extra")
+    private String extra;
+    
+    /**
+     * A file recording the extras that remote repositories were found to be 
+     * missing.  Recorded extras are not requested from those repositories 
+     * again until the record expires (see {@link #extrasCacheTtl}).  No 
+     * cache is kept unless this parameter is set.  The file may be shared by
+     * concurrent builds, for example by keeping it in the local repository.
+     */
+    @Parameter(property="extrasCache")
+    private File extrasCache;
+    
+    /**
+     * The number of hours for which an extra that a remote repository was 
+     * found to be missing is not requested from it again.  {@code 0} requests
+     * all extras every time.
+     */
+    @Parameter(property="extrasCacheTtl", defaultValue="24")
+    private int extrasCacheTtl;
+    
+    /**
+     * The number of batches across which extras are requested in parallel
+     */
+    @Parameter(property="extrasBatches", defaultValue="1")
+    private int extrasBatches;
+    
+    /**
+     * If <code>true</code>, artifacts are updated even when they are determined 
+     * to have originated from the target repository.  With several target 
+     * repositories, an artifact is only left out of the targets it 
+     * originated from.
+     */
+    @Parameter(defaultValue="false", property="force")
+    private boolean force;
+    
+    /**
+     * If <code>true</code>, the plugin execution will fail when no artifacts
+     * have been specified.
+     */
+    @Parameter(defaultValue="true", property="failOnNoArtifact")
+    private boolean failOnNoArtifact;
+    
+    /**
+     * If <code>true</code>, snapshot artifacts using timestamps are deployed to the target repository as releases 
+     */
+    @Parameter(property="snapshotAsRelease", defaultValue="false")
+    private boolean snapshotAsRelease;
+    
+    /**
+     * a regular expression against which an artifact must be matched before being deployed to the target repository.
+     * artifacts are matched using {@code <groupId>:<artifactId>:<extension>[:<classifier>]:<version>}
+     */
+    @Parameter(property="filter")
+    private String filter;
+    
+    /**
+     * Regular expressions of which an artifact must match at least one before
+     * being deployed to the target repository, in the same format as 
+     * {@link #filter}.  From the command-line, multiple expressions are 
+     * separated by commas.
+     */
+    @Parameter(property="filterIncludes")
+    private List<String> filterIncludes;
+    
+    /**
+     * Regular expressions that an artifact must not match to be deployed to 
+     * the target repository, in the same format as {@link #filter}.  From the
+     * command-line, multiple expressions are separated by commas.
+     */
+    @Parameter(property="filterExcludes")
+    private List<String> filterExcludes;
+    
+    /**
+     * Globs of which an artifact must match at least one before being 
+     * deployed to the target repository, in the format
+     * <code>&lt;groupId&gt;[:&lt;artifactId&gt;[:&lt;extension&gt;[:&lt;classifier&gt;]:&lt;version&gt;]]</code>.
+     * Omitted fields match anything.  In each field, <code>*</code> matches 
+     * any characters and <code>?</code> matches one character.  In the group 
+     * ID, a <code>**</code> segment matches any number of segments: for 
+     * example, <code>org.apache.**:*:jar:*</code>.  From the command-line, 
+     * multiple globs are separated by commas.
+     */
+    @Parameter(property="glob")
+    private List<String> glob;
+    
+    /**
+     * Globs that an artifact must not match to be deployed to the target 
+     * repository, in the same format as {@link #glob}.  From the command-line,
+     * multiple globs are separated by commas.
+     */
+    @Parameter(property="globExcludes")
+    private List<String> globExcludes;
+    
+    /**
+     * a filter against which an artifact must be matched before deploying to the repository.  Values are
+     * <ul>
+     * <li>{@code SNAPSHOT}: only include artifacts with snapshot versions</li>
+     * <li>{@code RELEASE}: only include artifacts with release versions</li>
+     * </ul>
+     */
+    @Parameter(property="filterType")
+    private Filter filterType;
+    
+    /**
+     * The number of threads used to resolve the dependencies of the requested
+     * artifacts.  Each requested artifact is still resolved independently of 
+     * the others.
+     */
+    @Parameter(property="resolverThreads", defaultValue="1")
+    private int resolverThreads;
+    
+    /**
+     * The maximum number of versions to synchronize for each requested 
+     * artifact whose version is a range, such as {@code [2.0,3.0)}.  The 
+     * newest versions in the range are kept.  {@code 0} keeps every version in
+     * the range.
+     */
+    @Parameter(property="rangeLimit", defaultValue="0")
+    private int rangeLimit;
+    
+    /**
+     * The number of resolved artifacts held in memory before they are spilled 
+     * to disk.  Spilled artifacts are read back, in sorted order, as they are
+     * deployed, so that memory use stays flat for very large resolutions.  
+     * {@code 0} holds all resolved artifacts in memory.
+     */
+    @Parameter(property="spillThreshold", defaultValue="0")
+    private int spillThreshold;
+    
+    /**
+     * The directory to which resolved artifacts are spilled (see 
+     * {@link #spillThreshold}).  A temporary directory is used by default.
+     */
+    @Parameter(property="spillDirectory")
+    private File spillDirectory;
+    
+    private Map<ManagedDependencyKey, String> managedDependencies;
+    
+    protected Map<ManagedDependencyKey, String> getManagedDependencies()
+    {
+    	DependencyManagement dm = project.getDependencyManagement();
+    	return dm == null ?
+    			Collections.emptyMap()
+    			: dm.getDependencies().stream()
+    					.collect(Collectors.toMap(
+    							ManagedDependencyKey::new, 
+    							org.apache.maven.model.Dependency::getVersion));
+    }
+    
+    /**
+     * Uses dependency management to determine the version of an artifact item
+     * that does not have one
+     * 
+     * @param artifactItem
+     * The requested artifact item
+     * 
+     * @return
+     * {@code artifactItem} if it has a version, otherwise a copy of 
+     * {@code artifactItem} with the managed version
+     */
+    private ArtifactItem withManagedVersion(ArtifactItem artifactItem) 
+    		throws MojoExecutionException
+    {
+    	if (!"".equals(artifactItem.getVersion()))
+    	{
+    		return artifactItem;
+    	}
+    	
+    	if (managedDependencies == null)
+    	{
+    		managedDependencies = getManagedDependencies();
+    	}
+    	
+		String version = managedDependencies.get(new ManagedDependencyKey(
+				artifactItem.getGroupId(),
+				artifactItem.getArtifactId(),
+				artifactItem.getExtension(),
+				artifactItem.getClassifier()));
+		if (version == null)
+		{
+			throw new MojoExecutionException("could not find managed dependency for " + artifactItem);
+		}
+		
+		return new ArtifactItem(
+				artifactItem.getGroupId(),
+				artifactItem.getArtifactId(),
+				artifactItem.getExtension(),
+				artifactItem.getClassifier(),
+				version);
+    }
+    
+    /**
+     * Resolves the dependencies of a requested artifact
+     */
+    @FunctionalInterface
+    private interface RootResolution
+    {
+    	DependencyResult resolve(
+    			RepositorySystemSession session, 
+    			DependencyRequest dependencyRequest) 
+    			throws Exception;
+    }
+    
+    /**
+     * Resolves the dependencies of each artifact item independently, using up
+     * to {@link #resolverThreads} threads.  Artifact items are read as they 
+     * are submitted for resolution, and duplicates are skipped.  Artifact 
+     * items whose version is a range are expanded into one artifact item per
+     * version.  Failed resolutions are retried.  Unless failures are 
+     * collected, the first failure cancels the resolutions that are still 
+     * pending.
+     * 
+     * @param session
+     * The repository session to use for resolution
+     * 
+     * @param artifactItems
+     * The artifacts whose dependencies are resolved
+     * 
+     * @param remoteRepos
+     * The repositories from which dependencies are resolved
+     * 
+     * @param resolution
+     * Resolves the dependencies of each artifact item, on a resolver thread
+     * 
+     * @param resultHandler
+     * Receives the result of each resolution, in completion order, on the
+     * calling thread
+     */
+    private void resolveDependencies(
+    		RepositorySystemSession session,
+    		Iterator<ArtifactItem> artifactItems,
+    		List<RemoteRepository> remoteRepos,
+    		RootResolution resolution,
+    		Consumer<? super DependencyResult> resultHandler)
+    		throws MojoExecutionException
+    {
+    	int threads = Math.max(resolverThreads, 1);
+    	ExecutorService executor = Utils.newExecutor("reposync-resolver", threads);
+    	try
+    	{
+    		CompletionService<DependencyResult> completionService = 
+    				new ExecutorCompletionService<>(executor);
+    		Map<Future<DependencyResult>, ArtifactItem> pending = new HashMap<>();
+    		
+    		/*
+    		 * Only the interned coordinates of submitted artifacts are kept, 
+    		 * which is enough to skip duplicates
+    		 */
+    		ArtifactItemSet submitted = new ArtifactItemSet();
+    		Retrier retrier = newRetrier();
+    		VersionRangeExpander rangeExpander = new VersionRangeExpander(
+    				repositorySystem, session, remoteRepos, rangeLimit);
+    		Deque<ArtifactItem> expanded = new ArrayDeque<>();
+    		while (true)
+    		{
+    			/*
+    			 * Keep enough artifacts queued to keep the threads busy, 
+    			 * without reading all artifacts up-front
+    			 */
+    			while (pending.size() < threads * 2 
+    					&& (!expanded.isEmpty() || artifactItems.hasNext()))
+    			{
+    				ArtifactItem artifactItem = expanded.poll();
+    				if (artifactItem == null)
+    				{
+    					artifactItem = withManagedVersion(artifactItems.next());
+    					if (VersionRangeExpander.isRange(artifactItem.getVersion()))
+    					{
+    						expanded.addAll(rangeExpander.expand(artifactItem));
+    						continue;
+    					}
+    				}
+    				
+    				if (!submitted.add(artifactItem))
+    				{
+    					continue;
+    				}
+    				
+	    			DependencyRequest dr = new DependencyRequest(
+	    					new CollectRequest(
+	    							Collections.singletonList(new Dependency(artifactItem.toArtifact(), null)),
+	    							null, 
+	    							remoteRepos),
+	    					null);
+	    			ArtifactItem root = artifactItem;
+	    			pending.put(
+	    					completionService.submit(() -> {
+	    						long start = System.nanoTime();
+	    						DependencyResult result = retrier.call(
+	    								"Resolution of " + root, 
+	    								attempt -> resolution.resolve(
+	    										attempt == 0 ? session : Retrier.forRetry(session), 
+	    										dr));
+	    						syncReport.root(root, System.nanoTime() - start);
+	    						return result;
+	    					}), 
+	    					artifactItem);
+    			}
+    			
+    			if (pending.isEmpty())
+    			{
+    				break;
+    			}
+    			
+    			Future<DependencyResult> future = completionService.take();
+    			ArtifactItem artifactItem = pending.remove(future);
+    			try
+    			{
+    				resultHandler.accept(future.get());
+    			}
+    			catch (ExecutionException e)
+    			{
+    				/*
+    				 * When failing fast, the finally block interrupts the other 
+    				 * resolutions
+    				 */
+    				fail("Failed to resolve dependencies for " + artifactItem, e.getCause());
+    			}
+    		}
+    	}
+    	catch (IllegalArgumentException | UncheckedIOException e)
+    	{
+    		throw new MojoExecutionException("Failed to read requested artifacts", e);
+    	}
+    	catch (InterruptedException e)
+    	{
+    		Thread.currentThread().interrupt();
+    		throw new MojoExecutionException("Interrupted while resolving dependencies", e);
+    	}
+    	finally
+    	{
+    		Utils.shutdown(executor);
+    	}
+    }
+    
+	/**
+	 * Opens the requested artifact items.  Items that do not have a version 
+	 * are given their managed version when they are resolved, but all items
+	 * are first read once to check that they have one, so that a missing 
+	 * managed version fails the execution before any work starts.
+	 * 
+	 * @return
+	 * The artifact items to resolve, which are empty if no artifact was 
+	 * requested and {@link #failOnNoArtifact} is {@code false}
+	 */
+	protected ArtifactItemReader openArtifactItems() throws MojoExecutionException
+	{
+		List<ArtifactItem> boms = getBoms();
+		
+		List<ArtifactItem> configuredItems = new ArrayList<>();
+		if (artifactItems != null)
+		{
+			configuredItems.addAll(artifactItems);
+		}
+		
+		if (artifact != null)
+		{
+			for (String token: Utils.getTokens(artifact))
+			{
+				configuredItems.add(new ArtifactItem(token));
+			}
+		}
+		
+		ArtifactItemReader reader;
+		try
+		{
+			try (ArtifactItemReader items = new ArtifactItemReader(configuredItems, artifactsFile))
+			{
+				while (items.hasNext())
+				{
+					withManagedVersion(items.next());
+				}
+			}
+			
+			reader = new ArtifactItemReader(configuredItems, artifactsFile);
+			if (!reader.hasNext() && boms.isEmpty() && failOnNoArtifact)
+			{
+				reader.close();
+				throw new MojoExecutionException("no artifact specified");
+			}
+		}
+		catch (IOException | UncheckedIOException | IllegalArgumentException e)
+		{
+			throw new MojoExecutionException("Failed to read " + artifactsFile, e);
+		}
+		return reader;
+	}
+	
+	/**
+	 * Parses the requested BOMs
+	 * 
+	 * @return
+	 * The artifact items of the POMs of the requested BOMs
+	 */
+	protected List<ArtifactItem> getBoms() throws MojoExecutionException
+	{
+		List<ArtifactItem> boms = new ArrayList<>();
+		try
+		{
+			for (String token: Utils.getTokens(bom))
+			{
+				boms.add(BomReader.parseBom(token));
+			}
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new MojoExecutionException(e.getMessage(), e);
+		}
+		return boms;
+	}
+	
+	/**
+	 * Determines whether anything was requested
+	 * 
+	 * @param finalArtifactItems
+	 * The requested artifacts
+	 * 
+	 * @return
+	 * {@code true} if artifacts or BOMs were requested
+	 */
+	protected boolean hasRoots(Iterator<ArtifactItem> finalArtifactItems) 
+			throws MojoExecutionException
+	{
+		return finalArtifactItems.hasNext() || !getBoms().isEmpty();
+	}
+	
+	/**
+	 * Creates the collector that hears about resolved artifacts.  The caller 
+	 * closes the collector once its artifacts have been used.
+	 * 
+	 * @return
+	 * A new collector
+	 */
+	protected ResolutionCollector newCollector()
+	{
+		return new ResolutionCollector(
+				log, 
+				force ? Collections.emptyList() : Utils.getTokens(repositoryUrl), 
+				spillThreshold, 
+				spillDirectory);
+	}
+	
+	/**
+	 * Resolves the artifact items, the dependencies managed by the requested 
+	 * BOMs, their dependencies, and the extras of the resolved dependencies
+	 * 
+	 * @param finalArtifactItems
+	 * The requested artifacts
+	 * 
+	 * @param collector
+	 * The collector that hears about all resolved artifacts, obtained from
+	 * {@link #newCollector()}
+	 */
+	protected void collect(
+			Iterator<ArtifactItem> finalArtifactItems, 
+			ResolutionCollector collector) 
+			throws MojoExecutionException
+	{
+		collect(finalArtifactItems, collector, null);
+	}
+	
+	/**
+	 * Resolves the artifact items like {@link #collect(Iterator, 
+	 * ResolutionCollector)}, optionally handing over the release artifacts of
+	 * each requested artifact as soon as it and its extras are resolved.  
+	 * Handed-over artifacts are left out of the collector's artifact sets.
+	 * 
+	 * @param finalArtifactItems
+	 * The requested artifacts
+	 * 
+	 * @param collector
+	 * The collector that hears about all resolved artifacts, obtained from
+	 * {@link #newCollector()}
+	 * 
+	 * @param finishedSets
+	 * Receives, on the resolver threads, the artifacts of each 
+	 * group-artifact-version coordinate that the resolution of a requested 
+	 * artifact produced, or {@code null} to leave all artifacts in the 
+	 * collector
+	 */
+	protected void collect(
+			Iterator<ArtifactItem> finalArtifactItems, 
+			ResolutionCollector collector,
+			Consumer<Collection<Artifact>> finishedSets) 
+			throws MojoExecutionException
+	{
+		Set<ExtraItem> finalExtraItems = new HashSet<>();
+		if (extraItems != null)
+		{
+			finalExtraItems.addAll(extraItems);
+		}
+		if (extra != null)
+		{
+			for (String token: Utils.getTokens(extra))
+			{
+				finalExtraItems.add(new ExtraItem(token));
+			}
+		}
+		
+		List<RemoteRepository> remoteRepos = project.getRemoteProjectRepositories();
+		
+		/*
+		 * We'll be using a collecting session during dependency resolution.  We
+		 * need to not only include the final dependencies, but also the POM's 
+		 * for all competing dependency candidates.  The target repository needs
+		 * the POM's for these unused dependencies so that dependency analysis
+		 * can arrive at the same conclusions afterward.
+		 */
+		RepositorySystemSession collectingSession = collector.createSession(rss);
+		
+		/*
+		 * The BOMs are read with the collecting session, so the target 
+		 * repository gets the BOMs too
+		 */
+		Iterator<ArtifactItem> roots = finalArtifactItems;
+		List<ArtifactItem> boms = getBoms();
+		if (!boms.isEmpty())
+		{
+			long bomStart = System.nanoTime();
+			BomReader bomReader = new BomReader(repositorySystem, collectingSession, remoteRepos);
+			List<ArtifactItem> bomItems = new ArrayList<>();
+			for (ArtifactItem bom: boms)
+			{
+				List<ArtifactItem> managedItems = bomReader.getManagedItems(bom);
+				log.info(String.format(
+						"BOM %s manages %d artifacts", bom, managedItems.size()));
+				bomItems.addAll(managedItems);
+			}
+			roots = Utils.concat(finalArtifactItems, bomItems.iterator());
+			syncReport.phase("bom", bomStart);
+		}
+		
+		try (MissingArtifactCache missingCache = finalExtraItems.isEmpty() ? 
+				null : openMissingCache(extrasCache))
+		{
+			ExtrasResolver extrasResolver = finalExtraItems.isEmpty() ? 
+					null 
+					: new ExtrasResolver(
+							repositorySystem, 
+							collectingSession, 
+							remoteRepos, 
+							finalExtraItems, 
+							newRetrier(), 
+							getFailures())
+					.setMissingCache(missingCache)
+					.setBatches(extrasBatches);
+			
+			/*
+			 * We don't want to submit all dependencies at once: we're not making a 
+			 * repository that supports a build that uses all these dependencies 
+			 * simultaneously; we're making a repository that supports builds that 
+			 * use any of these dependencies independently.
+			 */
+			long phaseStart = System.nanoTime();
+			if (finishedSets != null)
+			{
+				resolveDependencies(
+						collectingSession, 
+						roots, 
+						remoteRepos, 
+						(session, dr) -> resolvePipelined(
+								session, dr, collector, extrasResolver, finishedSets),
+						dependencyResult -> {});
+				syncReport.phase("resolve", phaseStart);
+			}
+			else
+			{
+				final Set<ArtifactItem> artifactSetForExtras = 
+						extrasResolver == null ? null : new HashSet<ArtifactItem>();
+				resolveDependencies(
+						collectingSession, 
+						roots, 
+						remoteRepos, 
+						repositorySystem::resolveDependencies,
+						dependencyResult -> {
+					if (artifactSetForExtras == null)
+					{
+						/*
+						 * No extras were requested, so we can continue to the next
+						 * artifact
+						 */
+						return;
+					}
+				
+					/*
+					 * Extras were requested.  We're not looking at the collector, 
+					 * because we only want extras for the "winning" dependencies.
+					 */
+					artifactSetForExtras.addAll(getResolvedItems(dependencyResult));
+				});
+				syncReport.phase("resolve", phaseStart);
+			
+				/*
+				 * Now resolve extras, if any
+				 */
+				if (extrasResolver != null)
+				{
+					phaseStart = System.nanoTime();
+					extrasResolver.resolve(artifactSetForExtras);
+					syncReport.phase("extras", phaseStart);
+				}
+			}
+			
+			if (missingCache != null)
+			{
+				log.info(String.format(
+						"Skipped %d extras that remote repositories were recently found to be missing", 
+						missingCache.getHits()));
+				syncReport.count("cachedMissingExtras", missingCache.getHits());
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to update " + extrasCache, e);
+		}
+		
+		try
+		{
+			syncReport.resolved(collector.getArtifactSets());
+		}
+		catch (UncheckedIOException e)
+		{
+			throw new MojoExecutionException("Failed to read resolved artifacts", e);
+		}
+	}
+	
+	/**
+	 * Opens the cache of missing extras.  The extras are resolved without the
+	 * cache if it cannot be read.
+	 * 
+	 * @return
+	 * The cache, or {@code null} if no {@link #extrasCache} is set or 
+	 * {@link #extrasCacheTtl} disables it
+	 */
+	private MissingArtifactCache openMissingCache(File file)
+	{
+		if (file == null || extrasCacheTtl <= 0)
+		{
+			return null;
+		}
+		
+		try
+		{
+			return new MissingArtifactCache(
+					log, file, TimeUnit.HOURS.toMillis(extrasCacheTtl));
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to read " + file + ", requesting all extras", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Resolves the dependencies of a requested artifact, then the extras of 
+	 * those dependencies, and hands over the artifacts that were resolved on 
+	 * the calling thread
+	 */
+	private DependencyResult resolvePipelined(
+			RepositorySystemSession session,
+			DependencyRequest dependencyRequest,
+			ResolutionCollector collector,
+			ExtrasResolver extrasResolver,
+			Consumer<Collection<Artifact>> finishedSets)
+			throws Exception
+	{
+		Set<Long> pathKeys;
+		DependencyResult result;
+		collector.track();
+		try
+		{
+			result = repositorySystem.resolveDependencies(session, dependencyRequest);
+			if (extrasResolver != null)
+			{
+				extrasResolver.resolve(getResolvedItems(result));
+			}
+		}
+		finally
+		{
+			pathKeys = collector.untrack();
+		}
+		
+		for (Collection<Artifact> artifactSet: collector.takeFinished(pathKeys))
+		{
+			syncReport.resolved(Collections.singletonList(artifactSet));
+			finishedSets.accept(artifactSet);
+		}
+		return result;
+	}
+	
+	private static Set<ArtifactItem> getResolvedItems(DependencyResult dependencyResult)
+	{
+		Set<ArtifactItem> resolvedItems = new HashSet<>();
+		for (ArtifactResult ar: dependencyResult.getArtifactResults())
+		{
+			resolvedItems.add(new ArtifactItem(ar.getArtifact()));
+		}
+		return resolvedItems;
+	}
+	
+	/**
+	 * Obtains the filters that an artifact must match to be deployed, by name
+	 * of the parameter that defines the filter
+	 * 
+	 * @return
+	 * The filters to apply, in order
+	 */
+	protected Map<String, Predicate<Artifact>> getDeployFilters()
+	{
+		Map<String, Predicate<Artifact>> filters = new LinkedHashMap<>();
+		List<String> includes = new ArrayList<>();
+		if (filter != null)
+		{
+			includes.add(filter);
+		}
+		if (filterIncludes != null)
+		{
+			includes.addAll(filterIncludes);
+		}
+		List<String> excludes = filterExcludes == null ? 
+				Collections.emptyList() : filterExcludes;
+		if (!includes.isEmpty() || !excludes.isEmpty())
+		{
+			filters.put("filter", new RegExFilter(includes, excludes));
+		}
+		
+		if (glob != null || globExcludes != null)
+		{
+			filters.put("glob", new GlobFilter(
+					glob == null ? Collections.emptyList() : glob, 
+					globExcludes == null ? Collections.emptyList() : globExcludes));
+		}
+		
+		if (filterType != null)
+		{
+			filters.put("filterType", filterType);
+		}
+		return filters;
+	}
+	
+	/**
+	 * Selects the artifacts of a group-artifact-version coordinate that should
+	 * be deployed
+	 * 
+	 * @param artifactSet
+	 * The collected artifacts of a group-artifact-version coordinate
+	 * 
+	 * @param filters
+	 * The filters obtained from {@link #getDeployFilters()}
+	 * 
+	 * @param rejected
+	 * Receives each artifact that is not deployed, along with the name of the 
+	 * filter that rejected it
+	 * 
+	 * @return
+	 * The artifacts to deploy
+	 */
+	protected List<Artifact> filterArtifactSet(
+			Collection<Artifact> artifactSet,
+			Map<String, Predicate<Artifact>> filters,
+			BiConsumer<? super Artifact, String> rejected)
+	{
+		List<Artifact> toDeploy = new ArrayList<>(artifactSet.size());
+		nextArtifact: for (Artifact artifact: artifactSet)
+		{
+			for (Map.Entry<String, Predicate<Artifact>> e: filters.entrySet())
+			{
+				if (!e.getValue().test(artifact))
+				{
+					rejected.accept(artifact, e.getKey());
+					continue nextArtifact;
+				}
+			}
+			
+			toDeploy.add(snapshotAsRelease ? 
+					ReleaseArtifact.timestampSnapshotAsRelease(artifact) 
+					: artifact);
+		}
+		return toDeploy;
+	}
+	
+	/**
+	 * Selects the collected artifacts that should be deployed.  The artifacts
+	 * are selected as they are iterated.
+	 * 
+	 * @param collector
+	 * The collector that heard about all resolved artifacts
+	 * 
+	 * @return
+	 * The artifacts to deploy, grouped by group-artifact-version coordinate
+	 */
+	protected Iterable<Collection<Artifact>> getDeploySets(ResolutionCollector collector)
+	{
+		Map<String, Predicate<Artifact>> filters = getDeployFilters();
+		
+		/*
+		 * The collector returns the artifacts grouped by group-artifact-version
+		 * coordinate, in path order.  We want to update all artifacts from the
+		 * same path in the same deploy request (current Maven version seems to
+		 * trample the old version meta-data), and the deploy engine writes the
+		 * meta-data of consecutive versions of a group-artifact once.
+		 */
+		return Utils.transform(
+				collector.getArtifactSets(), 
+				artifactSet -> filterArtifactSet(artifactSet, filters, (a, f) -> {}));
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Deploys the artifacts of a plan written by the {@code plan} goal.  No 
+ * dependency is resolved: the artifact files named by the plan are deployed,
+ * provided that their checksums still match the plan.  The plan is read and 
+ * verified on another thread while its artifacts are deployed.
+ */
+@org.apache.maven.plugins.annotations.Mojo(
+		name="apply", 
+		requiresProject=false, 
+		threadSafe=true)
+public class ApplyMojo extends AbstractDeployMojo
+{
+	/**
+	 * The number of artifact sets read ahead of the deployment
+	 */
+	private static final int READ_AHEAD = 64;
+	
+    /**
+     * The plan file written by the {@code plan} goal
+     */
+    @Parameter(property="plan", defaultValue="${project.build.directory}/reposync-plan.jsonl", required=true)
+    private File plan;
+    
+	@Override
+	public void execute() throws MojoExecutionException
+	{
+		ArtifactSetQueue queue = new ArtifactSetQueue(READ_AHEAD);
+		ExecutorService reader = Utils.newExecutor("reposync-plan", 1);
+		try
+		{
+			reader.execute(() -> {
+				try
+				{
+					DeployPlan.read(plan, repositoryUrl, checksums, queue::add);
+					queue.finish();
+				}
+				catch (Throwable e)
+				{
+					queue.fail(e);
+				}
+			});
+			
+			deploy(() -> queue);
+		}
+		catch (ArtifactSetQueue.ProducerException e)
+		{
+			throw new MojoExecutionException("Failed to read plan " + plan, e.getCause());
+		}
+		finally
+		{
+			/*
+			 * Interrupts the reading if the deployment failed
+			 */
+			Utils.shutdown(reader);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the requested artifact items: first the items that were configured 
+ * directly, then the lines of an optional file.  The file is read lazily, one
+ * line at a time, as items are requested.  Each line holds one artifact, in 
+ * the format accepted by {@link ArtifactItem#ArtifactItem(String)}.  Blank 
+ * lines and lines starting with {@code #} are ignored.
+ */
+final class ArtifactItemReader implements Iterator<ArtifactItem>, Closeable
+{
+	private static final String COMMENT_PREFIX = "#";
+	
+	private final Iterator<ArtifactItem> configuredItems;
+	private final File file;
+	private final BufferedReader reader;
+	private int lineNumber;
+	private ArtifactItem next;
+	
+	/**
+	 * @param configuredItems
+	 * The items that were configured directly
+	 * 
+	 * @param file
+	 * The file listing more items, or {@code null}
+	 */
+	public ArtifactItemReader(Collection<ArtifactItem> configuredItems, File file) 
+			throws IOException
+	{
+		this.configuredItems = configuredItems.iterator();
+		this.file = file;
+		this.reader = file == null ? 
+				null : Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * @throws UncheckedIOException
+	 * If the file could not be read
+	 * 
+	 * @throws IllegalArgumentException
+	 * If a line of the file is not a valid artifact
+	 */
+	@Override
+	public boolean hasNext()
+	{
+		if (next != null)
+		{
+			return true;
+		}
+		
+		if (configuredItems.hasNext())
+		{
+			next = configuredItems.next();
+			return true;
+		}
+		
+		if (reader == null)
+		{
+			return false;
+		}
+		
+		String line;
+		try
+		{
+			while ((line = reader.readLine()) != null)
+			{
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith(COMMENT_PREFIX))
+				{
+					continue;
+				}
+				
+				try
+				{
+					next = new ArtifactItem(line);
+				}
+				catch (IllegalArgumentException e)
+				{
+					throw new IllegalArgumentException(
+							String.format("%s, line %d: %s", file, lineNumber, e.getMessage()),
+							e);
+				}
+				return true;
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return false;
+	}
+	
+	@Override
+	public ArtifactItem next()
+	{
+		if (!hasNext())
+		{
+			throw new NoSuchElementException();
+		}
+		ArtifactItem result = next;
+		next = null;
+		return result;
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		if (reader != null)
+		{
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers artifact items by the symbol IDs of their coordinates, rather 
+ * than by the items or their strings.  Each coordinate string is held once, 
+ * however many items share it.
+ */
+final class ArtifactItemSet
+{
+	private final SymbolTable symbols = new SymbolTable();
+	
+	/**
+	 * Packed extension-classifier and version IDs, by packed group and 
+	 * artifact IDs
+	 */
+	private final Map<Long, Set<Long>> items = new HashMap<>();
+	
+	/**
+	 * Adds an artifact item
+	 * 
+	 * @param artifactItem
+	 * The artifact item to add
+	 * 
+	 * @return
+	 * {@code true} if the set did not already hold the artifact item
+	 */
+	public boolean add(ArtifactItem artifactItem)
+	{
+		long groupArtifactKey = SymbolTable.pack(
+				symbols.intern(artifactItem.getGroupId()), 
+				symbols.intern(artifactItem.getArtifactId()));
+		long versionKey = SymbolTable.pack(
+				symbols.intern(artifactItem.getExtension() + ":" + artifactItem.getClassifier()), 
+				symbols.intern(artifactItem.getVersion()));
+		return items.computeIfAbsent(groupArtifactKey, k -> new HashSet<>()).add(versionKey);
+	}
+}
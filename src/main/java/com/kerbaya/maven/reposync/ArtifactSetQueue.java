@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Passes sets of artifacts from a producing thread to a deploying thread.  
+ * The sets are iterated once, as they are added, and iteration blocks until
+ * the producer adds another set, finishes, or fails.  A queue with a capacity
+ * blocks the producer while it is full, until the deploying thread takes a 
+ * set or abandons the queue.
+ */
+final class ArtifactSetQueue implements Iterable<Collection<Artifact>>
+{
+	/**
+	 * Thrown by the iterator when the producer failed
+	 */
+	public static final class ProducerException extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+
+		public ProducerException(Throwable cause)
+		{
+			super(cause);
+		}
+	}
+	
+	private static final Object END = new Object();
+	
+	private final BlockingQueue<Object> queue;
+	
+	private volatile boolean abandoned;
+	
+	/**
+	 * Creates a queue without a capacity
+	 */
+	public ArtifactSetQueue()
+	{
+		this(Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Creates a queue with a capacity
+	 * 
+	 * @param capacity
+	 * The number of sets the queue holds before the producer blocks
+	 */
+	public ArtifactSetQueue(int capacity)
+	{
+		queue = new LinkedBlockingQueue<>(capacity);
+	}
+	
+	private void put(Object element)
+	{
+		if (abandoned)
+		{
+			return;
+		}
+		try
+		{
+			queue.put(element);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ProducerException(e);
+		}
+	}
+	
+	/**
+	 * Adds a set of artifacts.  Empty sets are skipped, as are all sets once 
+	 * the queue is abandoned.
+	 */
+	public void add(Collection<Artifact> artifactSet)
+	{
+		if (!artifactSet.isEmpty())
+		{
+			put(artifactSet);
+		}
+	}
+	
+	/**
+	 * Ends the iteration after the sets already added
+	 */
+	public void finish()
+	{
+		put(END);
+	}
+	
+	/**
+	 * Ends the iteration with a {@link ProducerException} after the sets 
+	 * already added
+	 * 
+	 * @param cause
+	 * The producer's failure
+	 */
+	public void fail(Throwable cause)
+	{
+		put(new ProducerException(cause));
+	}
+	
+	/**
+	 * Discards the sets not yet iterated, and stops accepting sets, so that 
+	 * the producer no longer blocks.  Called by the deploying thread when it
+	 * stops iterating early.
+	 */
+	public void abandon()
+	{
+		abandoned = true;
+		queue.clear();
+	}
+	
+	@Override
+	public Iterator<Collection<Artifact>> iterator()
+	{
+		return new Iterator<Collection<Artifact>>() {
+			private Object next;
+			
+			@Override
+			public boolean hasNext()
+			{
+				if (next == null)
+				{
+					try
+					{
+						next = queue.take();
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						throw new ProducerException(e);
+					}
+				}
+				if (next instanceof ProducerException)
+				{
+					throw (ProducerException) next;
+				}
+				return next != END;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public Collection<Artifact> next()
+			{
+				if (!hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+				Collection<Artifact> artifactSet = (Collection<Artifact>) next;
+				next = null;
+				return artifactSet;
+			}
+		};
+	}
+}
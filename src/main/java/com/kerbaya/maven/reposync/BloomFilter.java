@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A set of strings that may report false positives, but never false 
+ * negatives, using about ten bits per expected string.  Strings may be added 
+ * and tested concurrently.
+ */
+final class BloomFilter
+{
+	private static final int BITS_PER_ENTRY = 10;
+	
+	/**
+	 * The number of bits set for each string, which minimizes false positives
+	 * for {@link #BITS_PER_ENTRY}
+	 */
+	private static final int HASH_COUNT = 7;
+	
+	private final AtomicLongArray words;
+	private final long bitCount;
+	
+	/**
+	 * @param expectedEntries
+	 * The number of strings expected to be added.  Adding more strings 
+	 * increases the rate of false positives.
+	 */
+	public BloomFilter(long expectedEntries)
+	{
+		long bits = Math.max(expectedEntries, 64) * BITS_PER_ENTRY;
+		words = new AtomicLongArray((int) Math.min((bits + 63) / 64, Integer.MAX_VALUE - 8));
+		bitCount = words.length() * 64L;
+	}
+	
+	/**
+	 * Hashes a string independently of {@link String#hashCode()}, using 
+	 * 64-bit FNV-1a
+	 */
+	private static long hash(CharSequence str)
+	{
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < str.length(); i++)
+		{
+			hash ^= str.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Derives the bit positions of a string from two hashes
+	 */
+	private long[] getBits(CharSequence str)
+	{
+		long h1 = hash(str);
+		long h2 = (h1 >>> 32) ^ (h1 * 0x9e3779b97f4a7c15L) | 1;
+		long[] bits = new long[HASH_COUNT];
+		for (int i = 0; i < HASH_COUNT; i++)
+		{
+			bits[i] = Math.floorMod(h1 + i * h2, bitCount);
+		}
+		return bits;
+	}
+	
+	public void add(CharSequence str)
+	{
+		for (long bit: getBits(str))
+		{
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current;
+			while (((current = words.get(word)) & mask) == 0
+					&& !words.compareAndSet(word, current, current | mask))
+			{
+				// another bit of the word was set concurrently
+			}
+		}
+	}
+	
+	/**
+	 * @return
+	 * {@code false} if the string was definitely not added
+	 */
+	public boolean mightContain(CharSequence str)
+	{
+		for (long bit: getBits(str))
+		{
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorException;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+
+/**
+ * Reads the managed dependencies of a bill of materials (BOM).  The effective
+ * model of the BOM is used, so the managed dependencies of nested 
+ * {@code import}-scope BOMs are included.  The models are built through the 
+ * session, whose cache keeps BOMs that are imported more than once from being
+ * loaded again, and the managed dependencies of each BOM are kept for later 
+ * requests of the same BOM.
+ */
+final class BomReader
+{
+	private final Map<String, List<ArtifactItem>> managedItemMap = 
+			new ConcurrentHashMap<>();
+	
+	private final RepositorySystem repositorySystem;
+	private final RepositorySystemSession session;
+	private final List<RemoteRepository> remoteRepos;
+	
+	public BomReader(
+			RepositorySystem repositorySystem,
+			RepositorySystemSession session,
+			List<RemoteRepository> remoteRepos)
+	{
+		this.repositorySystem = repositorySystem;
+		this.session = session;
+		this.remoteRepos = remoteRepos;
+	}
+	
+	/**
+	 * Parses a BOM coordinate
+	 * 
+	 * @param str
+	 * The BOM, in the format 
+	 * <code>&lt;groupId&gt;:&lt;artifactId&gt;:&lt;version&gt;</code>
+	 * 
+	 * @return
+	 * The artifact item of the BOM's POM
+	 * 
+	 * @throws IllegalArgumentException
+	 * If {@code str} is not in the expected format
+	 */
+	public static ArtifactItem parseBom(String str)
+	{
+		String[] tokens = str.split(":", -1);
+		if (tokens.length != 3)
+		{
+			throw new IllegalArgumentException("invalid BOM: " + str);
+		}
+		for (String token: tokens)
+		{
+			if (token.isEmpty())
+			{
+				throw new IllegalArgumentException("invalid BOM: " + str);
+			}
+		}
+		return new ArtifactItem(tokens[0], tokens[1], "pom", "", tokens[2]);
+	}
+	
+	/**
+	 * Reads the managed dependencies of a BOM
+	 * 
+	 * @param bom
+	 * The artifact item of the BOM's POM
+	 * 
+	 * @return
+	 * An artifact item for each dependency managed by {@code bom}
+	 */
+	public List<ArtifactItem> getManagedItems(ArtifactItem bom) throws MojoExecutionException
+	{
+		String key = bom.toString();
+		List<ArtifactItem> managedItems = managedItemMap.get(key);
+		if (managedItems != null)
+		{
+			return managedItems;
+		}
+		
+		ArtifactDescriptorResult result;
+		try
+		{
+			result = repositorySystem.readArtifactDescriptor(
+					session, 
+					new ArtifactDescriptorRequest(
+							new DefaultArtifact(
+									bom.getGroupId(), 
+									bom.getArtifactId(), 
+									bom.getClassifier(), 
+									bom.getExtension(), 
+									bom.getVersion()),
+							remoteRepos,
+							null));
+		}
+		catch (ArtifactDescriptorException e)
+		{
+			throw new MojoExecutionException("could not read BOM " + bom, e);
+		}
+		
+		managedItems = new ArrayList<>(result.getManagedDependencies().size());
+		for (Dependency dependency: result.getManagedDependencies())
+		{
+			managedItems.add(new ArtifactItem(dependency.getArtifact()));
+		}
+		managedItems = Collections.unmodifiableList(managedItems);
+		managedItemMap.put(key, managedItems);
+		return managedItems;
+	}
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+/**
+ * Extracts the artifacts of an archive written by {@link BundleWriter}.  The
+ * checksum files and meta-data of the archive are not extracted, since they 
+ * are written anew when the artifacts are deployed.  The artifacts of each 
+ * version directory are handed over as soon as they are extracted, so that 
+ * they can be deployed while the rest of the archive is extracted.
+ */
+final class BundleReader
+{
+	private static final int BLOCK_SIZE = 512;
+	
+	/**
+	 * The number of version directories of a zip archive extracted ahead of
+	 * the one handed over next, per thread
+	 */
+	private static final int SETS_AHEAD_PER_THREAD = 4;
+	
+	private final Log log;
+	private final Path dir;
+	
+	/**
+	 * @param log
+	 * Reports the entries that are skipped
+	 * 
+	 * @param dir
+	 * The directory into which the artifacts are extracted, in repository 
+	 * layout
+	 */
+	public BundleReader(Log log, File dir)
+	{
+		this.log = log;
+		this.dir = dir.toPath().toAbsolutePath().normalize();
+	}
+	
+	/**
+	 * Obtains the artifact stored at a path of a repository
+	 * 
+	 * @param path
+	 * The path, relative to the repository root
+	 * 
+	 * @return
+	 * The artifact, or {@code null} if the path does not follow the 
+	 * repository layout
+	 */
+	static Artifact parsePath(String path)
+	{
+		String[] segments = path.split("/");
+		if (segments.length < 4)
+		{
+			return null;
+		}
+		
+		String artifactId = segments[segments.length - 3];
+		String version = segments[segments.length - 2];
+		String fileName = segments[segments.length - 1];
+		String prefix = artifactId + "-" + version;
+		if (!fileName.startsWith(prefix) || fileName.length() == prefix.length())
+		{
+			return null;
+		}
+		
+		String classifier = "";
+		String rest = fileName.substring(prefix.length());
+		if (rest.charAt(0) == '-')
+		{
+			int dot = rest.indexOf('.');
+			if (dot == -1)
+			{
+				return null;
+			}
+			classifier = rest.substring(1, dot);
+			rest = rest.substring(dot);
+		}
+		if (rest.length() < 2 || rest.charAt(0) != '.')
+		{
+			return null;
+		}
+		
+		String groupId = String.join(".", Arrays.asList(segments).subList(0, segments.length - 3));
+		return new DefaultArtifact(groupId, artifactId, classifier, rest.substring(1), version);
+	}
+	
+	/**
+	 * Determines where an entry is extracted
+	 * 
+	 * @return
+	 * The artifact stored by the entry, or {@code null} if the entry is not 
+	 * extracted
+	 */
+	private Artifact getArtifact(String name)
+	{
+		if (name.endsWith("/") 
+				|| Checksums.isChecksum(name) 
+				|| name.substring(name.lastIndexOf('/') + 1).startsWith(VersionsMetadata.FILE_NAME))
+		{
+			return null;
+		}
+		
+		Path target = dir.resolve(name).normalize();
+		Artifact artifact = parsePath(name);
+		if (!target.startsWith(dir) || artifact == null)
+		{
+			log.warn("Skipping bundle entry " + name + ", which is not an artifact");
+			return null;
+		}
+		return artifact.setFile(target.toFile());
+	}
+	
+	private static String getVersionDir(String name)
+	{
+		return name.substring(0, name.lastIndexOf('/'));
+	}
+	
+	/**
+	 * Extracts the artifacts of an archive
+	 * 
+	 * @param bundle
+	 * The archive, whose format is chosen by its extension as by 
+	 * {@link BundleWriter}.  The entries of a zip archive are extracted in 
+	 * parallel.
+	 * 
+	 * @param threads
+	 * The number of threads extracting the entries of a zip archive
+	 * 
+	 * @param artifactSets
+	 * Receives the extracted artifacts of each version directory, in the 
+	 * order of the archive.  {@link BundleWriter} writes the entries of a 
+	 * directory together; a directory whose entries are apart is handed over
+	 * once per run of adjacent entries.
+	 */
+	public void extract(File bundle, int threads, Consumer<Collection<Artifact>> artifactSets) 
+			throws IOException, InterruptedException
+	{
+		String name = bundle.getName().toLowerCase(Locale.ENGLISH);
+		if (name.endsWith(".zip"))
+		{
+			extractZip(bundle, threads, artifactSets);
+		}
+		else if (name.endsWith(".tar"))
+		{
+			try (InputStream is = new BufferedInputStream(Files.newInputStream(bundle.toPath())))
+			{
+				extractTar(is, artifactSets);
+			}
+		}
+		else if (name.endsWith(".tar.gz") || name.endsWith(".tgz"))
+		{
+			try (InputStream is = new GZIPInputStream(Files.newInputStream(bundle.toPath()), 65536))
+			{
+				extractTar(new BufferedInputStream(is), artifactSets);
+			}
+		}
+		else
+		{
+			throw new IOException(
+					"Unsupported bundle format " + bundle + "; expected .zip, .tar, .tar.gz or .tgz");
+		}
+	}
+	
+	/**
+	 * Waits for the extraction of a version directory, and hands it over
+	 */
+	private static void handOver(
+			List<Future<Artifact>> extractions, 
+			Consumer<Collection<Artifact>> artifactSets)
+			throws InterruptedException, ExecutionException
+	{
+		List<Artifact> artifactSet = new ArrayList<>(extractions.size());
+		for (Future<Artifact> extraction: extractions)
+		{
+			artifactSet.add(extraction.get());
+		}
+		artifactSets.accept(artifactSet);
+	}
+	
+	private void extractZip(
+			File bundle, 
+			int threads, 
+			Consumer<Collection<Artifact>> artifactSets) 
+			throws IOException, InterruptedException
+	{
+		ExecutorService executor = Utils.newExecutor("reposync-import", threads);
+		try (ZipFile zipFile = new ZipFile(bundle))
+		{
+			/*
+			 * The directories being extracted, in the order of the archive
+			 */
+			Deque<List<Future<Artifact>>> window = new ArrayDeque<>();
+			String versionDir = null;
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements())
+			{
+				ZipEntry entry = entries.nextElement();
+				Artifact artifact = getArtifact(entry.getName());
+				if (artifact == null)
+				{
+					continue;
+				}
+				
+				String entryDir = getVersionDir(entry.getName());
+				if (!entryDir.equals(versionDir))
+				{
+					while (window.size() >= threads * SETS_AHEAD_PER_THREAD)
+					{
+						handOver(window.remove(), artifactSets);
+					}
+					window.add(new ArrayList<>());
+					versionDir = entryDir;
+				}
+				window.getLast().add(executor.submit(() -> {
+					Path target = artifact.getFile().toPath();
+					Files.createDirectories(target.getParent());
+					try (InputStream is = zipFile.getInputStream(entry))
+					{
+						Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
+					}
+					return artifact;
+				}));
+			}
+			while (!window.isEmpty())
+			{
+				handOver(window.remove(), artifactSets);
+			}
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof IOException)
+			{
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Failed to extract " + bundle, e.getCause());
+		}
+		finally
+		{
+			Utils.shutdown(executor);
+		}
+	}
+	
+	private static String getString(byte[] header, int offset, int length)
+	{
+		int end = offset;
+		while (end < offset + length && header[end] != 0)
+		{
+			end++;
+		}
+		return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+	}
+	
+	private static long getOctal(byte[] header, int offset, int length) throws IOException
+	{
+		String value = getString(header, offset, length).trim();
+		try
+		{
+			return value.isEmpty() ? 0 : Long.parseLong(value, 8);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IOException("Invalid tar header", e);
+		}
+	}
+	
+	private static byte[] readFully(InputStream is, byte[] buf, int length) throws IOException
+	{
+		int read = 0;
+		while (read < length)
+		{
+			int count = is.read(buf, read, length - read);
+			if (count == -1)
+			{
+				throw new EOFException("Truncated tar archive");
+			}
+			read += count;
+		}
+		return buf;
+	}
+	
+	private static void skip(InputStream is, long length) throws IOException
+	{
+		byte[] buf = new byte[BLOCK_SIZE];
+		while (length > 0)
+		{
+			int count = (int) Math.min(buf.length, length);
+			readFully(is, buf, count);
+			length -= count;
+		}
+	}
+	
+	private static long padding(long size)
+	{
+		return (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+	}
+	
+	/**
+	 * Reads a tar archive, applying POSIX extended headers and GNU long names
+	 */
+	private void extractTar(InputStream is, Consumer<Collection<Artifact>> artifactSets) 
+			throws IOException
+	{
+		byte[] header = new byte[BLOCK_SIZE];
+		String longName = null;
+		Long longSize = null;
+		String versionDir = null;
+		List<Artifact> artifactSet = new ArrayList<>();
+		while (true)
+		{
+			readFully(is, header, BLOCK_SIZE);
+			boolean empty = true;
+			for (byte b: header)
+			{
+				if (b != 0)
+				{
+					empty = false;
+					break;
+				}
+			}
+			if (empty)
+			{
+				if (!artifactSet.isEmpty())
+				{
+					artifactSets.accept(artifactSet);
+				}
+				return;
+			}
+			
+			String name = getString(header, 0, 100);
+			String prefix = getString(header, 345, 155);
+			if (getString(header, 257, 6).equals("ustar") && !prefix.isEmpty())
+			{
+				name = prefix + "/" + name;
+			}
+			long size = getOctal(header, 124, 12);
+			char type = (char) header[156];
+			
+			if (type == 'x' || type == 'L')
+			{
+				byte[] content = readFully(is, new byte[(int) size], (int) size);
+				skip(is, padding(size));
+				if (type == 'L')
+				{
+					longName = getString(content, 0, content.length);
+					continue;
+				}
+				
+				/*
+				 * Each record is "<length> <key>=<value>\n", its length 
+				 * counting the bytes of the whole record
+				 */
+				int pos = 0;
+				while (pos < content.length)
+				{
+					int space = pos;
+					while (content[space] != ' ')
+					{
+						space++;
+					}
+					int length = Integer.parseInt(
+							new String(content, pos, space - pos, StandardCharsets.US_ASCII));
+					String keyValue = new String(
+							content, space + 1, pos + length - space - 2, StandardCharsets.UTF_8);
+					int eq = keyValue.indexOf('=');
+					String key = keyValue.substring(0, eq);
+					if (key.equals("path"))
+					{
+						longName = keyValue.substring(eq + 1);
+					}
+					else if (key.equals("size"))
+					{
+						longSize = Long.parseLong(keyValue.substring(eq + 1));
+					}
+					pos += length;
+				}
+				continue;
+			}
+			
+			if (longName != null)
+			{
+				name = longName;
+			}
+			if (longSize != null)
+			{
+				size = longSize;
+			}
+			longName = null;
+			longSize = null;
+			
+			Artifact artifact = type == '0' || type == 0 ? getArtifact(name) : null;
+			if (artifact == null)
+			{
+				skip(is, size + padding(size));
+				continue;
+			}
+			
+			String entryDir = getVersionDir(name);
+			if (!entryDir.equals(versionDir))
+			{
+				if (!artifactSet.isEmpty())
+				{
+					artifactSets.accept(artifactSet);
+				}
+				artifactSet = new ArrayList<>();
+				versionDir = entryDir;
+			}
+			
+			Path target = artifact.getFile().toPath();
+			Files.createDirectories(target.getParent());
+			try (OutputStream os = Files.newOutputStream(target))
+			{
+				byte[] buf = new byte[65536];
+				long remaining = size;
+				while (remaining > 0)
+				{
+					int count = (int) Math.min(buf.length, remaining);
+					os.write(readFully(is, buf, count), 0, count);
+					remaining -= count;
+				}
+			}
+			artifactSet.add(artifact);
+			skip(is, padding(size));
+		}
+	}
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Writes artifact sets to a single archive in repository layout, in one 
+ * sequential pass.  Each artifact is followed by its checksum files, and the 
+ * group-artifact {@code maven-metadata.xml} of every bundled artifact, with 
+ * its checksum files, is written at the end.
+ * <p>
+ * The format of the archive is chosen by the extension of its file: 
+ * {@code .zip}, {@code .tar}, or {@code .tar.gz} and {@code .tgz} for a 
+ * compressed tar archive.  Names too long for a tar header are written as 
+ * POSIX extended headers.
+ */
+final class BundleWriter implements Closeable
+{
+	private static final int BLOCK_SIZE = 512;
+	private static final long MAX_TAR_SIZE = 077777777777L;
+	
+	private final OutputStream out;
+	
+	/**
+	 * The stream of a zip archive, or {@code null} for a tar archive
+	 */
+	private final ZipOutputStream zip;
+	
+	private final List<String> checksumAlgorithms;
+	
+	/**
+	 * The meta-data of each bundled group-artifact coordinate, by path
+	 */
+	private final Map<String, Metadata> metadataMap = new TreeMap<>();
+	
+	private final byte[] buf = new byte[65536];
+	private long entrySize;
+	
+	/**
+	 * Creates an archive, replacing any existing file
+	 * 
+	 * @param file
+	 * The archive file
+	 * 
+	 * @param checksumAlgorithms
+	 * The algorithms of the checksum files to write
+	 * 
+	 * @throws IOException
+	 * If the archive could not be created, or its format is not supported
+	 */
+	public BundleWriter(File file, List<String> checksumAlgorithms) throws IOException
+	{
+		this.checksumAlgorithms = checksumAlgorithms;
+		String name = file.getName().toLowerCase(Locale.ENGLISH);
+		boolean isZip = name.endsWith(".zip");
+		boolean isTarGz = name.endsWith(".tar.gz") || name.endsWith(".tgz");
+		if (!isZip && !isTarGz && !name.endsWith(".tar"))
+		{
+			throw new IOException(
+					"Unsupported bundle format " + file + "; expected .zip, .tar, .tar.gz or .tgz");
+		}
+		
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+		{
+			Files.createDirectories(parent.toPath());
+		}
+		OutputStream os = new BufferedOutputStream(Files.newOutputStream(file.toPath()), buf.length);
+		if (isZip)
+		{
+			zip = new ZipOutputStream(os);
+			zip.setLevel(Deflater.BEST_SPEED);
+			out = zip;
+		}
+		else
+		{
+			zip = null;
+			out = isTarGz ? new GZIPOutputStream(os, buf.length) : os;
+		}
+	}
+	
+	/**
+	 * Writes the artifacts of one group-artifact-version coordinate
+	 * 
+	 * @param artifactSet
+	 * The artifacts to write
+	 * 
+	 * @return
+	 * {@code false} if the set was not written because it holds snapshots, 
+	 * which are only given their timestamps when deployed
+	 */
+	public boolean write(Collection<Artifact> artifactSet) throws IOException
+	{
+		if (artifactSet.isEmpty())
+		{
+			return true;
+		}
+		for (Artifact artifact: artifactSet)
+		{
+			if (artifact.isSnapshot())
+			{
+				return false;
+			}
+		}
+		
+		for (Artifact artifact: artifactSet)
+		{
+			String path = Utils.getRepositoryPath(artifact);
+			File file = artifact.getFile();
+			MessageDigest[] digests = Checksums.newDigests(checksumAlgorithms);
+			beginEntry(path, file.length(), file.lastModified());
+			try (InputStream is = Files.newInputStream(file.toPath()))
+			{
+				long remaining = entrySize;
+				int read;
+				while (remaining > 0 
+						&& (read = is.read(buf, 0, (int) Math.min(buf.length, remaining))) != -1)
+				{
+					out.write(buf, 0, read);
+					for (MessageDigest digest: digests)
+					{
+						digest.update(buf, 0, read);
+					}
+					remaining -= read;
+				}
+				if (remaining > 0)
+				{
+					throw new IOException(file + " changed while it was being bundled");
+				}
+			}
+			endEntry();
+			writeChecksums(path, digests, file.lastModified());
+		}
+		
+		Artifact artifact = artifactSet.iterator().next();
+		metadataMap.compute(
+				VersionsMetadata.getPath(artifact), 
+				(path, existing) -> VersionsMetadata.merge(
+						VersionsMetadata.create(artifact), 
+						existing == null ? new Metadata() : existing));
+		return true;
+	}
+	
+	private void writeChecksums(String path, MessageDigest[] digests, long time) 
+			throws IOException
+	{
+		for (int i = 0; i < digests.length; i++)
+		{
+			writeEntry(
+					path + Checksums.getExtension(checksumAlgorithms.get(i)), 
+					Utils.toHex(digests[i].digest()).getBytes(StandardCharsets.UTF_8), 
+					time);
+		}
+	}
+	
+	private void writeEntry(String path, byte[] content, long time) throws IOException
+	{
+		beginEntry(path, content.length, time);
+		out.write(content);
+		endEntry();
+	}
+	
+	private void beginEntry(String path, long size, long time) throws IOException
+	{
+		if (zip == null)
+		{
+			writeTarHeaders(path, size, time);
+		}
+		else
+		{
+			ZipEntry entry = new ZipEntry(path);
+			entry.setTime(time);
+			zip.putNextEntry(entry);
+		}
+		entrySize = size;
+	}
+	
+	private void endEntry() throws IOException
+	{
+		if (zip == null)
+		{
+			pad(entrySize);
+		}
+		else
+		{
+			zip.closeEntry();
+		}
+	}
+	
+	private void pad(long size) throws IOException
+	{
+		int remainder = (int) (size % BLOCK_SIZE);
+		if (remainder != 0)
+		{
+			out.write(new byte[BLOCK_SIZE - remainder]);
+		}
+	}
+	
+	private static String paxRecord(String key, String value)
+	{
+		int length = (" " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8).length;
+		int total = length + Integer.toString(length).length();
+		if (Integer.toString(total).length() != Integer.toString(length).length())
+		{
+			total = length + Integer.toString(total).length();
+		}
+		return total + " " + key + "=" + value + "\n";
+	}
+	
+	private void writeTarHeaders(String path, long size, long time) throws IOException
+	{
+		byte[] name = path.getBytes(StandardCharsets.UTF_8);
+		boolean longName = name.length > 100;
+		boolean largeSize = size > MAX_TAR_SIZE;
+		if (longName || largeSize)
+		{
+			StringBuilder records = new StringBuilder();
+			if (longName)
+			{
+				records.append(paxRecord("path", path));
+			}
+			if (largeSize)
+			{
+				records.append(paxRecord("size", Long.toString(size)));
+			}
+			byte[] content = records.toString().getBytes(StandardCharsets.UTF_8);
+			writeTarHeader(
+					"PaxHeaders/".getBytes(StandardCharsets.UTF_8), 
+					content.length, 
+					time, 
+					'x');
+			out.write(content);
+			pad(content.length);
+		}
+		writeTarHeader(name, largeSize ? 0 : size, time, '0');
+	}
+	
+	private static void putOctal(byte[] header, int offset, int length, long value)
+	{
+		String octal = Long.toOctalString(value);
+		int digits = length - 1;
+		Arrays.fill(header, offset, offset + digits - octal.length(), (byte) '0');
+		for (int i = 0; i < octal.length(); i++)
+		{
+			header[offset + digits - octal.length() + i] = (byte) octal.charAt(i);
+		}
+	}
+	
+	private void writeTarHeader(byte[] name, long size, long time, char type) 
+			throws IOException
+	{
+		byte[] header = new byte[BLOCK_SIZE];
+		System.arraycopy(name, 0, header, 0, Math.min(name.length, 100));
+		putOctal(header, 100, 8, 0644);
+		putOctal(header, 108, 8, 0);
+		putOctal(header, 116, 8, 0);
+		putOctal(header, 124, 12, size);
+		putOctal(header, 136, 12, time / 1000);
+		header[156] = (byte) type;
+		System.arraycopy("ustar\00000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+		
+		Arrays.fill(header, 148, 156, (byte) ' ');
+		long checksum = 0;
+		for (byte b: header)
+		{
+			checksum += b & 0xff;
+		}
+		putOctal(header, 148, 7, checksum);
+		header[154] = 0;
+		out.write(header);
+	}
+	
+	/**
+	 * Writes the group-artifact meta-data, and completes the archive
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			long now = System.currentTimeMillis();
+			for (Map.Entry<String, Metadata> entry: metadataMap.entrySet())
+			{
+				byte[] content = VersionsMetadata.toBytes(entry.getValue());
+				MessageDigest[] digests = Checksums.newDigests(checksumAlgorithms);
+				for (MessageDigest digest: digests)
+				{
+					digest.update(content);
+				}
+				writeEntry(entry.getKey(), content, now);
+				writeChecksums(entry.getKey(), digests, now);
+			}
+			
+			if (zip == null)
+			{
+				out.write(new byte[BLOCK_SIZE * 2]);
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Calculates the checksums of local artifact files, reading each file at most
+ * once
+ */
+final class ChecksumCache
+{
+	private final ConcurrentMap<File, String> sha1Map = new ConcurrentHashMap<>();
+	
+	/**
+	 * Obtains the SHA-1 checksum of an artifact's file
+	 * 
+	 * @param artifact
+	 * The artifact, which must have a file
+	 * 
+	 * @return
+	 * The lower-case hexadecimal checksum
+	 * 
+	 * @throws UncheckedIOException
+	 * If the file could not be read
+	 */
+	public String getSha1(Artifact artifact)
+	{
+		return sha1Map.computeIfAbsent(artifact.getFile(), file -> {
+			try
+			{
+				return Utils.sha1(file);
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+}
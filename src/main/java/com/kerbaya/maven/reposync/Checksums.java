@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.util.ConfigUtils;
+
+/**
+ * The checksum files written beside each file of a repository
+ */
+final class Checksums
+{
+	private static final String ALGORITHMS_KEY = "aether.checksums.algorithms";
+	private static final String DEFAULT_ALGORITHMS = "SHA-1,MD5";
+	private static final String[] EXTENSIONS = {".sha1", ".md5", ".sha256", ".sha512"};
+	
+	private Checksums()
+	{
+	}
+	
+	/**
+	 * Obtains the checksum algorithms that the repository system writes
+	 * 
+	 * @param session
+	 * The session whose configuration selects the algorithms
+	 * 
+	 * @return
+	 * The names of the algorithms, such as {@code SHA-1}
+	 */
+	public static List<String> getAlgorithms(RepositorySystemSession session)
+	{
+		List<String> algorithms = new ArrayList<>();
+		for (String algorithm: ConfigUtils.getString(
+				session, DEFAULT_ALGORITHMS, ALGORITHMS_KEY).split(","))
+		{
+			if (!algorithm.trim().isEmpty())
+			{
+				algorithms.add(algorithm.trim());
+			}
+		}
+		return algorithms;
+	}
+	
+	/**
+	 * Obtains the extension of the checksum files of an algorithm
+	 * 
+	 * @param algorithm
+	 * The name of the algorithm, such as {@code SHA-1}
+	 * 
+	 * @return
+	 * The extension, such as {@code .sha1}
+	 */
+	public static String getExtension(String algorithm)
+	{
+		return "." + algorithm.replace("-", "").toLowerCase(Locale.ENGLISH);
+	}
+	
+	/**
+	 * Determines whether a file of a repository holds a checksum
+	 * 
+	 * @param path
+	 * The path or name of the file
+	 * 
+	 * @return
+	 * {@code true} if the file has the extension of a checksum file
+	 */
+	public static boolean isChecksum(String path)
+	{
+		for (String extension: EXTENSIONS)
+		{
+			if (path.endsWith(extension))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Creates a digest for each algorithm
+	 * 
+	 * @param algorithms
+	 * The names of the algorithms
+	 * 
+	 * @return
+	 * The digests, in the order of the algorithms
+	 * 
+	 * @throws IOException
+	 * If an algorithm is not supported
+	 */
+	public static MessageDigest[] newDigests(List<String> algorithms) throws IOException
+	{
+		MessageDigest[] digests = new MessageDigest[algorithms.size()];
+		for (int i = 0; i < digests.length; i++)
+		{
+			try
+			{
+				digests[i] = MessageDigest.getInstance(algorithms.get(i));
+			}
+			catch (NoSuchAlgorithmException e)
+			{
+				throw new IOException("Unsupported checksum algorithm " + algorithms.get(i), e);
+			}
+		}
+		return digests;
+	}
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+/**
+ * Holds the artifacts that a {@link ResolutionCollector} spilled to disk.  
+ * Each spill is written as a run of compact records, sorted by coordinate, to
+ * its own append-only file.  The runs are merged when they are read, so that
+ * artifacts come back grouped by group-artifact-version coordinate, in sorted
+ * order, while only one record per run is held in memory.
+ */
+final class CollectorSpill implements Closeable
+{
+	/**
+	 * A resolved artifact, reduced to what is needed to deploy it
+	 */
+	static final class Record
+	{
+		private static final Comparator<Record> ORDER = 
+				Comparator.comparing((Record r) -> r.groupId)
+						.thenComparing(r -> r.artifactId)
+						.thenComparing(r -> r.version)
+						.thenComparing(r -> r.extension)
+						.thenComparing(r -> r.classifier);
+		
+		private final String groupId;
+		private final String artifactId;
+		private final String version;
+		private final String extension;
+		private final String classifier;
+		private final String file;
+		
+		/**
+		 * The artifact's properties, such as its <code>type</code>, which 
+		 * tells plugins apart from other artifacts
+		 */
+		private final Map<String, String> properties;
+		
+		/**
+		 * The target repositories the artifact was found in, as a mask of 
+		 * {@link IgnoredTargets}
+		 */
+		private long ignoredBy;
+		
+		/**
+		 * {@code true} indicates the artifact was already handed over for 
+		 * deployment
+		 */
+		private boolean taken;
+		
+		public Record(Artifact artifact, long ignoredBy, boolean taken)
+		{
+			this.groupId = artifact.getGroupId();
+			this.artifactId = artifact.getArtifactId();
+			this.version = artifact.getVersion();
+			this.extension = artifact.getExtension();
+			this.classifier = artifact.getClassifier();
+			this.file = artifact.getFile().getPath();
+			this.properties = artifact.getProperties();
+			this.ignoredBy = ignoredBy;
+			this.taken = taken;
+		}
+		
+		private Record(DataInputStream in) throws IOException
+		{
+			groupId = in.readUTF();
+			artifactId = in.readUTF();
+			version = in.readUTF();
+			extension = in.readUTF();
+			classifier = in.readUTF();
+			file = in.readUTF();
+			int propertyCount = in.readInt();
+			properties = new HashMap<>(propertyCount * 2);
+			for (int i = 0; i < propertyCount; i++)
+			{
+				properties.put(in.readUTF(), in.readUTF());
+			}
+			ignoredBy = in.readLong();
+			taken = in.readBoolean();
+		}
+		
+		private void write(DataOutputStream out) throws IOException
+		{
+			out.writeUTF(groupId);
+			out.writeUTF(artifactId);
+			out.writeUTF(version);
+			out.writeUTF(extension);
+			out.writeUTF(classifier);
+			out.writeUTF(file);
+			out.writeInt(properties.size());
+			for (Map.Entry<String, String> property: properties.entrySet())
+			{
+				out.writeUTF(property.getKey());
+				out.writeUTF(property.getValue());
+			}
+			out.writeLong(ignoredBy);
+			out.writeBoolean(taken);
+		}
+		
+		private boolean samePath(Record other)
+		{
+			return groupId.equals(other.groupId)
+					&& artifactId.equals(other.artifactId)
+					&& version.equals(other.version);
+		}
+		
+		private Artifact toArtifact()
+		{
+			return new DefaultArtifact(
+					groupId, artifactId, classifier, extension, version, properties, new File(file));
+		}
+	}
+	
+	/**
+	 * Reads the records of a run, one at a time
+	 */
+	private static final class RunReader implements Closeable
+	{
+		private final DataInputStream in;
+		private Record current;
+		
+		public RunReader(File run) throws IOException
+		{
+			in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.toPath())));
+			advance();
+		}
+		
+		public void advance() throws IOException
+		{
+			current = in.readBoolean() ? new Record(in) : null;
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			in.close();
+		}
+	}
+	
+	/**
+	 * Merges the runs into sets of artifacts
+	 */
+	private final class MergeIterator implements Iterator<Collection<Artifact>>
+	{
+		private final PriorityQueue<RunReader> queue = new PriorityQueue<>(
+				Math.max(runs.size(), 1), 
+				(r1, r2) -> Record.ORDER.compare(r1.current, r2.current));
+		private Collection<Artifact> next;
+		
+		public MergeIterator()
+		{
+			try
+			{
+				for (File run: runs)
+				{
+					RunReader reader = new RunReader(run);
+					if (reader.current == null)
+					{
+						reader.close();
+					}
+					else
+					{
+						queue.add(reader);
+					}
+				}
+			}
+			catch (IOException e)
+			{
+				closeReaders();
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		private void closeReaders()
+		{
+			for (RunReader reader: queue)
+			{
+				try
+				{
+					reader.close();
+				}
+				catch (IOException e)
+				{
+					// nothing more to read
+				}
+			}
+			queue.clear();
+		}
+		
+		private Record poll() throws IOException
+		{
+			RunReader reader = queue.poll();
+			Record record = reader.current;
+			reader.advance();
+			if (reader.current == null)
+			{
+				reader.close();
+			}
+			else
+			{
+				queue.add(reader);
+			}
+			return record;
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			try
+			{
+				while (next == null && !queue.isEmpty())
+				{
+					/*
+					 * Records of the same artifact are adjacent, and the 
+					 * artifact remains ignored or taken if any of them was
+					 */
+					List<Record> pathRecords = new ArrayList<>();
+					Record first = poll();
+					pathRecords.add(first);
+					while (!queue.isEmpty() && queue.peek().current.samePath(first))
+					{
+						Record record = poll();
+						Record last = pathRecords.get(pathRecords.size() - 1);
+						if (Record.ORDER.compare(last, record) == 0)
+						{
+							last.ignoredBy |= record.ignoredBy;
+							last.taken |= record.taken;
+						}
+						else
+						{
+							pathRecords.add(record);
+						}
+					}
+					
+					Collection<Artifact> pathArtifacts = new ArrayList<>(pathRecords.size());
+					for (Record record: pathRecords)
+					{
+						if (!ignoredTargets.isIgnored(record.ignoredBy) && !record.taken)
+						{
+							pathArtifacts.add(ignoredTargets.mark(
+									record.toArtifact(), record.ignoredBy));
+						}
+					}
+					if (!pathArtifacts.isEmpty())
+					{
+						next = pathArtifacts;
+					}
+				}
+			}
+			catch (IOException e)
+			{
+				closeReaders();
+				throw new UncheckedIOException(e);
+			}
+			return next != null;
+		}
+		
+		@Override
+		public Collection<Artifact> next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			Collection<Artifact> result = next;
+			next = null;
+			return result;
+		}
+	}
+	
+	private final File configuredDirectory;
+	private final IgnoredTargets ignoredTargets;
+	private File directory;
+	private final List<File> runs = new ArrayList<>();
+	
+	/**
+	 * @param directory
+	 * The directory in which runs are written, or {@code null} to use a new 
+	 * temporary directory
+	 * 
+	 * @param ignoredTargets
+	 * The target repositories that the masks of the records refer to
+	 */
+	public CollectorSpill(File directory, IgnoredTargets ignoredTargets)
+	{
+		this.configuredDirectory = directory;
+		this.ignoredTargets = ignoredTargets;
+	}
+	
+	/**
+	 * @return
+	 * {@code true} if any run has been written
+	 */
+	public synchronized boolean hasRuns()
+	{
+		return !runs.isEmpty();
+	}
+	
+	/**
+	 * Writes a run
+	 * 
+	 * @param records
+	 * The records of the run, which are sorted by this method
+	 */
+	public synchronized void writeRun(List<Record> records) throws IOException
+	{
+		if (directory == null)
+		{
+			if (configuredDirectory == null)
+			{
+				directory = Files.createTempDirectory("reposync-spill").toFile();
+			}
+			else
+			{
+				Files.createDirectories(configuredDirectory.toPath());
+				directory = configuredDirectory;
+			}
+		}
+		
+		records.sort(Record.ORDER);
+		File run = File.createTempFile("run", ".bin", directory);
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(run.toPath()))))
+		{
+			for (Record record: records)
+			{
+				out.writeBoolean(true);
+				record.write(out);
+			}
+			out.writeBoolean(false);
+		}
+		runs.add(run);
+	}
+	
+	/**
+	 * Reads the runs back.  Each call starts a new pass over the runs.
+	 * 
+	 * @return
+	 * The sets of artifacts that were neither ignored nor taken, grouped by 
+	 * group-artifact-version coordinate, in sorted order
+	 * 
+	 * @throws UncheckedIOException
+	 * If a run could not be read
+	 */
+	public synchronized Iterator<Collection<Artifact>> iterator()
+	{
+		return new MergeIterator();
+	}
+	
+	@Override
+	public synchronized void close() throws IOException
+	{
+		for (File run: runs)
+		{
+			Files.deleteIfExists(run.toPath());
+		}
+		runs.clear();
+		if (directory != null && configuredDirectory == null)
+		{
+			Files.deleteIfExists(directory.toPath());
+		}
+		directory = null;
+	}
+}
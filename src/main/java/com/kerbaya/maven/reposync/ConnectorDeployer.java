@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.deployment.DeploymentException;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.metadata.DefaultMetadata;
+import org.eclipse.aether.metadata.Metadata;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.ArtifactUpload;
+import org.eclipse.aether.spi.connector.MetadataDownload;
+import org.eclipse.aether.spi.connector.MetadataUpload;
+import org.eclipse.aether.spi.connector.RepositoryConnector;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+
+/**
+ * Deploys released artifacts through the resolver's repository connector, 
+ * which uploads their checksums along with them.  The group-artifact 
+ * {@code maven-metadata.xml} is downloaded, merged with all deployed 
+ * versions, and uploaded once per batch, rather than once per version as by
+ * the repository system.  Unlike the repository system, it takes no 
+ * {@code SyncContext}, notifies no {@code RepositoryListener} and runs no
+ * {@code MetadataGenerator}.
+ * <p>
+ * Meta-data updates of the same group-artifact coordinate must not run 
+ * concurrently.
+ */
+final class ConnectorDeployer implements ReleaseDeployer
+{
+	private final RepositoryConnectorProvider connectorProvider;
+	private final RepositorySystemSession session;
+	private final RemoteRepository repository;
+	
+	public ConnectorDeployer(
+			RepositoryConnectorProvider connectorProvider,
+			RepositorySystemSession session,
+			RemoteRepository repository)
+	{
+		this.connectorProvider = connectorProvider;
+		this.session = session;
+		this.repository = repository;
+	}
+	
+	@Override
+	public void deployArtifacts(Collection<Artifact> artifactSet) throws Exception
+	{
+		List<ArtifactUpload> uploads = new ArrayList<>(artifactSet.size());
+		for (Artifact artifact: artifactSet)
+		{
+			ArtifactUpload upload = new ArtifactUpload(artifact, artifact.getFile());
+			upload.setListener(session.getTransferListener());
+			uploads.add(upload);
+		}
+		
+		try (RepositoryConnector connector = 
+				connectorProvider.newRepositoryConnector(session, repository))
+		{
+			connector.put(uploads, null);
+		}
+		for (ArtifactUpload upload: uploads)
+		{
+			if (upload.getException() != null)
+			{
+				throw new DeploymentException(
+						"Failed to deploy " + upload.getArtifact(), upload.getException());
+			}
+		}
+	}
+	
+	@Override
+	public void deployMetadata(List<Artifact> versions) throws Exception
+	{
+		Artifact first = versions.get(0);
+		Metadata metadata = new DefaultMetadata(
+				first.getGroupId(), 
+				first.getArtifactId(), 
+				VersionsMetadata.FILE_NAME, 
+				Metadata.Nature.RELEASE_OR_SNAPSHOT);
+		File file = File.createTempFile("maven-metadata", ".xml");
+		try (RepositoryConnector connector = 
+				connectorProvider.newRepositoryConnector(session, repository))
+		{
+			MetadataDownload download = new MetadataDownload(
+					metadata, 
+					null, 
+					file, 
+					repository.getPolicy(false).getChecksumPolicy());
+			download.setListener(session.getTransferListener());
+			connector.get(null, Collections.singletonList(download));
+			
+			org.apache.maven.artifact.repository.metadata.Metadata merged;
+			if (download.getException() instanceof MetadataNotFoundException)
+			{
+				merged = new org.apache.maven.artifact.repository.metadata.Metadata();
+			}
+			else if (download.getException() != null)
+			{
+				throw new DeploymentException(
+						"Failed to retrieve remote metadata " + metadata, 
+						download.getException());
+			}
+			else
+			{
+				try (InputStream is = Files.newInputStream(file.toPath()))
+				{
+					merged = VersionsMetadata.read(is);
+				}
+				catch (IOException e)
+				{
+					throw new DeploymentException("Failed to read remote metadata " + metadata, e);
+				}
+			}
+			
+			for (Artifact version: versions)
+			{
+				merged = VersionsMetadata.merge(VersionsMetadata.create(version), merged);
+			}
+			Files.write(file.toPath(), VersionsMetadata.toBytes(merged));
+			
+			MetadataUpload upload = new MetadataUpload(metadata.setFile(file), file);
+			upload.setListener(session.getTransferListener());
+			connector.put(null, Collections.singletonList(upload));
+			if (upload.getException() != null)
+			{
+				throw new DeploymentException(
+						"Failed to deploy metadata " + metadata, upload.getException());
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * A reusable view of the coordinate of an artifact, in the format 
+ * {@code <groupId>:<artifactId>:<extension>[:<classifier>]:<version>}, that 
+ * reads the characters from the artifact's fields instead of copying them.  
+ * Instances are not thread-safe.
+ */
+final class CoordinateSequence implements CharSequence
+{
+	private static final char SEPARATOR = ':';
+	
+	private final String[] fields = new String[5];
+	private final int[] starts = new int[5];
+	private int fieldCount;
+	private int length;
+	
+	/*
+	 * The field of the last character read, since characters are mostly read
+	 * in order
+	 */
+	private int lastField;
+	
+	/**
+	 * Makes this sequence a view of an artifact's coordinate
+	 * 
+	 * @param artifact
+	 * The artifact whose coordinate to view
+	 * 
+	 * @return
+	 * This sequence
+	 */
+	public CoordinateSequence reset(Artifact artifact)
+	{
+		fieldCount = 0;
+		length = -1;
+		lastField = 0;
+		add(artifact.getGroupId());
+		add(artifact.getArtifactId());
+		add(artifact.getExtension());
+		String classifier = artifact.getClassifier();
+		if (classifier != null && !classifier.isEmpty())
+		{
+			add(classifier);
+		}
+		add(artifact.getVersion());
+		return this;
+	}
+	
+	private void add(String field)
+	{
+		fields[fieldCount] = field;
+		starts[fieldCount] = length + 1;
+		length += field.length() + 1;
+		fieldCount++;
+	}
+	
+	/**
+	 * Determines whether this sequence starts with a prefix
+	 * 
+	 * @param prefix
+	 * The prefix to check
+	 * 
+	 * @return
+	 * {@code true} if this sequence starts with {@code prefix}
+	 */
+	public boolean startsWith(String prefix)
+	{
+		if (prefix.length() <= fields[0].length())
+		{
+			return fields[0].startsWith(prefix);
+		}
+		
+		if (prefix.length() > length)
+		{
+			return false;
+		}
+		
+		for (int i = 0; i < prefix.length(); i++)
+		{
+			if (charAt(i) != prefix.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public int length()
+	{
+		return length;
+	}
+	
+	@Override
+	public char charAt(int index)
+	{
+		if (index < 0 || index >= length)
+		{
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+		
+		int field = lastField;
+		if (index < starts[field])
+		{
+			field = 0;
+		}
+		while (field + 1 < fieldCount && index >= starts[field + 1])
+		{
+			field++;
+		}
+		lastField = field;
+		
+		int offset = index - starts[field];
+		return offset == fields[field].length() ? 
+				SEPARATOR : fields[field].charAt(offset);
+	}
+	
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		return toString().substring(start, end);
+	}
+	
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < fieldCount; i++)
+		{
+			if (i != 0)
+			{
+				sb.append(SEPARATOR);
+			}
+			sb.append(fields[i]);
+		}
+		return sb.toString();
+	}
+}
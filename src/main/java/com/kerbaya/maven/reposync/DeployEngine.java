@@ -0,0 +1,475 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.deployment.DeployRequest;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Deploys sets of artifacts to a repository using a bounded number of threads.
+ * Artifact sets that share a group-artifact coordinate are deployed one after
+ * another, so that concurrent deployments never write the same version 
+ * meta-data.  With a release deployer, the meta-data of a group-artifact 
+ * coordinate is written once, after the artifacts of all its consecutive 
+ * released versions.  Failed deploy requests may be retried, and may be 
+ * collected instead of stopping the deployment.
+ */
+final class DeployEngine
+{
+	private final RepositorySystem repositorySystem;
+	private final RepositorySystemSession session;
+	private final RemoteRepository repository;
+	private final int threads;
+	private final List<Consumer<? super Collection<Artifact>>> listeners = 
+			new ArrayList<>();
+	private SyncReport report;
+	private Retrier retrier;
+	private FailureSummary failures;
+	private ReleaseDeployer releaseDeployer;
+	private String target;
+	
+	public DeployEngine(
+			RepositorySystem repositorySystem,
+			RepositorySystemSession session,
+			RemoteRepository repository,
+			int threads)
+	{
+		this.repositorySystem = repositorySystem;
+		this.session = session;
+		this.repository = repository;
+		this.threads = Math.max(threads, 1);
+	}
+	
+	/**
+	 * Adds a listener that is notified of each artifact set after it has been
+	 * successfully deployed.  Listeners may be notified concurrently.
+	 * 
+	 * @param listener
+	 * The listener to add
+	 * 
+	 * @return
+	 * This engine
+	 */
+	public DeployEngine addListener(Consumer<? super Collection<Artifact>> listener)
+	{
+		listeners.add(listener);
+		return this;
+	}
+	
+	/**
+	 * Sets the report that records the duration of each deploy request
+	 * 
+	 * @param report
+	 * The report, or {@code null}
+	 * 
+	 * @return
+	 * This engine
+	 */
+	public DeployEngine setReport(SyncReport report)
+	{
+		this.report = report;
+		return this;
+	}
+	
+	/**
+	 * Sets the retrier of failed deploy requests
+	 * 
+	 * @param retrier
+	 * The retrier, or {@code null} to attempt each deploy request once
+	 * 
+	 * @return
+	 * This engine
+	 */
+	public DeployEngine setRetrier(Retrier retrier)
+	{
+		this.retrier = retrier;
+		return this;
+	}
+	
+	/**
+	 * Sets the summary that collects failed deploy requests.  With a summary,
+	 * a failed deploy request does not stop the deployment of the other 
+	 * artifact sets.
+	 * 
+	 * @param failures
+	 * The summary, or {@code null} to stop at the first failure
+	 * 
+	 * @return
+	 * This engine
+	 */
+	public DeployEngine setFailures(FailureSummary failures)
+	{
+		this.failures = failures;
+		return this;
+	}
+	
+	/**
+	 * Sets the deployer of released artifact sets.  Listeners are notified of
+	 * the sets it deploys once the group-artifact meta-data is written.
+	 * 
+	 * @param releaseDeployer
+	 * The deployer, or {@code null} to deploy all artifact sets through the 
+	 * repository system
+	 * 
+	 * @return
+	 * This engine
+	 */
+	public DeployEngine setReleaseDeployer(ReleaseDeployer releaseDeployer)
+	{
+		this.releaseDeployer = releaseDeployer;
+		return this;
+	}
+	
+	/**
+	 * Sets the name of the repository added to failure messages, so that 
+	 * failures can be told apart when deploying to several repositories
+	 * 
+	 * @param target
+	 * Names the repository, or {@code null}
+	 * 
+	 * @return
+	 * This engine
+	 */
+	public DeployEngine setTarget(String target)
+	{
+		this.target = target;
+		return this;
+	}
+	
+	/**
+	 * Deploys artifact sets.  Each set is deployed in a single deploy request.
+	 * The sets are read as they are deployed: consecutive sets that share a 
+	 * group-artifact coordinate are deployed together by one thread, and sets
+	 * of a group-artifact coordinate that is already being deployed wait for
+	 * it.  Unless failures are collected, no further deploy requests are 
+	 * started after the first failure, and the requests already started are
+	 * allowed to complete.
+	 * 
+	 * @param artifactSets
+	 * The sets of artifacts to deploy, each belonging to a single 
+	 * group-artifact-version coordinate
+	 */
+	public void deploy(Iterable<? extends Collection<Artifact>> artifactSets)
+			throws MojoExecutionException
+	{
+		ExecutorService executor = Utils.newExecutor("reposync-deployer", threads);
+		try
+		{
+			CompletionService<Void> completionService = 
+					new ExecutorCompletionService<>(executor);
+			
+			/*
+			 * Limits the sets that are read ahead of the deployments
+			 */
+			Semaphore permits = new Semaphore(threads * 2);
+			AtomicBoolean failed = new AtomicBoolean();
+			Set<GroupArtifactKey> activeKeys = new HashSet<>();
+			int submitted = 0;
+			
+			GroupArtifactKey batchKey = null;
+			List<Collection<Artifact>> batch = new ArrayList<>();
+			for (Collection<Artifact> artifactSet: artifactSets)
+			{
+				if (failed.get())
+				{
+					break;
+				}
+				
+				if (artifactSet.isEmpty())
+				{
+					continue;
+				}
+				
+				GroupArtifactKey key = new GroupArtifactKey(artifactSet.iterator().next());
+				if (!key.equals(batchKey) && !batch.isEmpty())
+				{
+					submit(completionService, permits, activeKeys, batchKey, batch, failed);
+					submitted++;
+					batch = new ArrayList<>();
+				}
+				batchKey = key;
+				batch.add(artifactSet);
+			}
+			
+			if (!batch.isEmpty() && !failed.get())
+			{
+				submit(completionService, permits, activeKeys, batchKey, batch, failed);
+				submitted++;
+			}
+			
+			for (int i = 0; i < submitted; i++)
+			{
+				try
+				{
+					completionService.take().get();
+				}
+				catch (ExecutionException e)
+				{
+					throw new MojoExecutionException(
+							target == null ? "Deployment failed" : "Deployment to " + target + " failed", 
+							e.getCause());
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted during deployment", e);
+		}
+		finally
+		{
+			Utils.awaitTermination(executor);
+		}
+	}
+	
+	private void submit(
+			CompletionService<Void> completionService,
+			Semaphore permits,
+			Set<GroupArtifactKey> activeKeys,
+			GroupArtifactKey key,
+			List<Collection<Artifact>> batch,
+			AtomicBoolean failed)
+			throws InterruptedException
+	{
+		permits.acquire();
+		completionService.submit(() -> {
+			try
+			{
+				synchronized (activeKeys)
+				{
+					while (!activeKeys.add(key))
+					{
+						activeKeys.wait();
+					}
+				}
+				
+				try
+				{
+					deployBatch(batch, failed);
+				}
+				finally
+				{
+					synchronized (activeKeys)
+					{
+						activeKeys.remove(key);
+						activeKeys.notifyAll();
+					}
+				}
+				return null;
+			}
+			finally
+			{
+				permits.release();
+			}
+		});
+	}
+	
+	/**
+	 * Deploys consecutive artifact sets of one group-artifact coordinate
+	 */
+	private void deployBatch(List<Collection<Artifact>> batch, AtomicBoolean failed)
+			throws Exception
+	{
+		List<Collection<Artifact>> awaitingMetadata = new ArrayList<>();
+		try
+		{
+			for (Collection<Artifact> artifactSet: batch)
+			{
+				if (failed.get())
+				{
+					break;
+				}
+				if (deploy(artifactSet, failed))
+				{
+					awaitingMetadata.add(artifactSet);
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			/*
+			 * The versions already deployed are still added to the meta-data
+			 */
+			if (!awaitingMetadata.isEmpty() && !(e instanceof InterruptedException))
+			{
+				try
+				{
+					deployMetadata(awaitingMetadata, failed);
+				}
+				catch (Exception e2)
+				{
+					e.addSuppressed(e2);
+				}
+			}
+			throw e;
+		}
+		
+		if (!awaitingMetadata.isEmpty())
+		{
+			deployMetadata(awaitingMetadata, failed);
+		}
+	}
+	
+	/**
+	 * Runs a deployment, retrying it if it fails
+	 * 
+	 * @param subject
+	 * Describes what is deployed
+	 * 
+	 * @return
+	 * {@code false} if the deployment failed and the failure was collected
+	 */
+	private boolean run(String subject, Retrier.Attempt<?> deployment, AtomicBoolean failed)
+			throws Exception
+	{
+		if (target != null)
+		{
+			subject += " to " + target;
+		}
+		try
+		{
+			if (retrier == null)
+			{
+				deployment.run(0);
+			}
+			else
+			{
+				retrier.call("Deployment of " + subject, deployment);
+			}
+			return true;
+		}
+		catch (Exception e)
+		{
+			if (failures != null && !(e instanceof InterruptedException))
+			{
+				failures.add("Failed to deploy " + subject, e);
+				return false;
+			}
+			failed.set(true);
+			throw e;
+		}
+	}
+	
+	private void notifyListeners(Collection<Artifact> artifactSet, AtomicBoolean failed)
+	{
+		try
+		{
+			for (Consumer<? super Collection<Artifact>> listener: listeners)
+			{
+				listener.accept(artifactSet);
+			}
+		}
+		catch (RuntimeException e)
+		{
+			failed.set(true);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Deploys an artifact set
+	 * 
+	 * @return
+	 * {@code true} if the release deployer deployed the set, which awaits 
+	 * the group-artifact meta-data
+	 */
+	private boolean deploy(Collection<Artifact> artifactSet, AtomicBoolean failed)
+			throws Exception
+	{
+		boolean release = releaseDeployer != null && ReleaseDeployer.isRelease(artifactSet);
+		Retrier.Attempt<?> deployment;
+		if (release)
+		{
+			deployment = attempt -> {
+				releaseDeployer.deployArtifacts(artifactSet);
+				return null;
+			};
+		}
+		else
+		{
+			DeployRequest dr = new DeployRequest();
+			dr.setArtifacts(artifactSet);
+			dr.setRepository(repository);
+			deployment = attempt -> repositorySystem.deploy(session, dr);
+		}
+		
+		long start = System.nanoTime();
+		if (!run(new ArtifactPath(artifactSet.iterator().next()).toString(), deployment, failed))
+		{
+			return false;
+		}
+		
+		if (report != null)
+		{
+			report.deployRequest(artifactSet, System.nanoTime() - start);
+		}
+		if (release)
+		{
+			return true;
+		}
+		notifyListeners(artifactSet, failed);
+		return false;
+	}
+	
+	/**
+	 * Adds the versions of artifact sets deployed by the release deployer to 
+	 * their group-artifact meta-data, then notifies the listeners of the sets
+	 */
+	private void deployMetadata(List<Collection<Artifact>> artifactSets, AtomicBoolean failed)
+			throws Exception
+	{
+		List<Artifact> versions = new ArrayList<>(artifactSets.size());
+		for (Collection<Artifact> artifactSet: artifactSets)
+		{
+			versions.add(artifactSet.iterator().next());
+		}
+		
+		Artifact artifact = versions.get(0);
+		if (run(
+				"metadata of " + artifact.getGroupId() + ":" + artifact.getArtifactId(), 
+				attempt -> {
+					releaseDeployer.deployMetadata(versions);
+					return null;
+				}, 
+				failed))
+		{
+			for (Collection<Artifact> artifactSet: artifactSets)
+			{
+				notifyListeners(artifactSet, failed);
+			}
+		}
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * A file recording the artifact sets that one run has deployed to a 
+ * repository, so that a failed run can be resumed.  Each line holds the 
+ * group-artifact-version coordinate of a deployed set, and a fingerprint of 
+ * the coordinates and checksums of the set's artifacts.  The first line holds
+ * the URL of the repository.
+ */
+final class DeployJournal implements Closeable
+{
+	private static final String HEADER_PREFIX = "# ";
+	private static final char SEPARATOR = ' ';
+	
+	private final ChecksumCache checksums;
+	private final Set<String> entries = ConcurrentHashMap.newKeySet();
+	
+	/*
+	 * The entries of the sets expected, until they are recorded
+	 */
+	private final Map<ArtifactPath, String> expected = new ConcurrentHashMap<>();
+	private final Writer writer;
+	
+	/**
+	 * Opens a journal
+	 * 
+	 * @param log
+	 * The log used to report the journal's activity
+	 * 
+	 * @param file
+	 * The journal file
+	 * 
+	 * @param repositoryUrl
+	 * The URL of the repository described by the journal
+	 * 
+	 * @param resume
+	 * {@code true} to keep the sets recorded by a previous run, or 
+	 * {@code false} to start an empty journal
+	 * 
+	 * @param checksums
+	 * Calculates the checksums of local artifact files
+	 */
+	public DeployJournal(
+			Log log, 
+			File file, 
+			String repositoryUrl, 
+			boolean resume, 
+			ChecksumCache checksums) 
+			throws IOException, MojoExecutionException
+	{
+		this.checksums = checksums;
+		
+		String header = HEADER_PREFIX + repositoryUrl;
+		boolean append = resume && file.exists();
+		if (append)
+		{
+			try (BufferedReader reader = Files.newBufferedReader(
+					file.toPath(), StandardCharsets.UTF_8))
+			{
+				String line = reader.readLine();
+				if (line != null && !line.equals(header))
+				{
+					throw new MojoExecutionException(String.format(
+							"Journal %s does not describe repository %s", 
+							file, 
+							repositoryUrl));
+				}
+				
+				while ((line = reader.readLine()) != null)
+				{
+					/*
+					 * A line cut short by a failure does not match any set
+					 */
+					entries.add(line);
+				}
+			}
+			log.info(String.format(
+					"Resuming from %d artifact sets in journal %s", entries.size(), file));
+		}
+		else
+		{
+			File parent = file.getAbsoluteFile().getParentFile();
+			if (parent != null)
+			{
+				Files.createDirectories(parent.toPath());
+			}
+		}
+		
+		writer = append ?
+				Files.newBufferedWriter(
+						file.toPath(), 
+						StandardCharsets.UTF_8, 
+						StandardOpenOption.APPEND)
+				: Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+		if (!append || file.length() == 0)
+		{
+			writer.write(header);
+			writer.write('\n');
+			writer.flush();
+		}
+	}
+	
+	/**
+	 * Obtains the journal line of an artifact set
+	 * 
+	 * @param artifactSet
+	 * Artifacts of a single group-artifact-version coordinate
+	 * 
+	 * @return
+	 * The coordinate of the set, followed by the fingerprint of its artifacts
+	 */
+	private String getEntry(Collection<Artifact> artifactSet)
+	{
+		List<String> lines = new ArrayList<>(artifactSet.size());
+		for (Artifact artifact: artifactSet)
+		{
+			lines.add(new ArtifactItem(artifact) + " " + checksums.getSha1(artifact));
+		}
+		lines.sort(null);
+		
+		MessageDigest md;
+		try
+		{
+			md = MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		for (String line: lines)
+		{
+			md.update(line.getBytes(StandardCharsets.UTF_8));
+			md.update((byte) '\n');
+		}
+		
+		Artifact first = artifactSet.iterator().next();
+		return new ArtifactPath(first).toString() + SEPARATOR + Utils.toHex(md.digest());
+	}
+	
+	/**
+	 * Determines whether the same set of artifacts, with the same content, was
+	 * recorded
+	 * 
+	 * @param artifactSet
+	 * Artifacts of a single group-artifact-version coordinate
+	 * 
+	 * @return
+	 * {@code true} if the set was recorded
+	 */
+	public boolean contains(Collection<Artifact> artifactSet)
+	{
+		return !artifactSet.isEmpty() && entries.contains(getEntry(artifactSet));
+	}
+	
+	/**
+	 * Takes note of an artifact set before any of its artifacts are filtered
+	 * out of the deployment, so that the set is recorded with the fingerprint
+	 * of all of its artifacts once the remaining ones are deployed.  A resumed
+	 * run then recognizes the set before filtering it again.
+	 * 
+	 * @param artifactSet
+	 * Artifacts of a single group-artifact-version coordinate
+	 * 
+	 * @return
+	 * {@code true} if the set was recorded, and need not be deployed
+	 */
+	public boolean expect(Collection<Artifact> artifactSet)
+	{
+		if (artifactSet.isEmpty())
+		{
+			return false;
+		}
+		String entry = getEntry(artifactSet);
+		if (entries.contains(entry))
+		{
+			return true;
+		}
+		expected.put(new ArtifactPath(artifactSet.iterator().next()), entry);
+		return false;
+	}
+	
+	/**
+	 * Records a set of artifacts that was successfully deployed, or whose 
+	 * artifacts were all filtered out of the deployment
+	 * 
+	 * @param artifactSet
+	 * Artifacts of a single group-artifact-version coordinate.  If the set
+	 * was {@link #expect(Collection) expected}, the fingerprint taken then is 
+	 * recorded.
+	 */
+	public void record(Collection<Artifact> artifactSet)
+	{
+		String entry = expected.remove(new ArtifactPath(artifactSet.iterator().next()));
+		if (entry == null)
+		{
+			entry = getEntry(artifactSet);
+		}
+		if (!entries.add(entry))
+		{
+			return;
+		}
+		
+		synchronized (writer)
+		{
+			try
+			{
+				writer.write(entry);
+				writer.write('\n');
+				writer.flush();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		writer.close();
+	}
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * A file recording the artifacts that were deployed to a repository, along 
+ * with their checksums.  Each line holds the coordinates of an artifact, its 
+ * SHA-1 checksum, and its path in the repository.  The first line holds the
+ * URL of the repository.
+ */
+final class DeployLedger implements Closeable
+{
+	private static final String HEADER_PREFIX = "# ";
+	private static final char SEPARATOR = ' ';
+	
+	private static final class Entry
+	{
+		public final String sha1;
+		public final String path;
+		
+		public Entry(String sha1, String path)
+		{
+			this.sha1 = sha1;
+			this.path = path;
+		}
+	}
+	
+	private final Log log;
+	private final File file;
+	private final String repositoryUrl;
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+	private final ChecksumCache checksums;
+	private final Writer writer;
+	
+	/**
+	 * {@code true} if the file holds lines that no longer describe an entry
+	 */
+	private volatile boolean stale;
+	
+	private ExecutorService verifier;
+	
+	/**
+	 * Opens a ledger, creating it if it does not exist
+	 * 
+	 * @param log
+	 * The log used to report the ledger's activity
+	 * 
+	 * @param file
+	 * The ledger file
+	 * 
+	 * @param repositoryUrl
+	 * The URL of the repository described by the ledger
+	 * 
+	 * @param checksums
+	 * Calculates the checksums of local artifact files
+	 */
+	public DeployLedger(
+			Log log, File file, String repositoryUrl, ChecksumCache checksums) 
+			throws IOException, MojoExecutionException
+	{
+		this.log = log;
+		this.file = file;
+		this.repositoryUrl = repositoryUrl;
+		this.checksums = checksums;
+		
+		String header = HEADER_PREFIX + repositoryUrl;
+		boolean exists = file.exists();
+		if (exists)
+		{
+			try (BufferedReader reader = Files.newBufferedReader(
+					file.toPath(), StandardCharsets.UTF_8))
+			{
+				String line = reader.readLine();
+				if (line != null && !line.equals(header))
+				{
+					throw new MojoExecutionException(String.format(
+							"Ledger %s does not describe repository %s", 
+							file, 
+							repositoryUrl));
+				}
+				
+				while ((line = reader.readLine()) != null)
+				{
+					String[] tokens = line.split(String.valueOf(SEPARATOR));
+					if (tokens.length != 3)
+					{
+						stale = true;
+						continue;
+					}
+					if (entries.put(tokens[0], new Entry(tokens[1], tokens[2])) != null)
+					{
+						stale = true;
+					}
+				}
+			}
+			log.info(String.format("Loaded %d entries from ledger %s", entries.size(), file));
+		}
+		else
+		{
+			File parent = file.getAbsoluteFile().getParentFile();
+			if (parent != null)
+			{
+				Files.createDirectories(parent.toPath());
+			}
+		}
+		
+		writer = Files.newBufferedWriter(
+				file.toPath(), 
+				StandardCharsets.UTF_8, 
+				StandardOpenOption.CREATE, 
+				StandardOpenOption.APPEND);
+		if (!exists || file.length() == 0)
+		{
+			writer.write(header);
+			writer.write('\n');
+			writer.flush();
+		}
+	}
+	
+	private static String getKey(Artifact artifact)
+	{
+		return new ArtifactItem(artifact).toString();
+	}
+	
+	/**
+	 * Determines whether an artifact is recorded with the same content.  Only
+	 * the local file of the artifact is read.
+	 * 
+	 * @param artifact
+	 * The artifact to look up
+	 * 
+	 * @return
+	 * {@code true} if the artifact was deployed with the same checksum
+	 */
+	public boolean contains(Artifact artifact)
+	{
+		if (artifact.isSnapshot())
+		{
+			/*
+			 * Snapshots are given new timestamps when deployed
+			 */
+			return false;
+		}
+		Entry entry = entries.get(getKey(artifact));
+		return entry != null && entry.sha1.equals(checksums.getSha1(artifact));
+	}
+	
+	/**
+	 * Records artifacts that were successfully deployed
+	 * 
+	 * @param artifacts
+	 * The deployed artifacts
+	 */
+	public void record(Collection<Artifact> artifacts)
+	{
+		StringBuilder sb = new StringBuilder();
+		for (Artifact artifact: artifacts)
+		{
+			if (artifact.isSnapshot())
+			{
+				continue;
+			}
+			String key = getKey(artifact);
+			Entry entry = new Entry(checksums.getSha1(artifact), Utils.getRepositoryPath(artifact));
+			if (entries.put(key, entry) != null)
+			{
+				stale = true;
+			}
+			sb.append(key)
+					.append(SEPARATOR)
+					.append(entry.sha1)
+					.append(SEPARATOR)
+					.append(entry.path)
+					.append('\n');
+		}
+		
+		if (sb.length() == 0)
+		{
+			return;
+		}
+		
+		synchronized (writer)
+		{
+			try
+			{
+				writer.write(sb.toString());
+				writer.flush();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+	
+	/**
+	 * Starts checking, in the background, that the entries of the ledger still
+	 * match the content of the repository.  Entries that do not match are 
+	 * removed, so that their artifacts are deployed again.
+	 * 
+	 * @param inspector
+	 * Reads the repository described by the ledger
+	 * 
+	 * @param threads
+	 * The number of threads used to check entries
+	 */
+	public void verify(TargetInspector inspector, int threads)
+	{
+		verifier = Utils.newExecutor("reposync-ledger", threads);
+		for (Map.Entry<String, Entry> e: entries.entrySet())
+		{
+			verifier.execute(() -> {
+				Entry entry = e.getValue();
+				String sha1;
+				try
+				{
+					sha1 = inspector.getSha1(entry.path);
+				}
+				catch (Exception e2)
+				{
+					log.debug("Could not verify " + entry.path, e2);
+					sha1 = null;
+				}
+				
+				if (!entry.sha1.equals(sha1) && entries.remove(e.getKey(), entry))
+				{
+					log.info(String.format(
+							"Ledger entry %s no longer matches %s", 
+							e.getKey(), 
+							repositoryUrl));
+					stale = true;
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Waits for the verification started by 
+	 * {@link #verify(TargetInspector, int)} to complete
+	 */
+	public void awaitVerification()
+	{
+		if (verifier != null)
+		{
+			Utils.awaitTermination(verifier);
+		}
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		if (verifier != null)
+		{
+			Utils.shutdown(verifier);
+		}
+		
+		writer.close();
+		
+		if (!stale)
+		{
+			return;
+		}
+		
+		/*
+		 * Rewrite the ledger with one line per entry
+		 */
+		File tmp = new File(file.getPath() + ".tmp");
+		try (Writer compacted = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8))
+		{
+			compacted.write(HEADER_PREFIX + repositoryUrl);
+			compacted.write('\n');
+			for (Map.Entry<String, Entry> e: entries.entrySet())
+			{
+				compacted.write(e.getKey());
+				compacted.write(SEPARATOR);
+				compacted.write(e.getValue().sha1);
+				compacted.write(SEPARATOR);
+				compacted.write(e.getValue().path);
+				compacted.write('\n');
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+/**
+ * A deployment plan, stored as JSON Lines.  The first line describes the 
+ * target repository.  Each following line describes a collected artifact: its
+ * coordinates, its resolved file, and either its checksum or the name of the
+ * filter that rejected it, and its properties if any.  Artifacts of the same group-artifact-version coordinate are written
+ * on consecutive lines.
+ */
+final class DeployPlan
+{
+	private static final String REPOSITORY_URL = "repositoryUrl";
+	private static final String GROUP_ID = "groupId";
+	private static final String ARTIFACT_ID = "artifactId";
+	private static final String EXTENSION = "extension";
+	private static final String CLASSIFIER = "classifier";
+	private static final String VERSION = "version";
+	private static final String FILE = "file";
+	private static final String SHA1 = "sha1";
+	private static final String RELEASE = "release";
+	private static final String REJECTED_BY = "rejectedBy";
+	private static final String PROPERTIES = "properties";
+	
+	private DeployPlan() {}
+	
+	/**
+	 * Receives the artifact sets of a plan as it is read
+	 */
+	public interface Handler
+	{
+		/**
+		 * Called for each set of artifacts to deploy
+		 * 
+		 * @param artifactSet
+		 * The artifacts of a group-artifact-version coordinate
+		 */
+		void artifactSet(Collection<Artifact> artifactSet) throws IOException;
+	}
+	
+	/**
+	 * Writes a plan
+	 */
+	public static final class Writer implements Closeable
+	{
+		private final BufferedWriter writer;
+		private final ChecksumCache checksums;
+		
+		public Writer(File file, String repositoryUrl, ChecksumCache checksums) 
+				throws IOException
+		{
+			File parent = file.getAbsoluteFile().getParentFile();
+			if (parent != null)
+			{
+				Files.createDirectories(parent.toPath());
+			}
+			this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+			this.checksums = checksums;
+			
+			Map<String, Object> header = new LinkedHashMap<>();
+			header.put(REPOSITORY_URL, repositoryUrl);
+			writeLine(header);
+		}
+		
+		private void writeLine(Map<String, Object> line) throws IOException
+		{
+			writer.write(JsonLines.format(line));
+			writer.write('\n');
+		}
+		
+		private static Map<String, Object> toLine(Artifact artifact)
+		{
+			Map<String, Object> line = new LinkedHashMap<>();
+			line.put(GROUP_ID, artifact.getGroupId());
+			line.put(ARTIFACT_ID, artifact.getArtifactId());
+			line.put(EXTENSION, artifact.getExtension());
+			line.put(CLASSIFIER, artifact.getClassifier());
+			line.put(VERSION, artifact.getVersion());
+			line.put(FILE, artifact.getFile().getAbsolutePath());
+			if (!artifact.getProperties().isEmpty())
+			{
+				/*
+				 * The meta-data written on deployment depends on the type
+				 */
+				line.put(PROPERTIES, new TreeMap<>(artifact.getProperties()));
+			}
+			return line;
+		}
+		
+		/**
+		 * Writes the artifacts of a group-artifact-version coordinate
+		 * 
+		 * @param toDeploy
+		 * The artifacts to deploy
+		 * 
+		 * @param rejected
+		 * The artifacts that are not deployed, along with the name of the 
+		 * filter that rejected each one
+		 */
+		public void write(
+				Collection<Artifact> toDeploy, 
+				Map<Artifact, String> rejected) 
+				throws IOException
+		{
+			for (Artifact artifact: toDeploy)
+			{
+				Map<String, Object> line = toLine(artifact);
+				line.put(SHA1, checksums.getSha1(artifact));
+				if (artifact instanceof ReleaseArtifact)
+				{
+					line.put(RELEASE, Boolean.TRUE);
+				}
+				writeLine(line);
+			}
+			
+			for (Map.Entry<Artifact, String> e: rejected.entrySet())
+			{
+				Map<String, Object> line = toLine(e.getKey());
+				line.put(REJECTED_BY, e.getValue());
+				writeLine(line);
+			}
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			writer.close();
+		}
+	}
+	
+	private static String getString(Map<String, Object> line, String key)
+	{
+		Object value = line.get(key);
+		if (!(value instanceof String))
+		{
+			throw new IllegalArgumentException(String.format(
+					"plan line has no \"%s\": %s", key, JsonLines.format(line)));
+		}
+		return (String) value;
+	}
+	
+	private static Map<String, String> getProperties(Map<String, Object> line)
+	{
+		Object value = line.get(PROPERTIES);
+		if (!(value instanceof Map))
+		{
+			throw new IllegalArgumentException(String.format(
+					"plan line has no \"%s\": %s", PROPERTIES, JsonLines.format(line)));
+		}
+		Map<String, String> properties = new LinkedHashMap<>();
+		for (Map.Entry<?, ?> e: ((Map<?, ?>) value).entrySet())
+		{
+			properties.put((String) e.getKey(), String.valueOf(e.getValue()));
+		}
+		return properties;
+	}
+	
+	/**
+	 * Reads a plan, one group-artifact-version coordinate at a time
+	 * 
+	 * @param file
+	 * The plan file
+	 * 
+	 * @param repositoryUrl
+	 * The URL of the target repository, which must be the one the plan was 
+	 * written for
+	 * 
+	 * @param checksums
+	 * Calculates the checksums of artifact files, which must still match the 
+	 * plan
+	 * 
+	 * @param handler
+	 * Receives the sets of artifacts to deploy
+	 */
+	public static void read(
+			File file, 
+			String repositoryUrl, 
+			ChecksumCache checksums, 
+			Handler handler)
+			throws IOException
+	{
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			String lineStr = reader.readLine();
+			if (lineStr == null)
+			{
+				throw new IOException("empty plan " + file);
+			}
+			String planRepositoryUrl = getString(JsonLines.parse(lineStr), REPOSITORY_URL);
+			if (!Objects.equals(planRepositoryUrl, repositoryUrl))
+			{
+				throw new IOException(String.format(
+						"plan %s was made for repository %s", file, planRepositoryUrl));
+			}
+			
+			ArtifactPath currentPath = null;
+			List<Artifact> currentSet = new ArrayList<>();
+			while ((lineStr = reader.readLine()) != null)
+			{
+				if (lineStr.trim().isEmpty())
+				{
+					continue;
+				}
+				
+				Map<String, Object> line = JsonLines.parse(lineStr);
+				if (line.containsKey(REJECTED_BY))
+				{
+					continue;
+				}
+				
+				Artifact artifact = new DefaultArtifact(
+						getString(line, GROUP_ID), 
+						getString(line, ARTIFACT_ID),
+						getString(line, CLASSIFIER),
+						getString(line, EXTENSION),
+						getString(line, VERSION))
+						.setFile(new File(getString(line, FILE)));
+				if (line.containsKey(PROPERTIES))
+				{
+					artifact = artifact.setProperties(getProperties(line));
+				}
+				
+				String sha1 = getString(line, SHA1);
+				String fileSha1;
+				try
+				{
+					fileSha1 = checksums.getSha1(artifact);
+				}
+				catch (UncheckedIOException e)
+				{
+					throw e.getCause();
+				}
+				if (!sha1.equals(fileSha1))
+				{
+					throw new IOException(String.format(
+							"%s no longer matches the plan", artifact.getFile()));
+				}
+				
+				if (Boolean.TRUE.equals(line.get(RELEASE)))
+				{
+					artifact = ReleaseArtifact.create(artifact);
+				}
+				
+				ArtifactPath path = new ArtifactPath(artifact);
+				if (!path.equals(currentPath))
+				{
+					if (!currentSet.isEmpty())
+					{
+						handler.artifactSet(currentSet);
+						currentSet = new ArrayList<>();
+					}
+					currentPath = path;
+				}
+				currentSet.add(artifact);
+			}
+			
+			if (!currentSet.isEmpty())
+			{
+				handler.artifactSet(currentSet);
+			}
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * Reports the released versions that differ between a source repository and 
+ * the target repository, without resolving anything.  The checksums of the 
+ * versions' files are compared.  The report lists each file that is missing
+ * from the target repository or different there as a requested artifact, 
+ * and each version that only the target repository holds as a comment, so 
+ * that it can be used as the <code>artifactsFile</code> of the 
+ * <code>update</code> goal.
+ */
+@org.apache.maven.plugins.annotations.Mojo(
+		name="diff", 
+		requiresProject=false, 
+		threadSafe=true)
+public class DiffMojo extends AbstractDeployMojo
+{
+    /**
+     * The ID of the source repository, whose proxy/login settings are used 
+     * with the {@link #sourceUrl}
+     */
+    @Parameter(property="sourceId", defaultValue="source-repository", required=true)
+    private String sourceId;
+    
+    /**
+     * The URL of the source repository.  The local repository is the source 
+     * if no URL is provided.
+     */
+    @Parameter(property="sourceUrl")
+    private String sourceUrl;
+    
+    /**
+     * The coordinates to compare, each either 
+     * <code>groupId:artifactId</code>, or a <code>groupId</code> that covers 
+     * its sub-groups too.  A <code>groupId</code> can only be used if either
+     * repository has a <code>file</code> URL, since only such repositories
+     * can be listed.
+     */
+    @Parameter(property="prefixes", required=true)
+    private List<String> prefixes;
+    
+    /**
+     * The maximum number of concurrent reads of each repository
+     */
+    @Parameter(property="diffThreads", defaultValue="8")
+    private int diffThreads;
+    
+    /**
+     * The file to which the differences are written
+     */
+    @Parameter(property="reposync.diff", defaultValue="${project.build.directory}/reposync-diff.txt", required=true)
+    private File diffFile;
+    
+	@Override
+	public void execute() throws MojoExecutionException
+	{
+		requireRepositoryUrl();
+		RemoteRepository sourceRepo = sourceUrl == null ?
+				new RemoteRepository.Builder(
+						"local", 
+						"default", 
+						rss.getLocalRepository().getBasedir().toURI().toString())
+						.build()
+				: buildRepository(sourceId, sourceUrl);
+		RemoteRepository distRepo = buildDistRepo();
+		
+		long phaseStart = System.nanoTime();
+		List<RepositoryDiff.Difference> differences;
+		try (TargetInspector source = newTargetInspector(sourceRepo);
+				TargetInspector target = newTargetInspector(distRepo))
+		{
+			differences = new RepositoryDiff(source, target, diffThreads).compare(prefixes);
+		}
+		catch (MojoExecutionException e)
+		{
+			throw e;
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new MojoExecutionException(e.getMessage(), e);
+		}
+		catch (Exception e)
+		{
+			throw new MojoExecutionException("Failed to compare repositories", e);
+		}
+		finally
+		{
+			syncReport.phase("diff", phaseStart);
+		}
+		
+		Map<RepositoryDiff.Kind, Integer> counts = new EnumMap<>(RepositoryDiff.Kind.class);
+		for (RepositoryDiff.Kind kind: RepositoryDiff.Kind.values())
+		{
+			counts.put(kind, 0);
+		}
+		try
+		{
+			File parent = diffFile.getAbsoluteFile().getParentFile();
+			if (parent != null)
+			{
+				Files.createDirectories(parent.toPath());
+			}
+			try (Writer writer = Files.newBufferedWriter(diffFile.toPath(), StandardCharsets.UTF_8))
+			{
+				writer.write(String.format(
+						"# Differences of %s from %s%n", distRepo.getUrl(), sourceRepo.getUrl()));
+				for (RepositoryDiff.Difference difference: differences)
+				{
+					log.info(difference.toString());
+					counts.merge(difference.getKind(), 1, Integer::sum);
+					writer.write("# " + difference + System.lineSeparator());
+					if (difference.getKind() != RepositoryDiff.Kind.EXTRA)
+					{
+						for (String artifact: difference.getArtifacts())
+						{
+							writer.write(artifact + System.lineSeparator());
+						}
+					}
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			throw new MojoExecutionException("Failed to write " + diffFile, e);
+		}
+		finally
+		{
+			for (Map.Entry<RepositoryDiff.Kind, Integer> count: counts.entrySet())
+			{
+				syncReport.count(
+						"diff" + count.getKey().name().charAt(0) 
+						+ count.getKey().name().substring(1).toLowerCase(), 
+						count.getValue());
+			}
+			writeReport();
+		}
+		
+		log.info(String.format(
+				"%d missing, %d different and %d extra versions written to %s", 
+				counts.get(RepositoryDiff.Kind.MISSING), 
+				counts.get(RepositoryDiff.Kind.DIFFERENT), 
+				counts.get(RepositoryDiff.Kind.EXTRA), 
+				diffFile));
+	}
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+
+/**
+ * Resolves the extras of resolved artifacts.  The extras of each 
+ * group-artifact-version coordinate are requested once, however many times 
+ * the coordinate is passed, so the resolver may be used concurrently for the
+ * results of independent dependency resolutions.  Extras that are not found
+ * are skipped, and extras that fail otherwise are retried.  Optionally, 
+ * extras that repositories were recently found to be missing are not 
+ * requested from them again, and the requests are spread across parallel 
+ * batches.
+ */
+final class ExtrasResolver
+{
+	private final Set<ArtifactPath> processedPaths = ConcurrentHashMap.newKeySet();
+	
+	private final RepositorySystem repositorySystem;
+	private final RepositorySystemSession session;
+	private final List<RemoteRepository> remoteRepos;
+	private final Collection<ExtraItem> extraItems;
+	private final Retrier retrier;
+	private final FailureSummary failures;
+	private MissingArtifactCache missingCache;
+	private int batches = 1;
+	
+	/**
+	 * @param retrier
+	 * Retries the extras that fail for another reason than not being found
+	 * 
+	 * @param failures
+	 * Collects the extras that still fail after their retries, or 
+	 * {@code null} to fail at once
+	 */
+	public ExtrasResolver(
+			RepositorySystem repositorySystem,
+			RepositorySystemSession session,
+			List<RemoteRepository> remoteRepos,
+			Collection<ExtraItem> extraItems,
+			Retrier retrier,
+			FailureSummary failures)
+	{
+		this.repositorySystem = repositorySystem;
+		this.session = session;
+		this.remoteRepos = remoteRepos;
+		this.extraItems = extraItems;
+		this.retrier = retrier;
+		this.failures = failures;
+	}
+	
+	/**
+	 * Sets the cache of extras that repositories are missing
+	 * 
+	 * @param missingCache
+	 * The cache, or {@code null} to request all extras from all repositories
+	 * 
+	 * @return
+	 * This resolver
+	 */
+	public ExtrasResolver setMissingCache(MissingArtifactCache missingCache)
+	{
+		this.missingCache = missingCache;
+		return this;
+	}
+	
+	/**
+	 * Sets the number of batches across which the requests of each call to
+	 * {@link #resolve(Set)} are spread.  The batches are resolved in parallel.
+	 * 
+	 * @param batches
+	 * The number of batches
+	 * 
+	 * @return
+	 * This resolver
+	 */
+	public ExtrasResolver setBatches(int batches)
+	{
+		this.batches = Math.max(batches, 1);
+		return this;
+	}
+	
+	/**
+	 * Resolves the extras of artifacts.  The session's listeners hear about 
+	 * the resolved extras.
+	 * 
+	 * @param resolvedItems
+	 * The resolved artifacts whose extras are resolved.  Extras in this set
+	 * are not resolved again.
+	 */
+	public void resolve(Set<ArtifactItem> resolvedItems) throws MojoExecutionException
+	{
+		List<ArtifactRequest> extraRequests = new ArrayList<>();
+		for (ArtifactItem artifactForExtras: resolvedItems)
+		{
+			if ("pom".equals(artifactForExtras.getExtension())
+					&& "".equals(artifactForExtras.getClassifier()))
+			{
+				/*
+				 * We don't get extras for POM's, since they are often
+				 * resolved through the course of disqualifying artifacts as 
+				 * dependencies
+				 */
+				continue;
+			}
+			
+			ArtifactPath artifactPath = new ArtifactPath(artifactForExtras);
+			if (!processedPaths.add(artifactPath))
+			{
+				/*
+				 * We've already added the requests for this artifact path's
+				 * extras
+				 */
+				continue;
+			}
+			
+			for (ExtraItem extra: extraItems)
+			{
+				ArtifactItem extraToResolve = new ArtifactItem(
+						artifactPath, extra);
+				if (resolvedItems.contains(extraToResolve))
+				{
+					/*
+					 * This extra was already resolved during dependency
+					 * resolution
+					 */
+					continue;
+				}
+				
+				List<RemoteRepository> repos = missingCache == null ?
+						remoteRepos 
+						: missingCache.getCandidates(extraToResolve, remoteRepos);
+				if (repos.isEmpty())
+				{
+					/*
+					 * Every repository was recently found to be missing this 
+					 * extra
+					 */
+					continue;
+				}
+				extraRequests.add(new ArtifactRequest(
+						extraToResolve.toArtifact(),
+		    			repos,
+		    			null));
+			}
+		}
+		
+		if (extraRequests.isEmpty())
+		{
+			return;
+		}
+		
+		int batchCount = Math.min(batches, extraRequests.size());
+		if (batchCount == 1)
+		{
+			resolveBatch(extraRequests);
+			return;
+		}
+		
+		ExecutorService executor = Utils.newExecutor("reposync-extras", batchCount);
+		try
+		{
+			List<Future<Void>> futures = new ArrayList<>(batchCount);
+			for (int i = 0; i < batchCount; i++)
+			{
+				List<ArtifactRequest> batch = new ArrayList<>(
+						extraRequests.size() / batchCount + 1);
+				for (int j = i; j < extraRequests.size(); j += batchCount)
+				{
+					batch.add(extraRequests.get(j));
+				}
+				futures.add(executor.submit(() -> {
+					resolveBatch(batch);
+					return null;
+				}));
+			}
+			
+			for (Future<Void> future: futures)
+			{
+				future.get();
+			}
+		}
+		catch (ExecutionException e)
+		{
+			/*
+			 * The finally block interrupts the other batches
+			 */
+			if (e.getCause() instanceof MojoExecutionException)
+			{
+				throw (MojoExecutionException) e.getCause();
+			}
+			throw new MojoExecutionException("Could not resolve extras", e.getCause());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted while resolving extras", e);
+		}
+		finally
+		{
+			Utils.shutdown(executor);
+		}
+	}
+	
+	/**
+	 * Resolves a batch of extras, retrying the requests that fail for another
+	 * reason than not being found
+	 * 
+	 * @param extraRequests
+	 * The requests of the batch
+	 */
+	private void resolveBatch(List<ArtifactRequest> extraRequests) 
+			throws MojoExecutionException
+	{
+		/*
+		 * Each attempt only repeats the requests that failed for another 
+		 * reason than not being found
+		 */
+		List<ArtifactRequest> pending = new ArrayList<>(extraRequests);
+		try
+		{
+			retrier.call("Resolution of extras", attempt -> {
+				resolveExtras(attempt == 0 ? session : Retrier.forRetry(session), pending);
+				return null;
+			});
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted while resolving extras", e);
+		}
+		catch (Exception e)
+		{
+			/*
+			 * The requests that still fail share the cause, which is recorded
+			 * once for all of them
+			 */
+			String message;
+			if (pending.size() == 1)
+			{
+				message = String.format(
+						"Could not resolve extra: %s", pending.get(0).getArtifact());
+			}
+			else
+			{
+				StringBuilder sb = new StringBuilder()
+						.append("Could not resolve ")
+						.append(pending.size())
+						.append(" extras: ");
+				for (int i = 0; i < pending.size(); i++)
+				{
+					if (i != 0)
+					{
+						sb.append(", ");
+					}
+					sb.append(pending.get(i).getArtifact());
+				}
+				message = sb.toString();
+			}
+			if (failures == null)
+			{
+				throw new MojoExecutionException(message, e);
+			}
+			failures.add(message, e);
+		}
+	}
+	
+	private void recordMissing(ArtifactRequest request, ArtifactNotFoundException e)
+	{
+		if (missingCache != null && e.getRepository() != null)
+		{
+			missingCache.recordMissing(new ArtifactItem(request.getArtifact()), e.getRepository());
+		}
+	}
+	
+	/**
+	 * Resolves extras
+	 * 
+	 * @param requestSession
+	 * The session to use for this attempt
+	 * 
+	 * @param pending
+	 * The requests to resolve, which are replaced by those that failed for
+	 * another reason than not being found
+	 * 
+	 * @throws Exception
+	 * The first failure that was not caused by an extra not being found
+	 */
+	private void resolveExtras(
+			RepositorySystemSession requestSession, List<ArtifactRequest> pending) 
+			throws Exception
+	{
+		try
+		{
+			/*
+			 * The collector will hear about all artifact resolutions: so we 
+			 * don't need to look at the resolution results
+			 */
+			repositorySystem.resolveArtifacts(requestSession, pending);
+			pending.clear();
+		}
+		catch (ArtifactResolutionException e)
+		{
+			Exception failure = null;
+			List<ArtifactRequest> failed = new ArrayList<>();
+			for (ArtifactResult r: e.getResults())
+			{
+				if (r.isResolved())
+				{
+					continue;
+				}
+				for (Exception e2: r.getExceptions())
+				{
+					if (e2 instanceof ArtifactNotFoundException)
+					{
+						recordMissing(r.getRequest(), (ArtifactNotFoundException) e2);
+					}
+					else
+					{
+						failed.add(r.getRequest());
+						if (failure == null)
+						{
+							failure = e2;
+						}
+						break;
+					}
+				}
+			}
+			
+			pending.clear();
+			pending.addAll(failed);
+			if (failure != null)
+			{
+				throw failure;
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Collects the failures that did not stop an execution, so that they can be 
+ * reported together once everything else has been processed
+ */
+final class FailureSummary
+{
+	/**
+	 * The number of failures listed in the summary
+	 */
+	private static final int MAX_LISTED = 20;
+	
+	private static final class Failure
+	{
+		public final String message;
+		public final Throwable cause;
+		
+		public Failure(String message, Throwable cause)
+		{
+			this.message = message;
+			this.cause = cause;
+		}
+	}
+	
+	private final Log log;
+	private final List<Failure> failures = new ArrayList<>();
+	
+	public FailureSummary(Log log)
+	{
+		this.log = log;
+	}
+	
+	/**
+	 * Records a failure, and logs it.  May be called concurrently.
+	 * 
+	 * @param message
+	 * Describes what failed
+	 * 
+	 * @param cause
+	 * The failure
+	 */
+	public void add(String message, Throwable cause)
+	{
+		log.error(message, cause);
+		synchronized (failures)
+		{
+			failures.add(new Failure(message, cause));
+		}
+	}
+	
+	public int size()
+	{
+		synchronized (failures)
+		{
+			return failures.size();
+		}
+	}
+	
+	/**
+	 * Fails if any failure was recorded
+	 * 
+	 * @throws MojoExecutionException
+	 * Lists the recorded failures, with the first as its cause
+	 */
+	public void check() throws MojoExecutionException
+	{
+		synchronized (failures)
+		{
+			if (failures.isEmpty())
+			{
+				return;
+			}
+			
+			StringBuilder sb = new StringBuilder()
+					.append(failures.size())
+					.append(failures.size() == 1 ? " failure:" : " failures:");
+			for (Failure failure: failures.subList(0, Math.min(failures.size(), MAX_LISTED)))
+			{
+				sb.append("\n  ").append(failure.message);
+				if (failure.cause != null && failure.cause.getMessage() != null)
+				{
+					sb.append(": ").append(failure.cause.getMessage());
+				}
+			}
+			if (failures.size() > MAX_LISTED)
+			{
+				sb.append("\n  ... and ").append(failures.size() - MAX_LISTED).append(" more");
+			}
+			
+			MojoExecutionException e = new MojoExecutionException(
+					sb.toString(), failures.get(0).cause);
+			for (Failure failure: failures.subList(1, Math.min(failures.size(), MAX_LISTED)))
+			{
+				if (failure.cause != null)
+				{
+					e.addSuppressed(failure.cause);
+				}
+			}
+			throw e;
+		}
+	}
+}
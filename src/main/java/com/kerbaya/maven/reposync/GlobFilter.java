@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Matches artifacts against lists of globs, such as 
+ * {@code org.apache.**:*:jar:*}.  A glob has the format 
+ * {@code <groupId>[:<artifactId>[:<extension>[:<classifier>]:<version>]]}, 
+ * where omitted fields match anything.  In each field, {@code *} matches any
+ * characters and {@code ?} matches one character.  In the group ID, a 
+ * {@code *} segment matches exactly one segment, and a {@code **} segment 
+ * matches any number of segments, although a group ID of just {@code *} 
+ * matches any group ID.  An artifact is accepted if it matches any
+ * include (or there are no includes), and matches no exclude.
+ * <p>
+ * The globs are compiled into a trie keyed on group ID segments, so the cost
+ * of matching an artifact depends on the depth of its group ID, rather than
+ * on the number of globs.
+ */
+final class GlobFilter implements Predicate<Artifact>
+{
+	private static final String ANY = "*";
+	private static final String ANY_DEPTH = "**";
+	
+	/**
+	 * The fields of a glob that follow the group ID
+	 */
+	private static final class Rule
+	{
+		private final String artifactId;
+		private final String extension;
+		private final String classifier;
+		private final String version;
+		
+		public Rule(String[] fields)
+		{
+			artifactId = fields.length > 1 ? fields[1] : ANY;
+			extension = fields.length > 2 ? fields[2] : ANY;
+			classifier = fields.length > 4 ? fields[3] : ANY;
+			version = fields.length > 4 ? fields[4] : fields.length > 3 ? fields[3] : ANY;
+		}
+		
+		public boolean matches(Artifact artifact)
+		{
+			return globMatches(artifactId, artifact.getArtifactId())
+					&& globMatches(extension, artifact.getExtension())
+					&& globMatches(classifier, Utils.nullToEmpty(artifact.getClassifier()))
+					&& globMatches(version, artifact.getVersion());
+		}
+	}
+	
+	private static final class Node
+	{
+		private final Map<String, Node> literalChildren = new HashMap<>();
+		private final Map<String, Node> globChildren = new HashMap<>();
+		private Node anySegmentChild;
+		private Node anyDepthChild;
+		private final List<Rule> rules = new ArrayList<>();
+		
+		public Node getChild(String segment)
+		{
+			if (ANY_DEPTH.equals(segment))
+			{
+				if (anyDepthChild == null)
+				{
+					anyDepthChild = new Node();
+				}
+				return anyDepthChild;
+			}
+			
+			if (ANY.equals(segment))
+			{
+				if (anySegmentChild == null)
+				{
+					anySegmentChild = new Node();
+				}
+				return anySegmentChild;
+			}
+			
+			return (isGlob(segment) ? globChildren : literalChildren)
+					.computeIfAbsent(segment, key -> new Node());
+		}
+		
+		public boolean matches(String groupId, int start, Artifact artifact)
+		{
+			if (anyDepthChild != null)
+			{
+				/*
+				 * "**" matches no segment, or the next segments
+				 */
+				int i = start;
+				while (true)
+				{
+					if (anyDepthChild.matches(groupId, i, artifact))
+					{
+						return true;
+					}
+					if (i < 0)
+					{
+						break;
+					}
+					i = nextSegment(groupId, i);
+				}
+			}
+			
+			if (start < 0)
+			{
+				for (Rule rule: rules)
+				{
+					if (rule.matches(artifact))
+					{
+						return true;
+					}
+				}
+				return false;
+			}
+			
+			int end = groupId.indexOf('.', start);
+			String segment = groupId.substring(start, end < 0 ? groupId.length() : end);
+			int next = nextSegment(groupId, start);
+			
+			Node child = literalChildren.get(segment);
+			if (child != null && child.matches(groupId, next, artifact))
+			{
+				return true;
+			}
+			
+			if (anySegmentChild != null && anySegmentChild.matches(groupId, next, artifact))
+			{
+				return true;
+			}
+			
+			for (Map.Entry<String, Node> e: globChildren.entrySet())
+			{
+				if (globMatches(e.getKey(), segment) 
+						&& e.getValue().matches(groupId, next, artifact))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+	
+	private final Node includes = new Node();
+	private final boolean hasIncludes;
+	private final Node excludes = new Node();
+	
+	/**
+	 * @param includes
+	 * The globs of which an accepted artifact matches at least one, or an 
+	 * empty collection to accept any artifact that is not excluded
+	 * 
+	 * @param excludes
+	 * The globs that an accepted artifact does not match
+	 * 
+	 * @throws IllegalArgumentException
+	 * If a glob is not in the expected format
+	 */
+	public GlobFilter(Collection<String> includes, Collection<String> excludes)
+	{
+		for (String glob: includes)
+		{
+			add(this.includes, glob);
+		}
+		hasIncludes = !includes.isEmpty();
+		for (String glob: excludes)
+		{
+			add(this.excludes, glob);
+		}
+	}
+	
+	private static void add(Node root, String glob)
+	{
+		String[] fields = glob.split(":", -1);
+		if (fields.length > 5 || fields[0].isEmpty())
+		{
+			throw new IllegalArgumentException("invalid glob: " + glob);
+		}
+		
+		/*
+		 * A group ID of "*" matches any group ID, not only those of one segment
+		 */
+		String groupId = ANY.equals(fields[0]) ? ANY_DEPTH : fields[0];
+		Node node = root;
+		for (String segment: groupId.split("\\.", -1))
+		{
+			node = node.getChild(segment);
+		}
+		node.rules.add(new Rule(fields));
+	}
+	
+	/**
+	 * @return
+	 * The start of the segment following the one at {@code start}, or 
+	 * {@code -1} if there is none
+	 */
+	private static int nextSegment(String groupId, int start)
+	{
+		int end = groupId.indexOf('.', start);
+		return end < 0 ? -1 : end + 1;
+	}
+	
+	private static boolean isGlob(String str)
+	{
+		return str.indexOf('*') != -1 || str.indexOf('?') != -1;
+	}
+	
+	/**
+	 * Matches a value against a glob, where {@code *} matches any characters 
+	 * and {@code ?} matches one character
+	 * 
+	 * @param glob
+	 * The glob to match
+	 * 
+	 * @param value
+	 * The value to match
+	 * 
+	 * @return
+	 * {@code true} if {@code value} matches {@code glob}
+	 */
+	static boolean globMatches(String glob, String value)
+	{
+		if (ANY.equals(glob))
+		{
+			return true;
+		}
+		
+		int g = 0;
+		int v = 0;
+		int starGlob = -1;
+		int starValue = 0;
+		while (v < value.length())
+		{
+			if (g < glob.length() 
+					&& (glob.charAt(g) == '?' || glob.charAt(g) == value.charAt(v)))
+			{
+				g++;
+				v++;
+			}
+			else if (g < glob.length() && glob.charAt(g) == '*')
+			{
+				starGlob = g++;
+				starValue = v;
+			}
+			else if (starGlob != -1)
+			{
+				/*
+				 * Let the last "*" match one more character
+				 */
+				g = starGlob + 1;
+				v = ++starValue;
+			}
+			else
+			{
+				return false;
+			}
+		}
+		
+		while (g < glob.length() && glob.charAt(g) == '*')
+		{
+			g++;
+		}
+		return g == glob.length();
+	}
+	
+	@Override
+	public boolean test(Artifact t)
+	{
+		String groupId = t.getGroupId();
+		return (!hasIncludes || includes.matches(groupId, 0, t))
+				&& !excludes.matches(groupId, 0, t);
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.Objects;
+
+import org.eclipse.aether.artifact.Artifact;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Identifies the artifacts that share a group-artifact coordinate, and 
+ * therefore share version meta-data in a repository
+ */
+@EqualsAndHashCode
+final class GroupArtifactKey
+{
+	private final String groupId;
+	private final String artifactId;
+	
+	public GroupArtifactKey(Artifact artifact)
+	{
+		this(artifact.getGroupId(), artifact.getArtifactId());
+	}
+	
+	public GroupArtifactKey(String groupId, String artifactId)
+	{
+		this.groupId = Objects.requireNonNull(groupId);
+		this.artifactId = Objects.requireNonNull(artifactId);
+	}
+	
+	public String getGroupId()
+	{
+		return groupId;
+	}
+	
+	public String getArtifactId()
+	{
+		return artifactId;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return new StringBuilder()
+				.append(groupId)
+				.append(':')
+				.append(artifactId)
+				.toString();
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * The target repositories whose artifacts are not deployed back to them.  
+ * Each collected artifact records the targets it was resolved from as a bit 
+ * mask of their indexes.  An artifact resolved from every target is left out
+ * of the deployment; an artifact resolved from some of them is marked with 
+ * {@link #PROPERTY}, so that each target can leave it out.
+ */
+final class IgnoredTargets
+{
+	/**
+	 * The property of an artifact that lists, separated by spaces, the URLs of
+	 * the target repositories that it was resolved from
+	 */
+	public static final String PROPERTY = "reposync.resolvedFrom";
+	
+	/**
+	 * The number of targets a mask can hold.  Artifacts resolved from further
+	 * targets are deployed to them again.
+	 */
+	private static final int MAX_TARGETS = Long.SIZE;
+	
+	private final List<String> urls;
+	private final long all;
+	
+	/**
+	 * @param urls
+	 * The URLs of the target repositories, or an empty list to deploy all 
+	 * artifacts to all targets
+	 */
+	public IgnoredTargets(List<String> urls)
+	{
+		this.urls = new ArrayList<>(urls.subList(0, Math.min(urls.size(), MAX_TARGETS)));
+		all = this.urls.size() == MAX_TARGETS ? -1L : (1L << this.urls.size()) - 1;
+	}
+	
+	/**
+	 * @return
+	 * The mask of the target with a URL, or {@code 0} if no target has it
+	 */
+	public long getMask(String url)
+	{
+		int idx = urls.indexOf(url);
+		return idx == -1 ? 0 : 1L << idx;
+	}
+	
+	/**
+	 * @return
+	 * {@code true} if an artifact resolved from the targets of a mask is 
+	 * deployed to none of them
+	 */
+	public boolean isIgnored(long mask)
+	{
+		return mask != 0 && mask == all;
+	}
+	
+	/**
+	 * Marks an artifact with the targets it was resolved from
+	 * 
+	 * @param artifact
+	 * An artifact that is not {@link #isIgnored(long) ignored}
+	 * 
+	 * @param mask
+	 * The targets the artifact was resolved from
+	 * 
+	 * @return
+	 * The marked artifact
+	 */
+	public Artifact mark(Artifact artifact, long mask)
+	{
+		if (mask == 0)
+		{
+			return artifact;
+		}
+		
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < urls.size(); i++)
+		{
+			if ((mask & 1L << i) != 0)
+			{
+				if (sb.length() != 0)
+				{
+					sb.append(' ');
+				}
+				sb.append(urls.get(i));
+			}
+		}
+		Map<String, String> properties = new HashMap<>(artifact.getProperties());
+		properties.put(PROPERTY, sb.toString());
+		return artifact.setProperties(properties);
+	}
+	
+	/**
+	 * Leaves out the artifacts that were resolved from a target repository
+	 * 
+	 * @param artifactSet
+	 * Artifacts, some of which may be {@link #mark(Artifact, long) marked}
+	 * 
+	 * @param url
+	 * The URL of the target repository
+	 * 
+	 * @return
+	 * The artifacts to deploy to the target repository
+	 */
+	public static Collection<Artifact> forTarget(Collection<Artifact> artifactSet, String url)
+	{
+		Collection<Artifact> toDeploy = new ArrayList<>(artifactSet.size());
+		for (Artifact artifact: artifactSet)
+		{
+			String resolvedFrom = artifact.getProperty(PROPERTY, null);
+			if (resolvedFrom == null || !Arrays.asList(resolvedFrom.split(" ")).contains(url))
+			{
+				toDeploy.add(artifact);
+			}
+		}
+		return toDeploy;
+	}
+}
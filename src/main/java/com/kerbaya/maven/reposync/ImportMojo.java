@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Deploys the artifacts of a bundle written by the {@code update} goal.  The 
+ * bundle is extracted to a temporary directory, which is created beside the 
+ * (first) target repository when it has a <code>file</code> URL, so that the 
+ * artifacts can be linked into place without adding anything to the 
+ * repository.  The artifacts are deployed as they 
+ * are extracted.  The checksums and meta-data of the target repository are 
+ * written as for any other deployment.
+ */
+@org.apache.maven.plugins.annotations.Mojo(
+		name="import", 
+		requiresProject=false, 
+		threadSafe=true)
+public class ImportMojo extends AbstractDeployMojo
+{
+	/**
+	 * The number of artifact sets extracted ahead of the deployment
+	 */
+	private static final int EXTRACT_AHEAD = 64;
+	
+    /**
+     * The bundle to import: a <code>.zip</code>, <code>.tar</code>, 
+     * <code>.tar.gz</code> or <code>.tgz</code> archive in repository layout
+     */
+    @Parameter(property="bundle", required=true)
+    private File bundle;
+    
+    /**
+     * The number of threads extracting the entries of a zip bundle
+     */
+    @Parameter(property="importThreads", defaultValue="4")
+    private int importThreads;
+    
+	@Override
+	public void execute() throws MojoExecutionException
+	{
+		requireRepositoryUrl();
+		Path dir;
+		try
+		{
+			File basedir = TargetInspector.getBasedir(buildDistRepos().get(0));
+			Path parent = basedir == null ? 
+					null : basedir.getAbsoluteFile().toPath().getParent();
+			if (parent == null)
+			{
+				dir = Files.createTempDirectory("reposync-import");
+			}
+			else
+			{
+				/*
+				 * On the file system of the repository, outside of its layout
+				 */
+				Files.createDirectories(parent);
+				dir = Files.createTempDirectory(parent, ".reposync-import");
+			}
+		}
+		catch (IOException e)
+		{
+			throw new MojoExecutionException("Failed to create import directory", e);
+		}
+		
+		ArtifactSetQueue queue = new ArtifactSetQueue(EXTRACT_AHEAD);
+		ExecutorService extractor = Utils.newExecutor("reposync-extract", 1);
+		try
+		{
+			extractor.execute(() -> {
+				long phaseStart = System.nanoTime();
+				try
+				{
+					new BundleReader(log, dir.toFile()).extract(bundle, importThreads, queue::add);
+					queue.finish();
+				}
+				catch (Throwable e)
+				{
+					queue.fail(e);
+				}
+				finally
+				{
+					syncReport.phase("extract", phaseStart);
+				}
+			});
+			
+			deploy(() -> queue);
+		}
+		catch (ArtifactSetQueue.ProducerException e)
+		{
+			throw new MojoExecutionException("Failed to extract bundle " + bundle, e.getCause());
+		}
+		finally
+		{
+			/*
+			 * Interrupts the extraction if the deployment failed, so that the 
+			 * directory is no longer written to
+			 */
+			Utils.shutdown(extractor);
+			delete(dir);
+		}
+	}
+	
+	private void delete(Path dir)
+	{
+		try (Stream<Path> paths = Files.walk(dir))
+		{
+			Iterator<Path> i = paths.sorted(Comparator.reverseOrder()).iterator();
+			while (i.hasNext())
+			{
+				Files.delete(i.next());
+			}
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to delete import directory " + dir, e);
+		}
+	}
+}
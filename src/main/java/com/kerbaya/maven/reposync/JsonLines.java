@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Formats and parses JSON text.  Formatting supports nested objects 
+ * ({@link Map}) and arrays ({@link Iterable}) of strings, numbers and 
+ * booleans.  Parsing supports a single object per line, whose values may be 
+ * flat objects, which is all that the JSON Lines files of this plugin use.
+ */
+final class JsonLines
+{
+	private JsonLines() {}
+	
+	/**
+	 * Formats a value as JSON on a single line
+	 * 
+	 * @param value
+	 * A {@link Map}, {@link Iterable}, {@link CharSequence}, {@link Number}, 
+	 * {@link Boolean}, or {@code null}
+	 * 
+	 * @return
+	 * The JSON text of the value
+	 */
+	public static String format(Object value)
+	{
+		StringBuilder sb = new StringBuilder();
+		format(sb, value);
+		return sb.toString();
+	}
+	
+	private static void format(StringBuilder sb, Object value)
+	{
+		if (value == null)
+		{
+			sb.append("null");
+		}
+		else if (value instanceof Map)
+		{
+			sb.append('{');
+			boolean first = true;
+			for (Map.Entry<?, ?> e: ((Map<?, ?>) value).entrySet())
+			{
+				if (!first)
+				{
+					sb.append(',');
+				}
+				first = false;
+				formatString(sb, String.valueOf(e.getKey()));
+				sb.append(':');
+				format(sb, e.getValue());
+			}
+			sb.append('}');
+		}
+		else if (value instanceof Iterable)
+		{
+			sb.append('[');
+			boolean first = true;
+			for (Object element: (Iterable<?>) value)
+			{
+				if (!first)
+				{
+					sb.append(',');
+				}
+				first = false;
+				format(sb, element);
+			}
+			sb.append(']');
+		}
+		else if (value instanceof Number || value instanceof Boolean)
+		{
+			sb.append(value);
+		}
+		else
+		{
+			formatString(sb, value.toString());
+		}
+	}
+	
+	private static void formatString(StringBuilder sb, String str)
+	{
+		sb.append('"');
+		for (int i = 0; i < str.length(); i++)
+		{
+			char c = str.charAt(i);
+			switch (c)
+			{
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20)
+				{
+					sb.append(String.format("\\u%04x", (int) c));
+				}
+				else
+				{
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+	
+	private static IllegalArgumentException invalidLine(String line)
+	{
+		return new IllegalArgumentException(String.format("invalid JSON line \"%s\"", line));
+	}
+	
+	/**
+	 * Parses a JSON object
+	 * 
+	 * @param line
+	 * The JSON text of an object whose values are strings, numbers, booleans,
+	 * {@code null}, or objects whose values are not objects
+	 * 
+	 * @return
+	 * The members of the object, in order.  Numbers are parsed as 
+	 * {@link Long} or {@link Double}, and objects as {@link Map}.
+	 */
+	public static Map<String, Object> parse(String line)
+	{
+		int[] pos = {0};
+		Map<String, Object> result = parseObject(line, pos, true);
+		if (skipWhitespace(line, pos[0]) != line.length())
+		{
+			throw invalidLine(line);
+		}
+		return result;
+	}
+	
+	/**
+	 * @param nested
+	 * {@code true} if the values of the object may be flat objects
+	 */
+	private static Map<String, Object> parseObject(String line, int[] pos, boolean nested)
+	{
+		Map<String, Object> result = new LinkedHashMap<>();
+		expect(line, pos, '{');
+		if (peek(line, pos) == '}')
+		{
+			pos[0]++;
+			return result;
+		}
+		while (true)
+		{
+			String key = parseString(line, pos);
+			expect(line, pos, ':');
+			if (peek(line, pos) == '{')
+			{
+				if (!nested)
+				{
+					throw invalidLine(line);
+				}
+				result.put(key, parseObject(line, pos, false));
+			}
+			else
+			{
+				result.put(key, parseValue(line, pos));
+			}
+			if (peek(line, pos) == ',')
+			{
+				pos[0]++;
+				continue;
+			}
+			expect(line, pos, '}');
+			return result;
+		}
+	}
+	
+	private static int skipWhitespace(String line, int pos)
+	{
+		while (pos < line.length() && Character.isWhitespace(line.charAt(pos)))
+		{
+			pos++;
+		}
+		return pos;
+	}
+	
+	private static char peek(String line, int[] pos)
+	{
+		pos[0] = skipWhitespace(line, pos[0]);
+		if (pos[0] >= line.length())
+		{
+			throw invalidLine(line);
+		}
+		return line.charAt(pos[0]);
+	}
+	
+	private static void expect(String line, int[] pos, char c)
+	{
+		if (peek(line, pos) != c)
+		{
+			throw invalidLine(line);
+		}
+		pos[0]++;
+	}
+	
+	private static Object parseValue(String line, int[] pos)
+	{
+		char c = peek(line, pos);
+		if (c == '"')
+		{
+			return parseString(line, pos);
+		}
+		
+		int start = pos[0];
+		while (pos[0] < line.length() && ",}".indexOf(line.charAt(pos[0])) == -1)
+		{
+			pos[0]++;
+		}
+		String token = line.substring(start, pos[0]).trim();
+		switch (token)
+		{
+		case "null":
+			return null;
+		case "true":
+			return Boolean.TRUE;
+		case "false":
+			return Boolean.FALSE;
+		default:
+			try
+			{
+				return token.matches("-?\\d+") ? 
+						(Object) Long.valueOf(token) : (Object) Double.valueOf(token);
+			}
+			catch (NumberFormatException e)
+			{
+				throw invalidLine(line);
+			}
+		}
+	}
+	
+	private static String parseString(String line, int[] pos)
+	{
+		expect(line, pos, '"');
+		StringBuilder sb = new StringBuilder();
+		while (true)
+		{
+			if (pos[0] >= line.length())
+			{
+				throw invalidLine(line);
+			}
+			char c = line.charAt(pos[0]++);
+			if (c == '"')
+			{
+				return sb.toString();
+			}
+			if (c != '\\')
+			{
+				sb.append(c);
+				continue;
+			}
+			if (pos[0] >= line.length())
+			{
+				throw invalidLine(line);
+			}
+			c = line.charAt(pos[0]++);
+			switch (c)
+			{
+			case 'n':
+				sb.append('\n');
+				break;
+			case 'r':
+				sb.append('\r');
+				break;
+			case 't':
+				sb.append('\t');
+				break;
+			case 'b':
+				sb.append('\b');
+				break;
+			case 'f':
+				sb.append('\f');
+				break;
+			case 'u':
+				if (pos[0] + 4 > line.length())
+				{
+					throw invalidLine(line);
+				}
+				try
+				{
+					sb.append((char) Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16));
+				}
+				catch (NumberFormatException e)
+				{
+					throw invalidLine(line);
+				}
+				pos[0] += 4;
+				break;
+			default:
+				sb.append(c);
+			}
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Deploys release artifacts to a repository on the local file system without 
+ * going through a transporter.  Each file is copied by the file system, or
+ * optionally hard-linked into the repository when the file system allows it.
+ * The checksum files, and the group-artifact {@code maven-metadata.xml}, are 
+ * written as the repository system would write them.
+ * <p>
+ * Meta-data updates of the same group-artifact coordinate must not run 
+ * concurrently.
+ */
+final class LocalDeployer implements ReleaseDeployer
+{
+	private final Path basedir;
+	private final List<String> checksumAlgorithms;
+	
+	/**
+	 * Cleared once a hard link fails, since the files are then on different 
+	 * file systems, or the file system does not support hard links
+	 */
+	private final AtomicBoolean linking;
+	
+	/**
+	 * @param session
+	 * The session whose configuration selects the checksum algorithms
+	 * 
+	 * @param basedir
+	 * The root of the repository
+	 * 
+	 * @param hardLink
+	 * {@code true} to hard-link the files into the repository when possible,
+	 * so that the repository shares them with their source, or {@code false} 
+	 * to copy them
+	 */
+	public LocalDeployer(RepositorySystemSession session, File basedir, boolean hardLink)
+	{
+		this.basedir = basedir.toPath();
+		this.checksumAlgorithms = Checksums.getAlgorithms(session);
+		linking = new AtomicBoolean(hardLink);
+	}
+	
+	@Override
+	public void deployArtifacts(Collection<Artifact> artifactSet) throws IOException
+	{
+		for (Artifact artifact: artifactSet)
+		{
+			Path target = basedir.resolve(Utils.getRepositoryPath(artifact));
+			Files.createDirectories(target.getParent());
+			place(artifact.getFile().toPath(), target);
+			writeChecksums(target);
+		}
+	}
+	
+	@Override
+	public void deployMetadata(List<Artifact> versions) throws IOException
+	{
+		Path metadataPath = basedir.resolve(VersionsMetadata.getPath(versions.get(0)));
+		Metadata metadata = read(metadataPath);
+		for (Artifact version: versions)
+		{
+			metadata = VersionsMetadata.merge(VersionsMetadata.create(version), metadata);
+		}
+		Path tmp = getTempPath(metadataPath);
+		Files.createDirectories(metadataPath.getParent());
+		Files.write(tmp, VersionsMetadata.toBytes(metadata));
+		Files.move(tmp, metadataPath, StandardCopyOption.REPLACE_EXISTING);
+		writeChecksums(metadataPath);
+	}
+	
+	/**
+	 * Obtains a hidden path beside a file, where the file is prepared before
+	 * it is moved into place
+	 */
+	private static Path getTempPath(Path path)
+	{
+		return path.resolveSibling("." + path.getFileName() + ".tmp");
+	}
+	
+	private void place(Path source, Path target) throws IOException
+	{
+		Path tmp = getTempPath(target);
+		Files.deleteIfExists(tmp);
+		boolean linked = false;
+		if (linking.get())
+		{
+			try
+			{
+				Files.createLink(tmp, source);
+				linked = true;
+			}
+			catch (UnsupportedOperationException | FileSystemException e)
+			{
+				linking.set(false);
+			}
+		}
+		
+		if (!linked)
+		{
+			try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+					FileChannel out = FileChannel.open(
+							tmp, 
+							StandardOpenOption.CREATE, 
+							StandardOpenOption.TRUNCATE_EXISTING, 
+							StandardOpenOption.WRITE))
+			{
+				long size = in.size();
+				long position = 0;
+				while (position < size)
+				{
+					position += in.transferTo(position, size - position, out);
+				}
+			}
+		}
+		Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+	}
+	
+	/**
+	 * Writes a checksum file beside a file for each configured algorithm, 
+	 * reading the file once
+	 */
+	private void writeChecksums(Path path) throws IOException
+	{
+		MessageDigest[] digests = Checksums.newDigests(checksumAlgorithms);
+		
+		byte[] buf = new byte[65536];
+		try (InputStream is = Files.newInputStream(path))
+		{
+			int read;
+			while ((read = is.read(buf)) != -1)
+			{
+				for (MessageDigest digest: digests)
+				{
+					digest.update(buf, 0, read);
+				}
+			}
+		}
+		
+		for (int i = 0; i < digests.length; i++)
+		{
+			Files.write(
+					path.resolveSibling(
+							path.getFileName() + Checksums.getExtension(checksumAlgorithms.get(i))), 
+					Utils.toHex(digests[i].digest()).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+	
+	private static Metadata read(Path path) throws IOException
+	{
+		if (!Files.isRegularFile(path))
+		{
+			return new Metadata();
+		}
+		
+		try (InputStream is = Files.newInputStream(path))
+		{
+			return VersionsMetadata.read(is);
+		}
+		catch (IOException e)
+		{
+			throw new IOException("Could not read metadata " + path, e);
+		}
+	}
+}
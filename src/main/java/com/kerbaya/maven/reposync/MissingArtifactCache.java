@@ -0,0 +1,319 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.repository.RemoteRepository;
+
+/**
+ * A file recording the artifacts that remote repositories did not have, so
+ * that they are not requested again until the record expires.  Each line 
+ * holds the time an artifact was found missing, in milliseconds since the 
+ * epoch, the URL of the repository, and the coordinates of the artifact.
+ * <p>
+ * The file may be shared by concurrent builds.  It is only written while 
+ * holding a lock on a sibling file, and records that other builds appended 
+ * are kept when the file is compacted.
+ */
+final class MissingArtifactCache implements Closeable
+{
+	private static final char SEPARATOR = ' ';
+	
+	/**
+	 * The monitors of the lock files in use, by path.  A file lock is held on 
+	 * behalf of the whole JVM, so builds running in the same JVM also 
+	 * synchronize on the monitor.
+	 */
+	private static final ConcurrentMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+	
+	private interface LockedAction
+	{
+		void run() throws IOException;
+	}
+	
+	private final Log log;
+	private final File file;
+	private final Path lockFile;
+	private final long now;
+	private final long ttlMillis;
+	
+	/**
+	 * The time each artifact was found missing, by repository URL and 
+	 * artifact coordinates
+	 */
+	private final ConcurrentMap<String, Long> entries = new ConcurrentHashMap<>();
+	private final AtomicInteger hits = new AtomicInteger();
+	
+	/**
+	 * {@code true} if the file holds lines that no longer describe an entry
+	 */
+	private volatile boolean stale;
+	
+	/**
+	 * Opens a cache, creating it if it does not exist.  Expired records are 
+	 * dropped.
+	 * 
+	 * @param log
+	 * The log used to report the cache's activity
+	 * 
+	 * @param file
+	 * The cache file
+	 * 
+	 * @param ttlMillis
+	 * How long a missing artifact is not requested again
+	 */
+	public MissingArtifactCache(Log log, File file, long ttlMillis) throws IOException
+	{
+		this.log = log;
+		this.file = file;
+		this.ttlMillis = ttlMillis;
+		lockFile = new File(file.getPath() + ".lock").toPath().toAbsolutePath();
+		now = System.currentTimeMillis();
+		
+		if (file.exists())
+		{
+			/*
+			 * The file is replaced atomically when compacted, so it can be 
+			 * read without the lock
+			 */
+			read();
+			log.debug(String.format(
+					"Loaded %d missing artifacts from %s", entries.size(), file));
+		}
+		else
+		{
+			File parent = file.getAbsoluteFile().getParentFile();
+			if (parent != null)
+			{
+				Files.createDirectories(parent.toPath());
+			}
+		}
+	}
+	
+	/**
+	 * Merges the records of the file into the entries, keeping the latest 
+	 * time of each artifact
+	 */
+	private void read() throws IOException
+	{
+		try (BufferedReader reader = Files.newBufferedReader(
+				file.toPath(), StandardCharsets.UTF_8))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				int sep = line.indexOf(SEPARATOR);
+				long time;
+				try
+				{
+					time = sep == -1 ? 0 : Long.parseLong(line.substring(0, sep));
+				}
+				catch (NumberFormatException e)
+				{
+					time = 0;
+				}
+				
+				if (!isFresh(time))
+				{
+					stale = true;
+					continue;
+				}
+				
+				String key = line.substring(sep + 1);
+				Long previous = entries.get(key);
+				if (previous != null)
+				{
+					stale = true;
+				}
+				if (previous == null || previous < time)
+				{
+					entries.put(key, time);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Runs an action while holding the lock of the file
+	 */
+	private void locked(LockedAction action) throws IOException
+	{
+		Object monitor = MONITORS.computeIfAbsent(lockFile, k -> new Object());
+		synchronized (monitor)
+		{
+			try (FileChannel channel = FileChannel.open(
+					lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+					FileLock lock = channel.lock())
+			{
+				action.run();
+			}
+		}
+	}
+	
+	private boolean isFresh(long time)
+	{
+		return now - time < ttlMillis;
+	}
+	
+	private static String getKey(ArtifactItem artifactItem, RemoteRepository repository)
+	{
+		return repository.getUrl() + SEPARATOR + artifactItem;
+	}
+	
+	/**
+	 * Selects the repositories that are not known to be missing an artifact
+	 * 
+	 * @param artifactItem
+	 * The artifact to request
+	 * 
+	 * @param repositories
+	 * The repositories from which the artifact would be requested
+	 * 
+	 * @return
+	 * The repositories that are not known to be missing the artifact, which
+	 * are empty if all of them are
+	 */
+	public List<RemoteRepository> getCandidates(
+			ArtifactItem artifactItem, List<RemoteRepository> repositories)
+	{
+		List<RemoteRepository> candidates = new ArrayList<>(repositories.size());
+		for (RemoteRepository repository: repositories)
+		{
+			Long time = entries.get(getKey(artifactItem, repository));
+			if (time == null || !isFresh(time))
+			{
+				candidates.add(repository);
+			}
+		}
+		if (candidates.isEmpty())
+		{
+			hits.incrementAndGet();
+		}
+		return candidates;
+	}
+	
+	/**
+	 * Records that a repository does not have an artifact.  Failing to write 
+	 * the record is logged, and the record is still used by this cache.
+	 * 
+	 * @param artifactItem
+	 * The missing artifact
+	 * 
+	 * @param repository
+	 * The repository that does not have the artifact
+	 */
+	public void recordMissing(ArtifactItem artifactItem, RemoteRepository repository)
+	{
+		String key = getKey(artifactItem, repository);
+		long time = System.currentTimeMillis();
+		if (entries.put(key, time) != null)
+		{
+			stale = true;
+		}
+		
+		/*
+		 * The file is opened for each record, as another build may have 
+		 * replaced it since
+		 */
+		try
+		{
+			locked(() -> {
+				try (Writer writer = Files.newBufferedWriter(
+						file.toPath(), 
+						StandardCharsets.UTF_8, 
+						StandardOpenOption.CREATE, 
+						StandardOpenOption.APPEND))
+				{
+					writer.write(Long.toString(time));
+					writer.write(SEPARATOR);
+					writer.write(key);
+					writer.write('\n');
+				}
+			});
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to update " + file, e);
+		}
+	}
+	
+	/**
+	 * @return
+	 * The number of artifacts that were not requested, because all 
+	 * repositories were known to be missing them
+	 */
+	public int getHits()
+	{
+		return hits.get();
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		if (!stale)
+		{
+			return;
+		}
+		
+		/*
+		 * Rewrite the cache with one line per fresh entry, including the 
+		 * entries that other builds recorded since the cache was opened
+		 */
+		locked(() -> {
+			if (file.exists())
+			{
+				read();
+			}
+			File tmp = new File(file.getPath() + ".tmp");
+			try (Writer compacted = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8))
+			{
+				for (Map.Entry<String, Long> e: entries.entrySet())
+				{
+					if (isFresh(e.getValue()))
+					{
+						compacted.write(Long.toString(e.getValue()));
+						compacted.write(SEPARATOR);
+						compacted.write(e.getKey());
+						compacted.write('\n');
+					}
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		});
+	}
+}
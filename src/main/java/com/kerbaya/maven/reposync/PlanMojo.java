@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Resolves artifacts like the {@code update} goal, and writes the artifacts 
+ * that would be deployed to a plan file instead of deploying them.  The plan
+ * can then be deployed by the {@code apply} goal without resolving again.
+ */
+@org.apache.maven.plugins.annotations.Mojo(
+		name="plan", 
+		requiresProject=false, 
+		threadSafe=true)
+public class PlanMojo extends AbstractResolveMojo
+{
+    /**
+     * The file to which the plan is written, in JSON Lines format
+     */
+    @Parameter(property="plan", defaultValue="${project.build.directory}/reposync-plan.jsonl", required=true)
+    private File plan;
+    
+	@Override
+	public void execute() throws MojoExecutionException
+	{
+		requireRepositoryUrl();
+		try (ArtifactItemReader finalArtifactItems = openArtifactItems();
+				ResolutionCollector collector = newCollector())
+		{
+			if (!hasRoots(finalArtifactItems))
+			{
+				return;
+			}
+			
+			collect(finalArtifactItems, collector);
+			checkFailures();
+			writePlan(collector);
+		}
+		catch (IOException e)
+		{
+			throw new MojoExecutionException("Failed to close requested artifacts", e);
+		}
+		writeReport();
+	}
+	
+	private void writePlan(ResolutionCollector collector) throws MojoExecutionException
+	{
+		long phaseStart = System.nanoTime();
+		Map<String, Predicate<Artifact>> filters = getDeployFilters();
+		try (DeployPlan.Writer writer = new DeployPlan.Writer(plan, repositoryUrl, checksums))
+		{
+			for (Collection<Artifact> artifactSet: collector.getArtifactSets())
+			{
+				Map<Artifact, String> rejected = new LinkedHashMap<>();
+				writer.write(filterArtifactSet(artifactSet, filters, rejected::put), rejected);
+			}
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			throw new MojoExecutionException("Failed to write plan " + plan, e);
+		}
+		log.info("Wrote plan " + plan);
+		syncReport.phase("plan", phaseStart);
+	}
+}
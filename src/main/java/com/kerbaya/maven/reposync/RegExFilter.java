@@ -18,42 +18,293 @@
  */
 package com.kerbaya.maven.reposync;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Predicate;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.aether.artifact.Artifact;
 
+/**
+ * Matches artifacts against lists of regular expressions.  An artifact is 
+ * accepted if its coordinate, in the format 
+ * {@code <groupId>:<artifactId>:<extension>[:<classifier>]:<version>}, 
+ * matches any include (or there are no includes), and matches no exclude.
+ * <p>
+ * The coordinate is read from the artifact's fields without being copied.  
+ * The literal prefix of each expression, such as {@code org.apache.} in 
+ * {@code org\.apache\..*}, is checked before the expression is run, and the
+ * expressions are indexed by their literal prefixes so that only the 
+ * expressions whose prefixes may match an artifact are checked.
+ */
 class RegExFilter implements Predicate<Artifact>
 {
-	private static final char SEPARATOR = ':';
+	private static final String META_CHARS = "[](){}.*+?^$|\\";
+	private static final String OPTIONAL_QUANTIFIERS = "*?{";
 	
-	private final Pattern pattern;
+	private static final class Rule
+	{
+		private final int index;
+		private final String prefix;
+		private final Pattern pattern;
+		
+		public Rule(int index, String regex)
+		{
+			this.index = index;
+			this.prefix = getLiteralPrefix(regex);
+			this.pattern = Pattern.compile(regex);
+		}
+	}
+	
+	/**
+	 * Expressions indexed by the part of their literal prefix that ends with a
+	 * {@code .} or {@code :} separator
+	 */
+	private static final class RuleSet
+	{
+		private final int size;
+		private final String[] keys;
+		private final Rule[][] buckets;
+		private final Rule[] unindexed;
+		private final int maxKeyLength;
+		
+		public RuleSet(Collection<String> regexes)
+		{
+			Map<String, List<Rule>> bucketMap = new TreeMap<>();
+			List<Rule> unindexedList = new ArrayList<>();
+			int index = 0;
+			int maxLength = 0;
+			for (String regex: regexes)
+			{
+				Rule rule = new Rule(index++, regex);
+				int end = Math.max(
+						rule.prefix.lastIndexOf('.'), rule.prefix.lastIndexOf(':')) + 1;
+				if (end == 0)
+				{
+					unindexedList.add(rule);
+					continue;
+				}
+				String key = rule.prefix.substring(0, end);
+				bucketMap.computeIfAbsent(key, k -> new ArrayList<>()).add(rule);
+				maxLength = Math.max(maxLength, end);
+			}
+			
+			size = index;
+			keys = bucketMap.keySet().toArray(new String[0]);
+			buckets = new Rule[keys.length][];
+			int i = 0;
+			for (List<Rule> bucket: bucketMap.values())
+			{
+				buckets[i++] = bucket.toArray(new Rule[0]);
+			}
+			unindexed = unindexedList.toArray(new Rule[0]);
+			maxKeyLength = maxLength;
+		}
+		
+		public boolean isEmpty()
+		{
+			return size == 0;
+		}
+		
+		private static int compare(String key, CharSequence seq, int length)
+		{
+			int n = Math.min(key.length(), length);
+			for (int i = 0; i < n; i++)
+			{
+				int diff = key.charAt(i) - seq.charAt(i);
+				if (diff != 0)
+				{
+					return diff;
+				}
+			}
+			return key.length() - length;
+		}
+		
+		private int findKey(CharSequence seq, int length)
+		{
+			int low = 0;
+			int high = keys.length - 1;
+			while (low <= high)
+			{
+				int mid = (low + high) >>> 1;
+				int cmp = compare(keys[mid], seq, length);
+				if (cmp < 0)
+				{
+					low = mid + 1;
+				}
+				else if (cmp > 0)
+				{
+					high = mid - 1;
+				}
+				else
+				{
+					return mid;
+				}
+			}
+			return -1;
+		}
+		
+		private static boolean matches(Rule[] rules, CoordinateSequence seq, Matcher[] matchers)
+		{
+			for (Rule rule: rules)
+			{
+				if (!seq.startsWith(rule.prefix))
+				{
+					continue;
+				}
+				
+				Matcher matcher = matchers[rule.index];
+				if (matcher == null)
+				{
+					matcher = rule.pattern.matcher(seq);
+					matchers[rule.index] = matcher;
+				}
+				else
+				{
+					matcher.reset(seq);
+				}
+				
+				if (matcher.matches())
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		public boolean matches(CoordinateSequence seq, Matcher[] matchers)
+		{
+			if (matches(unindexed, seq, matchers))
+			{
+				return true;
+			}
+			
+			int n = Math.min(seq.length(), maxKeyLength);
+			for (int i = 0; i < n; i++)
+			{
+				char c = seq.charAt(i);
+				if (c != '.' && c != ':')
+				{
+					continue;
+				}
+				
+				int keyIndex = findKey(seq, i + 1);
+				if (keyIndex != -1 && matches(buckets[keyIndex], seq, matchers))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+	
+	/**
+	 * The state of a thread that is testing artifacts
+	 */
+	private final class State
+	{
+		private final CoordinateSequence seq = new CoordinateSequence();
+		private final Matcher[] includeMatchers = new Matcher[includes.size];
+		private final Matcher[] excludeMatchers = new Matcher[excludes.size];
+	}
+	
+	private final RuleSet includes;
+	private final RuleSet excludes;
+	private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
 	
 	public RegExFilter(String pattern)
 	{
-		this.pattern = Pattern.compile(pattern);
+		this(Collections.singletonList(pattern), Collections.emptyList());
 	}
 	
-	@Override
-	public boolean test(Artifact t)
+	/**
+	 * @param includes
+	 * The expressions of which an accepted artifact matches at least one, or
+	 * an empty collection to accept any artifact that is not excluded
+	 * 
+	 * @param excludes
+	 * The expressions that an accepted artifact does not match
+	 */
+	public RegExFilter(Collection<String> includes, Collection<String> excludes)
 	{
-		StringBuilder sb = new StringBuilder()
-				.append(t.getGroupId())
-				.append(SEPARATOR)
-				.append(t.getArtifactId())
-				.append(SEPARATOR)
-				.append(t.getExtension());
-		
-		String classifier = t.getClassifier();
-		if (classifier != null && !classifier.isEmpty())
+		this.includes = new RuleSet(includes);
+		this.excludes = new RuleSet(excludes);
+	}
+	
+	/**
+	 * Obtains the characters that any string matching a regular expression 
+	 * starts with
+	 * 
+	 * @param regex
+	 * The regular expression
+	 * 
+	 * @return
+	 * The literal prefix of {@code regex}, which may be empty
+	 */
+	static String getLiteralPrefix(String regex)
+	{
+		if (regex.indexOf('|') != -1)
 		{
-			sb.append(SEPARATOR);
-			sb.append(classifier);
+			/*
+			 * The alternatives may not share a prefix
+			 */
+			return "";
 		}
 		
-		sb.append(SEPARATOR)
-				.append(t.getVersion());
+		StringBuilder sb = new StringBuilder();
+		int i = regex.startsWith("^") ? 1 : 0;
+		while (i < regex.length())
+		{
+			char c = regex.charAt(i);
+			int next = i + 1;
+			if (c == '\\')
+			{
+				if (next == regex.length() || Character.isLetterOrDigit(regex.charAt(next)))
+				{
+					/*
+					 * A character class, a quote, or a back-reference
+					 */
+					break;
+				}
+				c = regex.charAt(next++);
+			}
+			else if (META_CHARS.indexOf(c) != -1)
+			{
+				break;
+			}
+			
+			if (next < regex.length())
+			{
+				char quantifier = regex.charAt(next);
+				if (OPTIONAL_QUANTIFIERS.indexOf(quantifier) != -1)
+				{
+					break;
+				}
 				
-		return pattern.matcher(sb).matches();
+				if (quantifier == '+')
+				{
+					sb.append(c);
+					break;
+				}
+			}
+			
+			sb.append(c);
+			i = next;
+		}
+		return sb.toString();
+	}
+	
+	@Override
+	public boolean test(Artifact t)
+	{
+		State s = state.get();
+		s.seq.reset(t);
+		return (includes.isEmpty() || includes.matches(s.seq, s.includeMatchers))
+				&& !excludes.matches(s.seq, s.excludeMatchers);
 	}
 }
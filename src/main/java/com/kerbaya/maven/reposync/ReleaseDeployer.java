@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Deploys released artifacts separately from the group-artifact meta-data, 
+ * so that the meta-data of many versions is written once
+ */
+interface ReleaseDeployer
+{
+	/**
+	 * Determines whether an artifact set can be deployed by a release 
+	 * deployer.  Snapshots are left to the repository system, which gives them
+	 * timestamps and version meta-data.
+	 * 
+	 * @param artifactSet
+	 * The artifacts of one group-artifact-version coordinate
+	 * 
+	 * @return
+	 * {@code true} if no artifact of the set is a snapshot
+	 */
+	static boolean isRelease(Collection<Artifact> artifactSet)
+	{
+		for (Artifact artifact: artifactSet)
+		{
+			if (artifact.isSnapshot())
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Deploys the artifacts of one released group-artifact-version 
+	 * coordinate, along with their checksums, without updating the 
+	 * group-artifact meta-data
+	 * 
+	 * @param artifactSet
+	 * The artifacts to deploy
+	 */
+	void deployArtifacts(Collection<Artifact> artifactSet) throws Exception;
+	
+	/**
+	 * Adds versions to the meta-data of a group-artifact coordinate, reading 
+	 * and writing the meta-data once
+	 * 
+	 * @param versions
+	 * One artifact of each deployed version, all sharing a group-artifact 
+	 * coordinate, in the order they were deployed
+	 */
+	void deployMetadata(List<Artifact> versions) throws Exception;
+}
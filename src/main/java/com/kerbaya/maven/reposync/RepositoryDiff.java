@@ -0,0 +1,591 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Compares the released versions that two repositories hold under a set of 
+ * coordinate prefixes, by their checksums.  A repository with a {@code file}
+ * URL is listed directly; the versions of another repository are read from 
+ * its group-artifact meta-data, so the group-artifact coordinates of a 
+ * group prefix are only found in repositories that can be listed.
+ */
+final class RepositoryDiff
+{
+	/**
+	 * How a version differs between the repositories
+	 */
+	public enum Kind
+	{
+		/**
+		 * The target repository lacks the version, or some of its files.  
+		 * Files of the version that differ are listed along with the missing 
+		 * ones.
+		 */
+		MISSING,
+		
+		/**
+		 * Some files of the version have different checksums
+		 */
+		DIFFERENT,
+		
+		/**
+		 * Only the target repository holds the version
+		 */
+		EXTRA
+	}
+	
+	/**
+	 * A version that differs between the repositories
+	 */
+	public static final class Difference
+	{
+		private final Kind kind;
+		private final String groupId;
+		private final String artifactId;
+		private final String version;
+		private final List<String> fileNames;
+		private final List<String> artifacts;
+		
+		private Difference(
+				Kind kind, 
+				String groupId, 
+				String artifactId, 
+				String version, 
+				List<String> fileNames, 
+				List<String> artifacts)
+		{
+			this.kind = kind;
+			this.groupId = groupId;
+			this.artifactId = artifactId;
+			this.version = version;
+			this.fileNames = fileNames;
+			this.artifacts = artifacts;
+		}
+		
+		public Kind getKind()
+		{
+			return kind;
+		}
+		
+		/**
+		 * @return
+		 * The names of the files that are missing or different, or an empty 
+		 * list if the whole version is missing or extra
+		 */
+		public List<String> getFileNames()
+		{
+			return fileNames;
+		}
+		
+		/**
+		 * Formats the files that differ as requested artifacts
+		 * 
+		 * @return
+		 * One artifact per missing or different file, in the format accepted 
+		 * by {@link ArtifactItem#ArtifactItem(String)}.  A whole version has 
+		 * one artifact per file of the repository that holds it, or only its
+		 * {@code groupId:artifactId:version} coordinate if that repository 
+		 * cannot be listed.
+		 */
+		public List<String> getArtifacts()
+		{
+			return artifacts;
+		}
+		
+		@Override
+		public String toString()
+		{
+			return kind.name().toLowerCase() + " " + groupId + ":" + artifactId + ":" + version 
+					+ (fileNames.isEmpty() ? "" : " " + String.join(", ", fileNames));
+		}
+	}
+	
+	private static final Comparator<String> VERSION_ORDER = 
+			Comparator.comparing(ComparableVersion::new)
+			.thenComparing(Comparator.naturalOrder());
+	
+	/**
+	 * Finds the group-artifact directories under listed directories.  Each 
+	 * directory is listed by its own task, which submits the walks of its 
+	 * sub-directories rather than waiting for them, so that the walks of both
+	 * repositories share the threads of the executor.
+	 */
+	private static final class GroupArtifactWalk
+	{
+		private final ExecutorService executor;
+		private final Set<String> gaDirs = ConcurrentHashMap.newKeySet();
+		
+		/**
+		 * The number of directories submitted and not yet listed, plus one 
+		 * until the walks are awaited, so that the walk does not complete 
+		 * while directories are still being submitted
+		 */
+		private final AtomicInteger pending = new AtomicInteger(1);
+		private final CompletableFuture<Set<String>> done = new CompletableFuture<>();
+		
+		public GroupArtifactWalk(ExecutorService executor)
+		{
+			this.executor = executor;
+		}
+		
+		/**
+		 * Walks a directory and its sub-directories
+		 */
+		public void submit(TargetInspector inspector, String dir)
+		{
+			pending.incrementAndGet();
+			executor.execute(() -> {
+				try
+				{
+					walk(inspector, dir);
+				}
+				catch (Throwable e)
+				{
+					done.completeExceptionally(e);
+				}
+				finally
+				{
+					release();
+				}
+			});
+		}
+		
+		private void release()
+		{
+			if (pending.decrementAndGet() == 0)
+			{
+				done.complete(gaDirs);
+			}
+		}
+		
+		private void walk(TargetInspector inspector, String dir)
+		{
+			List<String> entries = inspector.list(dir);
+			if (entries == null)
+			{
+				return;
+			}
+			
+			Set<String> versions = getListedVersions(inspector, dir, entries);
+			if (!versions.isEmpty())
+			{
+				gaDirs.add(dir);
+			}
+			for (String entry: entries)
+			{
+				if (entry.endsWith("/") 
+						&& !versions.contains(entry.substring(0, entry.length() - 1)))
+				{
+					submit(inspector, dir + entry);
+				}
+			}
+		}
+		
+		/**
+		 * Waits for the walks submitted
+		 * 
+		 * @return
+		 * The group-artifact directories found
+		 */
+		public Set<String> await() throws InterruptedException, ExecutionException
+		{
+			release();
+			return done.get();
+		}
+	}
+	
+	private final TargetInspector source;
+	private final TargetInspector target;
+	private final int threads;
+	
+	/**
+	 * @param source
+	 * Reads the repository whose content should be in the target repository
+	 * 
+	 * @param target
+	 * Reads the target repository
+	 * 
+	 * @param threads
+	 * The number of concurrent reads
+	 */
+	public RepositoryDiff(TargetInspector source, TargetInspector target, int threads)
+	{
+		this.source = source;
+		this.target = target;
+		this.threads = Math.max(threads, 1);
+	}
+	
+	/**
+	 * Lists the version directories of a listed group-artifact directory
+	 */
+	private static Set<String> getListedVersions(
+			TargetInspector inspector, String gaDir, List<String> entries)
+	{
+		String artifactId = getArtifactId(gaDir);
+		Set<String> versions = new TreeSet<>(VERSION_ORDER);
+		for (String entry: entries)
+		{
+			if (entry.endsWith("/"))
+			{
+				String version = entry.substring(0, entry.length() - 1);
+				if (!getFileNames(inspector, gaDir + entry, artifactId, version).isEmpty())
+				{
+					versions.add(version);
+				}
+			}
+		}
+		return versions;
+	}
+	
+	/**
+	 * Lists the artifact files of a listed version directory
+	 */
+	private static List<String> getFileNames(
+			TargetInspector inspector, String versionDir, String artifactId, String version)
+	{
+		List<String> entries = inspector.list(versionDir);
+		if (entries == null)
+		{
+			return null;
+		}
+		
+		String prefix = artifactId + "-" + version;
+		List<String> fileNames = new ArrayList<>();
+		for (String entry: entries)
+		{
+			if (entry.startsWith(prefix) 
+					&& !entry.endsWith("/") 
+					&& !entry.endsWith(".lastUpdated") 
+					&& !Checksums.isChecksum(entry))
+			{
+				fileNames.add(entry);
+			}
+		}
+		return fileNames;
+	}
+	
+	private static String getArtifactId(String gaDir)
+	{
+		String path = gaDir.substring(0, gaDir.length() - 1);
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+	
+	/**
+	 * Finds the group-artifact directories matched by a prefix
+	 * 
+	 * @param prefix
+	 * Either {@code groupId:artifactId}, or a {@code groupId} that matches 
+	 * its sub-groups too
+	 * 
+	 * @param gaDirs
+	 * Receives the directory of a {@code groupId:artifactId} prefix
+	 * 
+	 * @param walk
+	 * Walks the directory of a {@code groupId} prefix in both repositories
+	 */
+	private void findGroupArtifacts(String prefix, Set<String> gaDirs, GroupArtifactWalk walk)
+	{
+		int idx = prefix.indexOf(':');
+		if (idx != -1)
+		{
+			gaDirs.add(
+					prefix.substring(0, idx).replace('.', '/') 
+					+ "/" + prefix.substring(idx + 1) + "/");
+			return;
+		}
+		
+		if (source.list("") == null && target.list("") == null)
+		{
+			throw new IllegalArgumentException(String.format(
+					"Prefix %s has no artifactId, and neither repository can be listed", 
+					prefix));
+		}
+		
+		String groupDir = prefix.replace('.', '/') + "/";
+		walk.submit(source, groupDir);
+		walk.submit(target, groupDir);
+	}
+	
+	/**
+	 * Obtains the released versions of a group-artifact coordinate
+	 */
+	private static Set<String> getVersions(TargetInspector inspector, String gaDir) 
+			throws Exception
+	{
+		List<String> entries = inspector.list(gaDir);
+		Set<String> versions;
+		if (entries != null)
+		{
+			versions = getListedVersions(inspector, gaDir, entries);
+		}
+		else
+		{
+			versions = new TreeSet<>(VERSION_ORDER);
+			String content = inspector.getString(gaDir + VersionsMetadata.FILE_NAME);
+			if (content != null)
+			{
+				Metadata metadata = VersionsMetadata.read(
+						new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+				if (metadata.getVersioning() != null)
+				{
+					versions.addAll(metadata.getVersioning().getVersions());
+				}
+			}
+		}
+		versions.removeIf(version -> version.endsWith("-SNAPSHOT"));
+		return versions;
+	}
+	
+	/**
+	 * Formats the files of a version directory as requested artifacts
+	 * 
+	 * @param fileNames
+	 * The names of the files, or {@code null} if the directory cannot be 
+	 * listed
+	 */
+	private static List<String> toArtifacts(
+			String groupId, String artifactId, String version, Collection<String> fileNames)
+	{
+		if (fileNames == null)
+		{
+			return Collections.singletonList(groupId + ":" + artifactId + ":" + version);
+		}
+		
+		String versionDir = groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/";
+		List<String> artifacts = new ArrayList<>(fileNames.size());
+		for (String fileName: fileNames)
+		{
+			Artifact artifact = BundleReader.parsePath(versionDir + fileName);
+			if (artifact != null)
+			{
+				artifacts.add(new ArtifactItem(artifact).toString());
+			}
+		}
+		return artifacts;
+	}
+	
+	/**
+	 * Compares a version that both repositories hold
+	 * 
+	 * @return
+	 * The difference, or {@code null} if the files match
+	 */
+	private Difference compareVersion(String gaDir, String version) throws Exception
+	{
+		String path = gaDir.substring(0, gaDir.length() - 1);
+		String artifactId = getArtifactId(gaDir);
+		String groupId = path.substring(0, path.lastIndexOf('/')).replace('/', '.');
+		String versionDir = gaDir + version + "/";
+		
+		Set<String> fileNames = new TreeSet<>();
+		List<String> sourceNames = getFileNames(source, versionDir, artifactId, version);
+		List<String> targetNames = getFileNames(target, versionDir, artifactId, version);
+		if (sourceNames != null)
+		{
+			fileNames.addAll(sourceNames);
+		}
+		if (targetNames != null)
+		{
+			fileNames.addAll(targetNames);
+		}
+		if (sourceNames == null && targetNames == null)
+		{
+			fileNames.add(artifactId + "-" + version + ".pom");
+		}
+		
+		List<String> missing = new ArrayList<>();
+		List<String> different = new ArrayList<>();
+		for (String fileName: fileNames)
+		{
+			String sourceSha1 = source.getSha1(versionDir + fileName);
+			if (sourceSha1 == null)
+			{
+				continue;
+			}
+			String targetSha1 = target.getSha1(versionDir + fileName);
+			if (targetSha1 == null)
+			{
+				missing.add(fileName);
+			}
+			else if (!sourceSha1.equals(targetSha1))
+			{
+				different.add(fileName);
+			}
+		}
+		
+		if (!missing.isEmpty())
+		{
+			/*
+			 * The different files are deployed along with the missing ones
+			 */
+			missing.addAll(different);
+			missing.sort(null);
+			return new Difference(
+					Kind.MISSING, 
+					groupId, 
+					artifactId, 
+					version, 
+					missing, 
+					toArtifacts(groupId, artifactId, version, missing));
+		}
+		if (!different.isEmpty())
+		{
+			return new Difference(
+					Kind.DIFFERENT, 
+					groupId, 
+					artifactId, 
+					version, 
+					different, 
+					toArtifacts(groupId, artifactId, version, different));
+		}
+		return null;
+	}
+	
+	private Difference wholeVersion(Kind kind, String gaDir, String version)
+	{
+		String path = gaDir.substring(0, gaDir.length() - 1);
+		String artifactId = getArtifactId(gaDir);
+		String groupId = path.substring(0, path.lastIndexOf('/')).replace('/', '.');
+		return new Difference(
+				kind, 
+				groupId, 
+				artifactId, 
+				version, 
+				Collections.emptyList(), 
+				toArtifacts(
+						groupId, 
+						artifactId, 
+						version, 
+						getFileNames(
+								kind == Kind.MISSING ? source : target, 
+								gaDir + version + "/", 
+								artifactId, 
+								version)));
+	}
+	
+	/**
+	 * Compares the repositories.  The directories of group prefixes are 
+	 * walked in both repositories concurrently, then the versions of all 
+	 * group-artifact coordinates are read from both repositories 
+	 * concurrently, then the checksums of the versions that both repositories
+	 * hold are compared concurrently.
+	 * 
+	 * @param prefixes
+	 * The coordinates to compare: each either {@code groupId:artifactId}, or
+	 * a {@code groupId} that matches its sub-groups too
+	 * 
+	 * @return
+	 * The versions that differ, ordered by coordinate
+	 * 
+	 * @throws IllegalArgumentException
+	 * If a prefix has no artifactId, and neither repository can be listed
+	 */
+	public List<Difference> compare(Collection<String> prefixes) throws Exception
+	{
+		ExecutorService executor = Utils.newExecutor("reposync-diff", threads);
+		try
+		{
+			Set<String> gaDirs = new TreeSet<>();
+			GroupArtifactWalk walk = new GroupArtifactWalk(executor);
+			for (String prefix: prefixes)
+			{
+				findGroupArtifacts(prefix.trim(), gaDirs, walk);
+			}
+			gaDirs.addAll(walk.await());
+			
+			List<Future<Set<String>>> sourceVersions = new ArrayList<>(gaDirs.size());
+			List<Future<Set<String>>> targetVersions = new ArrayList<>(gaDirs.size());
+			for (String gaDir: gaDirs)
+			{
+				sourceVersions.add(executor.submit(() -> getVersions(source, gaDir)));
+				targetVersions.add(executor.submit(() -> getVersions(target, gaDir)));
+			}
+			
+			List<Future<Difference>> differences = new ArrayList<>();
+			int gaIdx = 0;
+			for (String gaDir: gaDirs)
+			{
+				Set<String> inSource = sourceVersions.get(gaIdx).get();
+				Set<String> inTarget = targetVersions.get(gaIdx++).get();
+				Set<String> versions = new TreeSet<>(VERSION_ORDER);
+				versions.addAll(inSource);
+				versions.addAll(inTarget);
+				for (String version: versions)
+				{
+					if (!inTarget.contains(version))
+					{
+						differences.add(executor.submit(
+								() -> wholeVersion(Kind.MISSING, gaDir, version)));
+					}
+					else if (!inSource.contains(version))
+					{
+						differences.add(executor.submit(
+								() -> wholeVersion(Kind.EXTRA, gaDir, version)));
+					}
+					else
+					{
+						differences.add(executor.submit(() -> compareVersion(gaDir, version)));
+					}
+				}
+			}
+			
+			List<Difference> result = new ArrayList<>();
+			for (Future<Difference> difference: differences)
+			{
+				if (difference.get() != null)
+				{
+					result.add(difference.get());
+				}
+			}
+			return result;
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof Exception)
+			{
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+		finally
+		{
+			Utils.shutdown(executor);
+		}
+	}
+}
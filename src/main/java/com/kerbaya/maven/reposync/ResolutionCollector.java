@@ -18,12 +18,23 @@
  */
 package com.kerbaya.maven.reposync;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.maven.plugin.logging.Log;
 import org.eclipse.aether.AbstractRepositoryListener;
@@ -33,38 +44,173 @@ import org.eclipse.aether.RepositoryEvent;
 import org.eclipse.aether.RepositoryListener;
 import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.repository.ArtifactRepository;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.util.listener.ChainedRepositoryListener;
 
 /**
- * Builds lists of artifacts, grouped by group-artifact-version coordinate
- * 
+ * Builds lists of artifacts, grouped by group-artifact-version coordinate.
+ * Resolution events may be received concurrently.  Optionally, once a 
+ * threshold number of artifacts is held in memory, they are spilled to disk 
+ * as compact records, so that memory use does not grow with the number of 
+ * resolved artifacts.  The artifacts resolved by one thread may be handed 
+ * over before the others finish, so that they can be deployed while 
+ * resolution continues.
+ * <p>
+ * Artifacts resolved from a target repository are not deployed back to it 
+ * (see {@link IgnoredTargets}).
  */
-final class ResolutionCollector extends AbstractRepositoryListener
+final class ResolutionCollector extends AbstractRepositoryListener implements Closeable
 {
+	/**
+	 * A collected artifact, without its coordinates, which are held by the 
+	 * keys of its maps
+	 */
 	private static final class MapValue
 	{
+		public final File file;
+		
 		/**
-		 * {@code null} indicates the artifact was found in the ignored URL
+		 * The properties of the artifact, shared with the other artifacts 
+		 * that have the same properties
 		 */
-		public Artifact artifact;
+		public final Map<String, String> properties;
+		
+		/**
+		 * The target repositories the artifact was found in, as a mask of 
+		 * {@link IgnoredTargets}
+		 */
+		public final long ignoredBy;
+		
+		/**
+		 * {@code true} indicates the artifact was handed over by 
+		 * {@link ResolutionCollector#takeFinished(Collection)}
+		 */
+		public final boolean taken;
 
-		public MapValue(Artifact artifact)
+		public MapValue(
+				File file, Map<String, String> properties, long ignoredBy, boolean taken)
 		{
-			this.artifact = artifact;
+			this.file = file;
+			this.properties = properties;
+			this.ignoredBy = ignoredBy;
+			this.taken = taken;
+		}
+		
+		/**
+		 * Combines two resolutions of the same artifact.  Once an artifact has
+		 * been found in a target repository, it remains ignored by it.
+		 */
+		public static MapValue merge(MapValue current, MapValue resolved)
+		{
+			long ignoredBy = current.ignoredBy | resolved.ignoredBy;
+			return ignoredBy == current.ignoredBy ? 
+					current : new MapValue(current.file, current.properties, ignoredBy, current.taken);
 		}
 	}
 	
-	private final Map<ArtifactItem, MapValue> artifactMap = new HashMap<>();
+	/**
+	 * Interns the coordinate fields of the collected artifacts
+	 */
+	private final SymbolTable symbols = new SymbolTable();
+	
+	/**
+	 * The IDs of the group-artifact coordinates, by their packed group ID and
+	 * artifact ID symbols
+	 */
+	private final ConcurrentMap<Long, Integer> groupArtifactIds = 
+			new ConcurrentHashMap<>();
+	private final AtomicInteger groupArtifactCount = new AtomicInteger();
+	
+	/**
+	 * The packed group ID and artifact ID symbols, by group-artifact ID
+	 */
+	private final ConcurrentMap<Integer, Long> groupArtifactKeys = 
+			new ConcurrentHashMap<>();
+	
+	/**
+	 * The distinct property maps of the collected artifacts, which are few
+	 */
+	private final ConcurrentMap<Map<String, String>, Map<String, String>> propertyMaps = 
+			new ConcurrentHashMap<>();
+	
+	/**
+	 * Collected artifacts, grouped by group-artifact-version coordinate.  The 
+	 * outer map is keyed by packed group-artifact ID and version symbol, and
+	 * each inner map by packed extension and classifier symbols.  Each 
+	 * artifact is updated atomically by its group's map, so no lock is shared
+	 * between unrelated artifacts.
+	 */
+	private final ConcurrentMap<Long, ConcurrentMap<Long, MapValue>> pathMap = 
+			new ConcurrentHashMap<>();
+	
+	/**
+	 * The item keys of the artifacts that were handed over by 
+	 * {@link #takeFinished(Collection)} and then spilled, by path key, so that
+	 * they are not handed over again if they are resolved again
+	 */
+	private final ConcurrentMap<Long, Set<Long>> spilledTaken = new ConcurrentHashMap<>();
+	
+	/**
+	 * The number of artifacts in {@link #pathMap}
+	 */
+	private final AtomicInteger itemCount = new AtomicInteger();
+	
+	/**
+	 * Resolution events share the read lock, and spilling takes the write 
+	 * lock
+	 */
+	private final ReadWriteLock spillLock = new ReentrantReadWriteLock();
+	
+	/**
+	 * The path keys of the artifacts resolved by each tracking thread
+	 */
+	private final ThreadLocal<Set<Long>> trackedPaths = new ThreadLocal<>();
 	
 	private final Log log;
-	private final String ignoreRepoUrl;
+	private final IgnoredTargets ignoredTargets;
+	private final int spillThreshold;
+	private final CollectorSpill spill;
+	
+	/**
+	 * Resolution events are dispatched by the resolver, which only logs the
+	 * exceptions of its listeners, so a failure to spill is kept until the 
+	 * artifacts are read
+	 */
+	private volatile IOException spillFailure;
 	
 	public ResolutionCollector(Log log, String ignoreRepoUrl)
+	{
+		this(
+				log, 
+				ignoreRepoUrl == null ? 
+						Collections.emptyList() : Collections.singletonList(ignoreRepoUrl), 
+				0, 
+				null);
+	}
+	
+	/**
+	 * @param ignoreRepoUrls
+	 * The URLs of the target repositories, whose artifacts are not deployed
+	 * back to them, or an empty list to deploy all artifacts
+	 * 
+	 * @param spillThreshold
+	 * The number of artifacts held in memory before they are spilled to disk,
+	 * or {@code 0} to hold all artifacts in memory
+	 * 
+	 * @param spillDirectory
+	 * The directory to which artifacts are spilled, or {@code null} to use a 
+	 * temporary directory
+	 */
+	public ResolutionCollector(
+			Log log, List<String> ignoreRepoUrls, int spillThreshold, File spillDirectory)
 	{
 		this.log = log;
-		this.ignoreRepoUrl = ignoreRepoUrl;
+		this.ignoredTargets = new IgnoredTargets(ignoreRepoUrls);
+		this.spillThreshold = Math.max(spillThreshold, 0);
+		this.spill = spillThreshold > 0 ? 
+				new CollectorSpill(spillDirectory, ignoredTargets) : null;
 	}
 
 	/**
@@ -96,17 +242,57 @@ final class ResolutionCollector extends AbstractRepositoryListener
 		return newSession;
 	}
 	
-	private boolean ignore(RepositoryEvent event)
+	/**
+	 * @return
+	 * The mask of the target repository an artifact was resolved from, or 
+	 * {@code 0}
+	 */
+	private long ignore(RepositoryEvent event)
+	{
+		ArtifactRepository repository = event.getRepository();
+		return repository instanceof RemoteRepository ?
+				ignoredTargets.getMask(((RemoteRepository) repository).getUrl())
+				: 0;
+	}
+	
+	private long getPathKey(Artifact artifact)
 	{
-		if (ignoreRepoUrl == null)
+		Long groupArtifactKey = SymbolTable.pack(
+				symbols.intern(artifact.getGroupId()), 
+				symbols.intern(artifact.getArtifactId()));
+		Integer groupArtifactId = groupArtifactIds.get(groupArtifactKey);
+		if (groupArtifactId == null)
 		{
-			return false;
+			groupArtifactId = groupArtifactIds.computeIfAbsent(groupArtifactKey, key -> {
+				int id = groupArtifactCount.getAndIncrement();
+				groupArtifactKeys.put(id, key);
+				return id;
+			});
 		}
-		ArtifactRepository repository = event.getRepository();
-		return repository instanceof RemoteRepository
-				&& Objects.equals(
-						ignoreRepoUrl,
-						((RemoteRepository) repository).getUrl());
+		return SymbolTable.pack(groupArtifactId, symbols.intern(artifact.getVersion()));
+	}
+	
+	private long getItemKey(Artifact artifact)
+	{
+		return SymbolTable.pack(
+				symbols.intern(artifact.getExtension()), 
+				symbols.intern(artifact.getClassifier()));
+	}
+	
+	/**
+	 * Rebuilds a collected artifact from its keys
+	 */
+	private Artifact toArtifact(long pathKey, long itemKey, MapValue mapValue)
+	{
+		long groupArtifactKey = groupArtifactKeys.get(SymbolTable.high(pathKey));
+		return new DefaultArtifact(
+				symbols.get(SymbolTable.high(groupArtifactKey)), 
+				symbols.get(SymbolTable.low(groupArtifactKey)), 
+				symbols.get(SymbolTable.low(itemKey)), 
+				symbols.get(SymbolTable.high(itemKey)), 
+				symbols.get(SymbolTable.low(pathKey)), 
+				mapValue.properties, 
+				mapValue.file);
 	}
 	
 	@Override
@@ -124,46 +310,306 @@ final class ResolutionCollector extends AbstractRepositoryListener
 					"Resolved %s @ %s", artifact, event.getRepository()));
 		}
 		
-		ArtifactItem mapKey = new ArtifactItem(artifact);
+		if (spill == null)
+		{
+			add(artifact, ignore(event));
+			return;
+		}
 		
-		MapValue mapValue = artifactMap.get(mapKey);
-		if (mapValue == null)
+		boolean full;
+		spillLock.readLock().lock();
+		try
+		{
+			full = add(artifact, ignore(event)) && itemCount.get() > spillThreshold;
+		}
+		finally
 		{
-			artifactMap.put(
-					mapKey, new MapValue(ignore(event) ? null : artifact));
+			spillLock.readLock().unlock();
 		}
-		else if (mapValue.artifact != null && ignore(event))
+		
+		if (full)
 		{
-			mapValue.artifact = null;
+			spillLock.writeLock().lock();
+			try
+			{
+				if (itemCount.get() > spillThreshold && spillFailure == null)
+				{
+					writeRun();
+				}
+			}
+			catch (IOException e)
+			{
+				log.error("Failed to spill resolved artifacts", e);
+				spillFailure = e;
+			}
+			finally
+			{
+				spillLock.writeLock().unlock();
+			}
 		}
 	}
 	
 	/**
-	 * Obtains the collected sets of artifacts, grouped by
+	 * @return
+	 * {@code true} if the artifact was not already collected
+	 */
+	private boolean add(Artifact artifact, long ignoredBy)
+	{
+		long pathKey = getPathKey(artifact);
+		Set<Long> tracked = trackedPaths.get();
+		if (tracked != null)
+		{
+			tracked.add(pathKey);
+		}
+		
+		ConcurrentMap<Long, MapValue> itemMap = pathMap.computeIfAbsent(
+				pathKey, key -> new ConcurrentHashMap<>());
+		long itemKey = getItemKey(artifact);
+		Map<String, String> properties = artifact.getProperties();
+		MapValue value = new MapValue(
+				artifact.getFile(), 
+				properties.isEmpty() ? 
+						Collections.emptyMap() 
+						: propertyMaps.computeIfAbsent(properties, p -> p), 
+				ignoredBy, 
+				isSpilledTaken(pathKey, itemKey));
+		if (itemMap.putIfAbsent(itemKey, value) == null)
+		{
+			itemCount.incrementAndGet();
+			return true;
+		}
+		itemMap.merge(itemKey, value, MapValue::merge);
+		return false;
+	}
+	
+	private boolean isSpilledTaken(long pathKey, long itemKey)
+	{
+		Set<Long> itemKeys = spilledTaken.get(pathKey);
+		return itemKeys != null && itemKeys.contains(itemKey);
+	}
+	
+	/**
+	 * Moves the artifacts held in memory to a new run on disk.  The caller 
+	 * holds the write lock, or no resolution is in progress.  Artifacts that 
+	 * were handed over are written too, so that the runs leave them out.
+	 */
+	private void writeRun() throws IOException
+	{
+		List<CollectorSpill.Record> records = new ArrayList<>(itemCount.get());
+		for (Map.Entry<Long, ConcurrentMap<Long, MapValue>> path: pathMap.entrySet())
+		{
+			for (Map.Entry<Long, MapValue> item: path.getValue().entrySet())
+			{
+				MapValue mapValue = item.getValue();
+				records.add(new CollectorSpill.Record(
+						toArtifact(path.getKey(), item.getKey(), mapValue), 
+						mapValue.ignoredBy,
+						mapValue.taken));
+				if (mapValue.taken)
+				{
+					spilledTaken.computeIfAbsent(path.getKey(), key -> new HashSet<>())
+							.add(item.getKey());
+				}
+			}
+		}
+		spill.writeRun(records);
+		pathMap.clear();
+		itemCount.set(0);
+	}
+	
+	/**
+	 * Starts recording the group-artifact-version coordinates of the artifacts
+	 * that are resolved on the calling thread
+	 */
+	public void track()
+	{
+		trackedPaths.set(new HashSet<>());
+	}
+	
+	/**
+	 * Stops recording the coordinates of the artifacts resolved on the calling
+	 * thread
+	 * 
+	 * @return
+	 * The keys of the group-artifact-version coordinates of the artifacts 
+	 * resolved on the calling thread since {@link #track()}, for 
+	 * {@link #takeFinished(Collection)}
+	 */
+	public Set<Long> untrack()
+	{
+		Set<Long> tracked = trackedPaths.get();
+		trackedPaths.remove();
+		return tracked == null ? Collections.emptySet() : tracked;
+	}
+	
+	/**
+	 * Hands over the collected artifacts of group-artifact-version 
+	 * coordinates that are not expected to change, and leaves them out of
+	 * {@link #getArtifactSets()}.  Each artifact is handed over once, even to
+	 * concurrent callers.  Snapshot coordinates are not handed over, since 
+	 * their artifacts must be deployed together, and neither are artifacts 
+	 * that have already been spilled.
+	 * 
+	 * @param pathKeys
+	 * The coordinate keys obtained from {@link #untrack()}
+	 * 
+	 * @return
+	 * The artifacts that were not already handed over, grouped by 
 	 * group-artifact-version coordinate
+	 */
+	public List<Collection<Artifact>> takeFinished(Collection<Long> pathKeys)
+	{
+		long[] sortedKeys = new long[pathKeys.size()];
+		int keyCount = 0;
+		for (Long pathKey: pathKeys)
+		{
+			sortedKeys[keyCount++] = pathKey;
+		}
+		Arrays.sort(sortedKeys);
+		
+		List<Collection<Artifact>> artifactSets = new ArrayList<>();
+		spillLock.readLock().lock();
+		try
+		{
+			for (long pathKey: sortedKeys)
+			{
+				ConcurrentMap<Long, MapValue> itemMap = pathMap.get(pathKey);
+				if (itemMap == null)
+				{
+					continue;
+				}
+				
+				Collection<Artifact> pathArtifacts = new ArrayList<>(itemMap.size());
+				for (Long itemKey: itemMap.keySet())
+				{
+					MapValue mapValue = itemMap.get(itemKey);
+					Artifact artifact = toArtifact(pathKey, itemKey, mapValue);
+					if (artifact.isSnapshot())
+					{
+						break;
+					}
+					
+					while (!mapValue.taken && !itemMap.replace(
+							itemKey, 
+							mapValue, 
+							new MapValue(mapValue.file, mapValue.properties, mapValue.ignoredBy, true)))
+					{
+						mapValue = itemMap.get(itemKey);
+					}
+					
+					if (!mapValue.taken && !ignoredTargets.isIgnored(mapValue.ignoredBy))
+					{
+						pathArtifacts.add(ignoredTargets.mark(artifact, mapValue.ignoredBy));
+					}
+				}
+				if (!pathArtifacts.isEmpty())
+				{
+					artifactSets.add(pathArtifacts);
+				}
+			}
+		}
+		finally
+		{
+			spillLock.readLock().unlock();
+		}
+		return artifactSets;
+	}
+	
+	/**
+	 * Obtains the collected sets of artifacts, grouped by
+	 * group-artifact-version coordinate.  Sets sharing a group-artifact 
+	 * coordinate are adjacent.  Once artifacts have been spilled, the sets are
+	 * read back from disk as they are iterated, in sorted order.  Resolution
+	 * must be complete.
 	 * 
 	 * @return
 	 * The collected sets of artifacts
+	 * 
+	 * @throws UncheckedIOException
+	 * If the spilled artifacts could not be written or read
 	 */
-	public Collection<Collection<Artifact>> getArtifactSets()
+	public Iterable<Collection<Artifact>> getArtifactSets()
 	{
-		Map<ArtifactPath, Collection<Artifact>> pathMap = new HashMap<>();
-		for (Entry<ArtifactItem, MapValue> e: artifactMap.entrySet())
+		if (spillFailure != null)
 		{
-			MapValue mapValue = e.getValue();
-			if (mapValue.artifact == null)
+			throw new UncheckedIOException(
+					"Failed to spill resolved artifacts", spillFailure);
+		}
+		
+		if (spill != null && spill.hasRuns())
+		{
+			if (!pathMap.isEmpty())
 			{
-				continue;
+				try
+				{
+					writeRun();
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(
+							"Failed to spill resolved artifacts", e);
+				}
 			}
-			ArtifactPath artifactPath = new ArtifactPath(e.getKey());
-			Collection<Artifact> pathArtifacts = pathMap.get(artifactPath);
-			if (pathArtifacts == null)
+			return spill::iterator;
+		}
+		
+		long[] pathKeys = new long[pathMap.size()];
+		int keyCount = 0;
+		for (Long pathKey: pathMap.keySet())
+		{
+			if (keyCount == pathKeys.length)
 			{
-				pathArtifacts = new ArrayList<>();
-				pathMap.put(artifactPath, pathArtifacts);
+				pathKeys = Arrays.copyOf(pathKeys, keyCount * 2 + 1);
 			}
-			pathArtifacts.add(mapValue.artifact);
+			pathKeys[keyCount++] = pathKey;
+		}
+		
+		/*
+		 * The group-artifact ID is in the high bits of the keys
+		 */
+		Arrays.sort(pathKeys, 0, keyCount);
+		
+		List<Collection<Artifact>> artifactSets = new ArrayList<>(keyCount);
+		for (int i = 0; i < keyCount; i++)
+		{
+			Map<Long, MapValue> itemMap = pathMap.get(pathKeys[i]);
+			Collection<Artifact> pathArtifacts = new ArrayList<>(itemMap.size());
+			for (Map.Entry<Long, MapValue> item: itemMap.entrySet())
+			{
+				MapValue mapValue = item.getValue();
+				if (!ignoredTargets.isIgnored(mapValue.ignoredBy) && !mapValue.taken)
+				{
+					pathArtifacts.add(ignoredTargets.mark(
+							toArtifact(pathKeys[i], item.getKey(), mapValue), 
+							mapValue.ignoredBy));
+				}
+			}
+			if (!pathArtifacts.isEmpty())
+			{
+				artifactSets.add(pathArtifacts);
+			}
+		}
+		return artifactSets;
+	}
+	
+	/**
+	 * Deletes the spilled artifacts
+	 */
+	@Override
+	public void close()
+	{
+		if (spill == null)
+		{
+			return;
+		}
+		
+		try
+		{
+			spill.close();
+		}
+		catch (IOException e)
+		{
+			log.warn("Failed to delete spilled artifacts", e);
 		}
-		return pathMap.values();
 	}
 }
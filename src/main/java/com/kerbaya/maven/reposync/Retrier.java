@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.DefaultSessionData;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.MetadataNotFoundException;
+
+/**
+ * Repeats failed operations with exponentially increasing, jittered delays.
+ * Failures caused by a missing artifact or missing meta-data are not 
+ * repeated, since another attempt would not find them either.
+ */
+final class Retrier
+{
+	/**
+	 * An operation that may be attempted more than once
+	 */
+	@FunctionalInterface
+	public interface Attempt<T>
+	{
+		/**
+		 * @param attempt
+		 * {@code 0} for the first attempt, then the number of the retry
+		 */
+		T run(int attempt) throws Exception;
+	}
+	
+	/**
+	 * The longest delay between two attempts
+	 */
+	private static final long MAX_DELAY_MILLIS = 60000;
+	
+	private final Log log;
+	private final int retries;
+	private final long delayMillis;
+	
+	/**
+	 * @param log
+	 * The log to which retries are reported
+	 * 
+	 * @param retries
+	 * The number of times a failed operation is repeated
+	 * 
+	 * @param delayMillis
+	 * The delay before the first retry, which doubles with each further retry
+	 */
+	public Retrier(Log log, int retries, long delayMillis)
+	{
+		this.log = log;
+		this.retries = Math.max(retries, 0);
+		this.delayMillis = Math.max(delayMillis, 0);
+	}
+	
+	/**
+	 * Determines whether repeating an operation could overcome its failure
+	 * 
+	 * @param failure
+	 * The failure of the operation
+	 * 
+	 * @return
+	 * {@code false} if the failure was caused by something missing, or by an
+	 * interruption
+	 */
+	public static boolean isRetryable(Throwable failure)
+	{
+		for (Throwable t = failure; t != null; t = t.getCause())
+		{
+			if (t instanceof ArtifactNotFoundException
+					|| t instanceof MetadataNotFoundException
+					|| t instanceof InterruptedException)
+			{
+				return false;
+			}
+			if (t.getCause() == t)
+			{
+				break;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Calculates the delay before a retry.  Half of the delay is fixed, and 
+	 * the other half is random, so that operations that failed together do 
+	 * not retry together.
+	 * 
+	 * @param delayMillis
+	 * The delay before the first retry
+	 * 
+	 * @param retry
+	 * The number of the retry, starting at {@code 1}
+	 * 
+	 * @param random
+	 * A random value between {@code 0} (inclusive) and {@code 1} (exclusive)
+	 * 
+	 * @return
+	 * The delay, in milliseconds
+	 */
+	static long getDelay(long delayMillis, int retry, double random)
+	{
+		long delay = MAX_DELAY_MILLIS;
+		if (retry <= 31 && delayMillis <= MAX_DELAY_MILLIS >> (retry - 1))
+		{
+			delay = delayMillis << (retry - 1);
+		}
+		return delay / 2 + (long) (delay / 2 * random);
+	}
+	
+	/**
+	 * Creates a session that forgets the failures of the previous attempts.
+	 * The resolver remembers which artifacts it checked during a session, and
+	 * would report the same failure again instead of repeating the download.
+	 * 
+	 * @param session
+	 * The session of the previous attempt
+	 * 
+	 * @return
+	 * A session that does not remember any checks
+	 */
+	public static RepositorySystemSession forRetry(RepositorySystemSession session)
+	{
+		return new DefaultRepositorySystemSession(session)
+				.setData(new DefaultSessionData());
+	}
+	
+	/**
+	 * Runs an operation, repeating it while it fails with a retryable 
+	 * failure, until the retries are exhausted
+	 * 
+	 * @param description
+	 * Describes the operation in the log
+	 * 
+	 * @param attempt
+	 * The operation
+	 * 
+	 * @return
+	 * The result of the first successful attempt
+	 * 
+	 * @throws Exception
+	 * The failure of the last attempt
+	 */
+	public <T> T call(String description, Attempt<T> attempt) throws Exception
+	{
+		for (int retry = 0;; retry++)
+		{
+			try
+			{
+				return attempt.run(retry);
+			}
+			catch (Exception e)
+			{
+				if (retry >= retries || !isRetryable(e))
+				{
+					throw e;
+				}
+				
+				long delay = getDelay(
+						delayMillis, retry + 1, ThreadLocalRandom.current().nextDouble());
+				log.warn(String.format(
+						"%s failed, retrying in %d ms (%d of %d): %s", 
+						description, 
+						delay, 
+						retry + 1, 
+						retries, 
+						e.getMessage()));
+				Thread.sleep(delay);
+			}
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns strings, such as coordinate fields, to dense {@code int} IDs, so 
+ * that keys made of several strings can be packed into a {@code long} that is
+ * cheap to hash and compare.  The same string always gets the same ID.  
+ * Strings may be interned concurrently.  Only new strings take a lock; 
+ * interned strings are looked up without one.
+ */
+final class SymbolTable
+{
+	private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+	
+	/*
+	 * Replaced when it grows.  A symbol is stored before the size that 
+	 * publishes it is written, so readers that check the size see it.
+	 */
+	private volatile String[] symbols = new String[256];
+	private volatile int size;
+	
+	/**
+	 * Packs two IDs into a single key
+	 * 
+	 * @param high
+	 * The ID in the high bits of the key
+	 * 
+	 * @param low
+	 * The ID in the low bits of the key
+	 * 
+	 * @return
+	 * The packed key
+	 */
+	public static long pack(int high, int low)
+	{
+		return ((long) high << 32) | (low & 0xffffffffL);
+	}
+	
+	/**
+	 * @return
+	 * The ID in the high bits of a key made by {@link #pack(int, int)}
+	 */
+	public static int high(long key)
+	{
+		return (int) (key >>> 32);
+	}
+	
+	/**
+	 * @return
+	 * The ID in the low bits of a key made by {@link #pack(int, int)}
+	 */
+	public static int low(long key)
+	{
+		return (int) key;
+	}
+	
+	private synchronized int add(String symbol)
+	{
+		int id = size;
+		String[] current = symbols;
+		if (id == current.length)
+		{
+			current = Arrays.copyOf(current, id * 2);
+			current[id] = symbol;
+			symbols = current;
+		}
+		else
+		{
+			current[id] = symbol;
+		}
+		size = id + 1;
+		return id;
+	}
+	
+	/**
+	 * Interns a string
+	 * 
+	 * @param symbol
+	 * The string to intern
+	 * 
+	 * @return
+	 * The ID of {@code symbol}
+	 */
+	public int intern(String symbol)
+	{
+		Integer id = ids.get(symbol);
+		return id != null ? id : ids.computeIfAbsent(symbol, this::add);
+	}
+	
+	/**
+	 * Obtains an interned string
+	 * 
+	 * @param id
+	 * The ID of the string, obtained from {@link #intern(String)}
+	 * 
+	 * @return
+	 * The interned string
+	 */
+	public String get(int id)
+	{
+		if (id < 0 || id >= size)
+		{
+			throw new IllegalArgumentException("unknown symbol: " + id);
+		}
+		return symbols[id];
+	}
+	
+	/**
+	 * @return
+	 * The number of interned strings
+	 */
+	public int size()
+	{
+		return size;
+	}
+}
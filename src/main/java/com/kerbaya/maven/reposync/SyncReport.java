@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Records the duration of the phases of an execution, the latency of each 
+ * root resolution, and the duration and throughput of each deploy request.  
+ * The records can be written as a JSON report, and summarized in the log.  
+ * The deployment to each of several target repositories is recorded in a 
+ * report of its own, nested in the report of the execution.  All methods may
+ * be called concurrently.
+ */
+final class SyncReport
+{
+	private final Map<String, Long> phaseNanos = 
+			Collections.synchronizedMap(new LinkedHashMap<>());
+	private final Map<String, Long> counts = 
+			Collections.synchronizedMap(new LinkedHashMap<>());
+	private final Queue<Map<String, Object>> roots = new ConcurrentLinkedQueue<>();
+	private final Queue<Map<String, Object>> deployRequests = 
+			new ConcurrentLinkedQueue<>();
+	private final Map<String, SyncReport> targets = 
+			Collections.synchronizedMap(new LinkedHashMap<>());
+	
+	private static long toMillis(long nanos)
+	{
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+	
+	private static long bytesPerSecond(long bytes, long nanos)
+	{
+		return nanos <= 0 ? 0 : bytes * TimeUnit.SECONDS.toNanos(1) / nanos;
+	}
+	
+	private static long getBytes(Collection<Artifact> artifacts)
+	{
+		long bytes = 0;
+		for (Artifact artifact: artifacts)
+		{
+			File file = artifact.getFile();
+			if (file != null)
+			{
+				bytes += file.length();
+			}
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Records the end of a phase.  Phases that end more than once accumulate
+	 * their durations.
+	 * 
+	 * @param name
+	 * The name of the phase
+	 * 
+	 * @param startNanos
+	 * The value of {@link System#nanoTime()} when the phase started
+	 */
+	public void phase(String name, long startNanos)
+	{
+		phaseNanos.merge(name, System.nanoTime() - startNanos, Long::sum);
+	}
+	
+	/**
+	 * Adds to a count
+	 * 
+	 * @param name
+	 * The name of the count
+	 * 
+	 * @param delta
+	 * The amount to add
+	 */
+	public void count(String name, long delta)
+	{
+		counts.merge(name, delta, Long::sum);
+	}
+	
+	/**
+	 * Records the artifacts that were resolved
+	 * 
+	 * @param artifactSets
+	 * The resolved artifacts
+	 */
+	public void resolved(Iterable<? extends Collection<Artifact>> artifactSets)
+	{
+		long artifacts = 0;
+		long bytes = 0;
+		for (Collection<Artifact> artifactSet: artifactSets)
+		{
+			artifacts += artifactSet.size();
+			bytes += getBytes(artifactSet);
+		}
+		count("resolvedArtifacts", artifacts);
+		count("resolvedBytes", bytes);
+	}
+	
+	/**
+	 * Records the resolution of a root artifact and its dependencies
+	 * 
+	 * @param root
+	 * The root artifact
+	 * 
+	 * @param nanos
+	 * The duration of the resolution
+	 */
+	public void root(ArtifactItem root, long nanos)
+	{
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("root", root.toString());
+		record.put("millis", toMillis(nanos));
+		roots.add(record);
+	}
+	
+	/**
+	 * Records a successful deploy request
+	 * 
+	 * @param artifactSet
+	 * The deployed artifacts
+	 * 
+	 * @param nanos
+	 * The duration of the deploy request
+	 */
+	public void deployRequest(Collection<Artifact> artifactSet, long nanos)
+	{
+		Artifact first = artifactSet.iterator().next();
+		long bytes = getBytes(artifactSet);
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("groupId", first.getGroupId());
+		record.put("artifactId", first.getArtifactId());
+		record.put("version", first.getVersion());
+		record.put("artifacts", artifactSet.size());
+		record.put("bytes", bytes);
+		record.put("millis", toMillis(nanos));
+		record.put("bytesPerSecond", bytesPerSecond(bytes, nanos));
+		deployRequests.add(record);
+		count("deployedArtifacts", artifactSet.size());
+		count("deployedBytes", bytes);
+		count("deployNanos", nanos);
+	}
+	
+	/**
+	 * Obtains the report of the deployment to a target repository
+	 * 
+	 * @param target
+	 * Names the target repository
+	 * 
+	 * @return
+	 * The report of the target repository, created by the first call
+	 */
+	public SyncReport forTarget(String target)
+	{
+		return targets.computeIfAbsent(target, t -> new SyncReport());
+	}
+	
+	private Map<String, Object> toMap()
+	{
+		Map<String, Object> phases = new LinkedHashMap<>();
+		synchronized (phaseNanos)
+		{
+			for (Map.Entry<String, Long> e: phaseNanos.entrySet())
+			{
+				phases.put(e.getKey(), toMillis(e.getValue()));
+			}
+		}
+		
+		Map<String, Object> countMap;
+		synchronized (counts)
+		{
+			countMap = new LinkedHashMap<>(counts);
+		}
+		countMap.remove("deployNanos");
+		
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("phaseMillis", phases);
+		report.put("counts", countMap);
+		report.put("roots", new ArrayList<>(roots));
+		report.put("deployRequests", new ArrayList<>(deployRequests));
+		synchronized (targets)
+		{
+			if (!targets.isEmpty())
+			{
+				Map<String, Object> targetMap = new LinkedHashMap<>();
+				for (Map.Entry<String, SyncReport> e: targets.entrySet())
+				{
+					targetMap.put(e.getKey(), e.getValue().toMap());
+				}
+				report.put("targets", targetMap);
+			}
+		}
+		return report;
+	}
+	
+	/**
+	 * Writes the report as JSON
+	 * 
+	 * @param file
+	 * The file to write
+	 */
+	public void write(File file) throws IOException
+	{
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+		{
+			Files.createDirectories(parent.toPath());
+		}
+		List<String> lines = Collections.singletonList(JsonLines.format(toMap()));
+		Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Logs a summary of the report
+	 * 
+	 * @param log
+	 * The log to write to
+	 */
+	public void logSummary(Log log)
+	{
+		logSummary(log, "");
+	}
+	
+	private void logSummary(Log log, String suffix)
+	{
+		synchronized (phaseNanos)
+		{
+			for (Map.Entry<String, Long> e: phaseNanos.entrySet())
+			{
+				log.info(String.format(
+						"Phase %s%s took %d ms", e.getKey(), suffix, toMillis(e.getValue())));
+			}
+		}
+		
+		if (!roots.isEmpty())
+		{
+			long slowest = 0;
+			for (Map<String, Object> record: roots)
+			{
+				slowest = Math.max(slowest, (Long) record.get("millis"));
+			}
+			log.info(String.format(
+					"Resolved %d roots (slowest %d ms): %d artifacts, %d bytes", 
+					roots.size(), 
+					slowest,
+					counts.getOrDefault("resolvedArtifacts", 0L),
+					counts.getOrDefault("resolvedBytes", 0L)));
+		}
+		
+		if (!deployRequests.isEmpty())
+		{
+			long bytes = counts.getOrDefault("deployedBytes", 0L);
+			log.info(String.format(
+					"Deployed %d artifacts%s in %d requests: %d bytes, %d bytes/s per request", 
+					counts.getOrDefault("deployedArtifacts", 0L),
+					suffix,
+					deployRequests.size(),
+					bytes,
+					bytesPerSecond(bytes, counts.getOrDefault("deployNanos", 0L))));
+		}
+		
+		synchronized (targets)
+		{
+			for (Map.Entry<String, SyncReport> e: targets.entrySet())
+			{
+				e.getValue().logSummary(log, " for " + e.getKey());
+			}
+		}
+	}
+}
@@ -0,0 +1,605 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * An index of the content of a target repository, kept in a file between 
+ * executions, so that artifacts the target repository already holds can be 
+ * ruled out without a request per artifact.
+ * <p>
+ * Each line of the file holds a path of the repository, and the SHA-1 
+ * checksum of the file at that path, or {@code -} if it is not known.  The 
+ * lines are sorted by path, and the first line holds the URL of the 
+ * repository and whether the index is complete.  Only a Bloom filter of the 
+ * paths, and the first path of every block of lines, are held in memory: the
+ * block of a path that passes the filter is read from the file.
+ * <p>
+ * The index of a repository with a {@code file} URL is built by walking the 
+ * repository, and is complete.  Otherwise, the index is built as artifacts are
+ * looked up: the {@code maven-metadata.xml} of each group-artifact 
+ * coordinate is read once, and the versions it lists are recorded as 
+ * directories whose content is not known.  The artifacts deployed by each 
+ * execution are added to the index.
+ */
+final class TargetIndex implements Closeable
+{
+	/**
+	 * Whether a repository holds an artifact
+	 */
+	public enum Presence
+	{
+		/**
+		 * The repository holds the artifact with the same checksum
+		 */
+		PRESENT,
+		
+		/**
+		 * The repository does not hold the artifact, or holds a different 
+		 * copy
+		 */
+		ABSENT,
+		
+		/**
+		 * The repository must be checked
+		 */
+		UNKNOWN
+	}
+	
+	private static final String HEADER_PREFIX = "# ";
+	private static final String COMPLETE = "complete";
+	private static final String PARTIAL = "partial";
+	private static final char SEPARATOR = ' ';
+	private static final String UNKNOWN_SHA1 = "-";
+	private static final String METADATA_FILE_NAME = "maven-metadata.xml";
+	
+	/**
+	 * The number of lines per block of the file
+	 */
+	private static final int BLOCK_LINES = 64;
+	
+	private final Log log;
+	private final File file;
+	private final String repositoryUrl;
+	private final TargetInspector inspector;
+	private final ChecksumCache checksums;
+	private final boolean complete;
+	
+	private final BloomFilter filter;
+	private final String[] blockPaths;
+	private final long[] blockOffsets;
+	private final long dataEnd;
+	private final FileChannel channel;
+	
+	/**
+	 * The entries added by this execution, by path
+	 */
+	private final ConcurrentSkipListMap<String, String> added = 
+			new ConcurrentSkipListMap<>();
+	
+	/**
+	 * The group-artifact directories whose meta-data was read by this 
+	 * execution, mapped to {@code false} if it could not be read
+	 */
+	private final ConcurrentMap<String, Boolean> crawled = new ConcurrentHashMap<>();
+	
+	/**
+	 * Opens the index of a repository, building it if the file does not 
+	 * exist, describes another repository, or {@code rebuild} is 
+	 * {@code true}
+	 * 
+	 * @param log
+	 * The log used to report the index's activity
+	 * 
+	 * @param file
+	 * The index file
+	 * 
+	 * @param repositoryUrl
+	 * The URL of the repository
+	 * 
+	 * @param basedir
+	 * The root of the repository if it has a {@code file} URL, otherwise 
+	 * {@code null}
+	 * 
+	 * @param inspector
+	 * Reads the meta-data of the repository
+	 * 
+	 * @param checksums
+	 * Calculates the checksums of local artifact files
+	 * 
+	 * @param rebuild
+	 * {@code true} to discard the existing index
+	 */
+	public TargetIndex(
+			Log log,
+			File file,
+			String repositoryUrl,
+			File basedir,
+			TargetInspector inspector,
+			ChecksumCache checksums,
+			boolean rebuild)
+			throws IOException
+	{
+		this.log = log;
+		this.file = file;
+		this.repositoryUrl = repositoryUrl;
+		this.inspector = inspector;
+		this.checksums = checksums;
+		
+		String mode = rebuild ? null : readMode(file, repositoryUrl);
+		if (mode == null)
+		{
+			File parent = file.getAbsoluteFile().getParentFile();
+			if (parent != null)
+			{
+				Files.createDirectories(parent.toPath());
+			}
+			
+			long start = System.currentTimeMillis();
+			List<String> lines = basedir == null ? 
+					new ArrayList<>() : walk(basedir.toPath());
+			mode = basedir == null ? PARTIAL : COMPLETE;
+			try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+			{
+				writeHeader(writer, mode);
+				for (String line: lines)
+				{
+					writer.write(line);
+					writer.write('\n');
+				}
+			}
+			if (basedir != null)
+			{
+				log.info(String.format(
+						"Indexed %d files of %s in %d ms", 
+						lines.size(), 
+						repositoryUrl, 
+						System.currentTimeMillis() - start));
+			}
+		}
+		complete = COMPLETE.equals(mode);
+		
+		/*
+		 * The filter is sized from the number of paths in the file, which are
+		 * counted first.  It holds no other path: the paths added by this 
+		 * execution are looked up in {@link #added}.
+		 */
+		filter = new BloomFilter(countLines(file) - 1);
+		List<String> paths = new ArrayList<>();
+		List<Long> offsets = new ArrayList<>();
+		long offset = 0;
+		int lineCount = 0;
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			String line = reader.readLine();
+			offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+			while ((line = reader.readLine()) != null)
+			{
+				String path = getPath(line);
+				filter.add(path);
+				if (lineCount++ % BLOCK_LINES == 0)
+				{
+					paths.add(path);
+					offsets.add(offset);
+				}
+				offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+			}
+		}
+		blockPaths = paths.toArray(new String[0]);
+		blockOffsets = offsets.stream().mapToLong(Long::longValue).toArray();
+		dataEnd = offset;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		log.debug(String.format("Loaded %d entries from index %s", lineCount, file));
+	}
+	
+	/**
+	 * Counts the lines of a file, without decoding them
+	 */
+	private static long countLines(File file) throws IOException
+	{
+		long count = 0;
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			while (in.read(buffer) != -1)
+			{
+				byte[] bytes = buffer.array();
+				for (int i = 0; i < buffer.position(); i++)
+				{
+					if (bytes[i] == '\n')
+					{
+						count++;
+					}
+				}
+				buffer.clear();
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Reads the header of an index file
+	 * 
+	 * @return
+	 * The mode of the index, or {@code null} if the file does not exist or 
+	 * describes another repository
+	 */
+	private static String readMode(File file, String repositoryUrl) throws IOException
+	{
+		if (!file.isFile())
+		{
+			return null;
+		}
+		
+		String header;
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+		{
+			header = reader.readLine();
+		}
+		if (header == null)
+		{
+			return null;
+		}
+		for (String mode: Arrays.asList(COMPLETE, PARTIAL))
+		{
+			if (header.equals(HEADER_PREFIX + repositoryUrl + SEPARATOR + mode))
+			{
+				return mode;
+			}
+		}
+		return null;
+	}
+	
+	private void writeHeader(Writer writer, String mode) throws IOException
+	{
+		writer.write(HEADER_PREFIX + repositoryUrl + SEPARATOR + mode);
+		writer.write('\n');
+	}
+	
+	private static String getPath(String line)
+	{
+		int idx = line.lastIndexOf(SEPARATOR);
+		return idx == -1 ? line : line.substring(0, idx);
+	}
+	
+	private static String getSha1(String line)
+	{
+		int idx = line.lastIndexOf(SEPARATOR);
+		return idx == -1 ? UNKNOWN_SHA1 : line.substring(idx + 1);
+	}
+	
+	private static boolean isIndexed(Path relative)
+	{
+		for (Path segment: relative)
+		{
+			if (segment.toString().startsWith("."))
+			{
+				return false;
+			}
+		}
+		String name = relative.getFileName().toString();
+		return !name.startsWith("maven-metadata")
+				&& !name.endsWith(".sha1")
+				&& !name.endsWith(".md5")
+				&& !name.endsWith(".sha256")
+				&& !name.endsWith(".sha512")
+				&& !name.endsWith(".asc");
+	}
+	
+	/**
+	 * Lists the files of a repository on the file system, along with the 
+	 * checksums recorded beside them
+	 * 
+	 * @return
+	 * The sorted lines of the index
+	 */
+	private static List<String> walk(Path basedir) throws IOException
+	{
+		List<String> lines = new ArrayList<>();
+		if (!Files.isDirectory(basedir))
+		{
+			return lines;
+		}
+		
+		try (Stream<Path> files = Files.walk(basedir))
+		{
+			Iterator<Path> i = files.iterator();
+			while (i.hasNext())
+			{
+				Path path = i.next();
+				Path relative = basedir.relativize(path);
+				if (relative.getNameCount() == 0 
+						|| !isIndexed(relative) 
+						|| !Files.isRegularFile(path))
+				{
+					continue;
+				}
+				
+				String sha1 = UNKNOWN_SHA1;
+				Path sha1Path = path.resolveSibling(path.getFileName() + ".sha1");
+				if (Files.isRegularFile(sha1Path))
+				{
+					String content = new String(
+							Files.readAllBytes(sha1Path), StandardCharsets.UTF_8).trim();
+					int end = 0;
+					while (end < content.length() && !Character.isWhitespace(content.charAt(end)))
+					{
+						end++;
+					}
+					if (end > 0)
+					{
+						sha1 = content.substring(0, end).toLowerCase();
+					}
+				}
+				lines.add(relative.toString().replace(File.separatorChar, '/') 
+						+ SEPARATOR + sha1);
+			}
+		}
+		lines.sort((a, b) -> getPath(a).compareTo(getPath(b)));
+		return lines;
+	}
+	
+	/**
+	 * Finds the checksum of a path in the file
+	 */
+	private String findInFile(String path) throws IOException
+	{
+		int block = Arrays.binarySearch(blockPaths, path);
+		if (block < 0)
+		{
+			block = -block - 2;
+			if (block < 0)
+			{
+				return null;
+			}
+		}
+		
+		long start = blockOffsets[block];
+		long end = block + 1 < blockOffsets.length ? blockOffsets[block + 1] : dataEnd;
+		ByteBuffer buf = ByteBuffer.allocate((int) (end - start));
+		while (buf.hasRemaining())
+		{
+			if (channel.read(buf, start + buf.position()) == -1)
+			{
+				break;
+			}
+		}
+		
+		try (BufferedReader reader = new BufferedReader(new StringReader(
+				new String(buf.array(), 0, buf.position(), StandardCharsets.UTF_8))))
+		{
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				int cmp = getPath(line).compareTo(path);
+				if (cmp == 0)
+				{
+					return getSha1(line);
+				}
+				if (cmp > 0)
+				{
+					break;
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Finds the checksum of a path
+	 * 
+	 * @return
+	 * The checksum, {@link #UNKNOWN_SHA1}, or {@code null} if the index does 
+	 * not hold the path
+	 */
+	private String find(String path) throws IOException
+	{
+		String sha1 = added.get(path);
+		if (sha1 != null || !filter.mightContain(path))
+		{
+			return sha1;
+		}
+		return findInFile(path);
+	}
+	
+	private void add(String path, String sha1)
+	{
+		added.put(path, sha1);
+	}
+	
+	/**
+	 * Reads the versions of a group-artifact coordinate from the repository's
+	 * meta-data, unless the index already holds them
+	 * 
+	 * @param gaDir
+	 * The directory of the group-artifact coordinate, ending with a slash
+	 * 
+	 * @return
+	 * {@code false} if the versions are not known
+	 */
+	private boolean crawl(String gaDir) throws IOException
+	{
+		if (find(gaDir) != null)
+		{
+			return true;
+		}
+		
+		return crawled.computeIfAbsent(gaDir, key -> {
+			String content;
+			try
+			{
+				content = inspector.getString(gaDir + METADATA_FILE_NAME);
+				if (content != null)
+				{
+					Metadata metadata = new MetadataXpp3Reader().read(
+							new StringReader(content), false);
+					if (metadata.getVersioning() != null)
+					{
+						for (String version: metadata.getVersioning().getVersions())
+						{
+							add(gaDir + version + "/", UNKNOWN_SHA1);
+						}
+					}
+				}
+			}
+			catch (Exception e)
+			{
+				log.debug("Could not read the meta-data of " + gaDir, e);
+				return false;
+			}
+			add(gaDir, UNKNOWN_SHA1);
+			return true;
+		});
+	}
+	
+	/**
+	 * Determines whether the repository holds an artifact
+	 * 
+	 * @param artifact
+	 * The artifact to look up
+	 * 
+	 * @return
+	 * Whether the repository holds the artifact.  Snapshots are always 
+	 * {@link Presence#ABSENT}, since they are given new timestamps when 
+	 * deployed.
+	 */
+	public Presence lookup(Artifact artifact) throws IOException
+	{
+		if (artifact.isSnapshot())
+		{
+			return Presence.ABSENT;
+		}
+		
+		String path = Utils.getRepositoryPath(artifact);
+		String sha1 = find(path);
+		if (sha1 != null)
+		{
+			if (UNKNOWN_SHA1.equals(sha1))
+			{
+				return Presence.UNKNOWN;
+			}
+			return sha1.equals(checksums.getSha1(artifact)) ? Presence.PRESENT : Presence.ABSENT;
+		}
+		
+		if (complete)
+		{
+			return Presence.ABSENT;
+		}
+		
+		String versionDir = path.substring(0, path.lastIndexOf('/') + 1);
+		String gaDir = versionDir.substring(0, versionDir.lastIndexOf('/', versionDir.length() - 2) + 1);
+		if (!crawl(gaDir))
+		{
+			return Presence.UNKNOWN;
+		}
+		return find(versionDir) == null ? Presence.ABSENT : Presence.UNKNOWN;
+	}
+	
+	/**
+	 * Adds artifacts that were successfully deployed
+	 * 
+	 * @param artifacts
+	 * The deployed artifacts
+	 */
+	public void record(Collection<Artifact> artifacts)
+	{
+		for (Artifact artifact: artifacts)
+		{
+			if (!artifact.isSnapshot())
+			{
+				add(Utils.getRepositoryPath(artifact), checksums.getSha1(artifact));
+			}
+		}
+	}
+	
+	/**
+	 * Merges the entries added by this execution into the file
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+		if (added.isEmpty())
+		{
+			return;
+		}
+		
+		File tmp = new File(file.getPath() + ".tmp");
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+				Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8))
+		{
+			writeHeader(writer, complete ? COMPLETE : PARTIAL);
+			reader.readLine();
+			
+			Iterator<Map.Entry<String, String>> addedEntries = added.entrySet().iterator();
+			Map.Entry<String, String> nextAdded = addedEntries.next();
+			String line = reader.readLine();
+			while (line != null || nextAdded != null)
+			{
+				int cmp = line == null ? 1 
+						: nextAdded == null ? -1 
+						: getPath(line).compareTo(nextAdded.getKey());
+				if (cmp < 0)
+				{
+					writer.write(line);
+					line = reader.readLine();
+				}
+				else
+				{
+					if (cmp == 0)
+					{
+						line = reader.readLine();
+					}
+					writer.write(nextAdded.getKey() + SEPARATOR + nextAdded.getValue());
+					nextAdded = addedEntries.hasNext() ? addedEntries.next() : null;
+				}
+				writer.write('\n');
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.Closeable;
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.Transporter;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.transfer.NoTransporterException;
+
+/**
+ * Reads the content of a repository.  Repositories with a {@code file} URL 
+ * are read directly from the file system, others are read through the 
+ * resolver's transport layer (including proxy and authentication settings).  
+ * Instances may be used concurrently.
+ */
+final class TargetInspector implements Closeable
+{
+	private static final String SHA1_EXTENSION = ".sha1";
+	
+	private static final String FILE_PROTOCOL = "file";
+	
+	/**
+	 * The root of a {@code file} repository, otherwise {@code null}
+	 */
+	private final File basedir;
+	
+	/**
+	 * The transporter of a non-{@code file} repository, otherwise {@code null}
+	 */
+	private final Transporter transporter;
+	
+	public TargetInspector(
+			TransporterProvider transporterProvider,
+			RepositorySystemSession session,
+			RemoteRepository repository)
+			throws NoTransporterException
+	{
+		basedir = getBasedir(repository);
+		transporter = basedir == null ? 
+				transporterProvider.newTransporter(session, repository) : null;
+	}
+	
+	/**
+	 * Obtains the root directory of a repository with a {@code file} URL, as 
+	 * the resolver's file transporter does
+	 * 
+	 * @param repository
+	 * The repository
+	 * 
+	 * @return
+	 * The repository's root directory, or {@code null} if the repository does
+	 * not have a {@code file} URL
+	 */
+	public static File getBasedir(RemoteRepository repository)
+	{
+		if (!FILE_PROTOCOL.equalsIgnoreCase(repository.getProtocol()))
+		{
+			return null;
+		}
+		
+		String url = repository.getUrl();
+		String path = decode(url.substring(url.indexOf(':') + 1));
+		if (path.startsWith("//"))
+		{
+			/*
+			 * Either "file://C:/path", or "file://host/path" whose host is 
+			 * dropped, which includes "file:///path"
+			 */
+			path = path.substring(2);
+			if (!isDrive(path))
+			{
+				int idx = path.indexOf('/');
+				if (idx != -1)
+				{
+					path = path.substring(idx + 1);
+					if (!isDrive(path))
+					{
+						path = "/" + path;
+					}
+				}
+			}
+		}
+		if (isDrive(path))
+		{
+			path = path.charAt(0) + ":" + path.substring(2);
+		}
+		path = path.replace('/', File.separatorChar).replace('\\', File.separatorChar);
+		return new File(path.trim()).getAbsoluteFile();
+	}
+	
+	/**
+	 * @return
+	 * {@code true} if a path starts with a Windows drive letter, followed by
+	 * {@code :} or {@code |}
+	 */
+	private static boolean isDrive(String path)
+	{
+		return path.length() >= 2 && (path.charAt(1) == ':' || path.charAt(1) == '|');
+	}
+	
+	/**
+	 * Decodes each {@code %} escape of a URL into the character of the same
+	 * code, as the resolver's file transporter does
+	 */
+	private static String decode(String url)
+	{
+		StringBuilder sb = new StringBuilder(url);
+		int pos = -1;
+		while ((pos = sb.indexOf("%", pos + 1)) != -1)
+		{
+			if (pos + 2 < sb.length())
+			{
+				char ch = (char) Integer.parseInt(sb.substring(pos + 1, pos + 3), 16);
+				sb.replace(pos, pos + 3, String.valueOf(ch));
+			}
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Reads the SHA-1 checksum that the repository holds for a file
+	 * 
+	 * @param path
+	 * The path of the file, relative to the repository root
+	 * 
+	 * @return
+	 * The lower-case checksum, or {@code null} if the repository has no 
+	 * checksum for the file
+	 */
+	public String getSha1(String path) throws Exception
+	{
+		String content = getString(path + SHA1_EXTENSION);
+		if (content == null)
+		{
+			if (basedir == null)
+			{
+				return null;
+			}
+			
+			/*
+			 * Local files without a checksum file are checked directly
+			 */
+			File file = new File(basedir, path);
+			return file.isFile() ? Utils.sha1(file) : null;
+		}
+		
+		/*
+		 * Some tools append the file name after the checksum
+		 */
+		content = content.trim();
+		int idx = 0;
+		while (idx < content.length() && !Character.isWhitespace(content.charAt(idx)))
+		{
+			idx++;
+		}
+		return content.substring(0, idx).toLowerCase();
+	}
+	
+	/**
+	 * Reads a file of the repository as a string
+	 * 
+	 * @param path
+	 * The path of the file, relative to the repository root
+	 * 
+	 * @return
+	 * The content of the file, or {@code null} if the file does not exist
+	 */
+	public String getString(String path) throws Exception
+	{
+		if (basedir != null)
+		{
+			try
+			{
+				return new String(
+						Files.readAllBytes(new File(basedir, path).toPath()), 
+						StandardCharsets.UTF_8);
+			}
+			catch (NoSuchFileException e)
+			{
+				return null;
+			}
+		}
+		
+		GetTask task = new GetTask(URI.create(path));
+		try
+		{
+			transporter.get(task);
+		}
+		catch (Exception e)
+		{
+			if (transporter.classify(e) == Transporter.ERROR_NOT_FOUND)
+			{
+				return null;
+			}
+			throw e;
+		}
+		return task.getDataString();
+	}
+	
+	/**
+	 * Lists a directory of a repository with a {@code file} URL
+	 * 
+	 * @param path
+	 * The path of the directory, relative to the repository root
+	 * 
+	 * @return
+	 * The sorted names of the directory's entries, the names of directories 
+	 * ending with a slash, or {@code null} if the repository cannot be listed
+	 */
+	public List<String> list(String path)
+	{
+		if (basedir == null)
+		{
+			return null;
+		}
+		
+		File dir = new File(basedir, path);
+		File[] files = dir.listFiles();
+		if (files == null)
+		{
+			return Collections.emptyList();
+		}
+		
+		List<String> names = new ArrayList<>(files.length);
+		for (File file: files)
+		{
+			names.add(file.isDirectory() ? file.getName() + "/" : file.getName());
+		}
+		Collections.sort(names);
+		return names;
+	}
+	
+	@Override
+	public void close()
+	{
+		if (transporter != null)
+		{
+			transporter.close();
+		}
+	}
+}
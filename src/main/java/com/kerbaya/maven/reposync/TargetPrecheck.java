@@ -0,0 +1,277 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.maven.plugin.logging.Log;
+import org.eclipse.aether.artifact.Artifact;
+
+/**
+ * Removes the artifacts that the target repository already holds with the 
+ * same checksum from a deployment.  The artifact sets are checked as they are
+ * deployed, a bounded number of artifacts ahead of the deployment.
+ */
+final class TargetPrecheck implements Closeable
+{
+	/**
+	 * The number of artifacts checked ahead of the deployment, per thread
+	 */
+	private static final int ARTIFACTS_AHEAD_PER_THREAD = 16;
+	
+	private final Log log;
+	private final TargetInspector inspector;
+	private final ChecksumCache checksums;
+	private final int threads;
+	private final ExecutorService executor;
+	private final AtomicInteger presentCount = new AtomicInteger();
+	private TargetIndex index;
+	private Consumer<? super Collection<Artifact>> presentListener;
+	
+	public TargetPrecheck(
+			Log log, 
+			TargetInspector inspector, 
+			ChecksumCache checksums, 
+			int threads)
+	{
+		this.log = log;
+		this.inspector = inspector;
+		this.checksums = checksums;
+		this.threads = Math.max(threads, 1);
+		executor = Utils.newExecutor("reposync-precheck", this.threads);
+	}
+	
+	/**
+	 * Sets the index consulted before the target repository is contacted.  
+	 * Only the artifacts whose presence the index cannot decide are checked 
+	 * against the target repository.
+	 * 
+	 * @param index
+	 * The index of the target repository, or {@code null}
+	 * 
+	 * @return
+	 * This precheck
+	 */
+	public TargetPrecheck setIndex(TargetIndex index)
+	{
+		this.index = index;
+		return this;
+	}
+	
+	/**
+	 * Sets the listener notified of each set whose artifacts the target 
+	 * repository all holds, and which is therefore omitted from the deployment
+	 * 
+	 * @param presentListener
+	 * Receives the omitted sets, or {@code null}
+	 * 
+	 * @return
+	 * This precheck
+	 */
+	public TargetPrecheck setPresentListener(
+			Consumer<? super Collection<Artifact>> presentListener)
+	{
+		this.presentListener = presentListener;
+		return this;
+	}
+	
+	private boolean isPresent(Artifact artifact)
+	{
+		if (artifact.isSnapshot())
+		{
+			/*
+			 * Snapshots are given new timestamps when deployed
+			 */
+			return false;
+		}
+		
+		String path = Utils.getRepositoryPath(artifact);
+		String targetSha1;
+		try
+		{
+			if (index != null)
+			{
+				TargetIndex.Presence presence = index.lookup(artifact);
+				if (presence != TargetIndex.Presence.UNKNOWN)
+				{
+					return presence == TargetIndex.Presence.PRESENT;
+				}
+			}
+			targetSha1 = inspector.getSha1(path);
+		}
+		catch (Exception e)
+		{
+			log.debug("Could not check " + path, e);
+			return false;
+		}
+		return targetSha1 != null && targetSha1.equals(checksums.getSha1(artifact));
+	}
+	
+	/**
+	 * Checks, in parallel, which artifacts the target repository already 
+	 * holds.  The sets are read and checked as the returned sets are iterated.
+	 * 
+	 * @param artifactSets
+	 * The sets of artifacts that would be deployed
+	 * 
+	 * @return
+	 * The sets of artifacts that are missing from the target repository, or
+	 * that differ from the target repository's copy, in the order of 
+	 * {@code artifactSets}.  Sets left empty are omitted.
+	 */
+	public Iterable<Collection<Artifact>> removePresent(
+			Iterable<? extends Collection<Artifact>> artifactSets)
+	{
+		return () -> new Iterator<Collection<Artifact>>() {
+			private final Iterator<? extends Collection<Artifact>> source = 
+					artifactSets.iterator();
+			
+			/*
+			 * Each check yields its artifact if it is to be deployed
+			 */
+			private final Deque<List<Future<Artifact>>> window = new ArrayDeque<>();
+			private final Deque<Collection<Artifact>> windowSets = new ArrayDeque<>();
+			private int windowArtifacts;
+			private Collection<Artifact> next;
+			
+			private void fill()
+			{
+				while ((window.isEmpty() || windowArtifacts < threads * ARTIFACTS_AHEAD_PER_THREAD)
+						&& source.hasNext())
+				{
+					Collection<Artifact> artifactSet = source.next();
+					List<Future<Artifact>> checks = new ArrayList<>(artifactSet.size());
+					for (Artifact artifact: artifactSet)
+					{
+						checks.add(executor.submit(() -> isPresent(artifact) ? null : artifact));
+					}
+					window.add(checks);
+					windowSets.add(artifactSet);
+					windowArtifacts += checks.size();
+				}
+			}
+			
+			@Override
+			public boolean hasNext()
+			{
+				while (next == null)
+				{
+					fill();
+					if (window.isEmpty())
+					{
+						return false;
+					}
+					List<Future<Artifact>> checks = window.remove();
+					Collection<Artifact> artifactSet = windowSets.remove();
+					windowArtifacts -= checks.size();
+					Collection<Artifact> missingSet = new ArrayList<>(checks.size());
+					for (Future<Artifact> check: checks)
+					{
+						Artifact artifact = get(check);
+						if (artifact == null)
+						{
+							presentCount.incrementAndGet();
+						}
+						else
+						{
+							missingSet.add(artifact);
+						}
+					}
+					if (!missingSet.isEmpty())
+					{
+						next = missingSet;
+					}
+					else if (presentListener != null && !artifactSet.isEmpty())
+					{
+						presentListener.accept(artifactSet);
+					}
+				}
+				return true;
+			}
+			
+			@Override
+			public Collection<Artifact> next()
+			{
+				if (!hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+				Collection<Artifact> missingSet = next;
+				next = null;
+				return missingSet;
+			}
+		};
+	}
+	
+	private static Artifact get(Future<Artifact> check)
+	{
+		try
+		{
+			return check.get();
+		}
+		catch (ExecutionException e)
+		{
+			/*
+			 * Checks that fail are treated as missing, so only errors get here
+			 */
+			if (e.getCause() instanceof Error)
+			{
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException("Failed to check target repository", e.getCause());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while checking target repository", e);
+		}
+	}
+	
+	/**
+	 * Obtains the number of artifacts found in the target repository so far
+	 * 
+	 * @return
+	 * The number of artifacts removed from the deployment
+	 */
+	public int getPresentCount()
+	{
+		return presentCount.get();
+	}
+	
+	/**
+	 * Stops the checks still running
+	 */
+	@Override
+	public void close()
+	{
+		Utils.shutdown(executor);
+	}
+}
@@ -18,44 +18,18 @@
  */
 package com.kerbaya.maven.reposync;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 
-import javax.inject.Inject;
-
-import org.apache.maven.model.DependencyManagement;
-import org.apache.maven.plugin.Mojo;
 import org.apache.maven.plugin.MojoExecutionException;
-import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.MavenProject;
-import org.eclipse.aether.RepositorySystem;
-import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
-import org.eclipse.aether.collection.CollectRequest;
-import org.eclipse.aether.deployment.DeployRequest;
-import org.eclipse.aether.deployment.DeploymentException;
-import org.eclipse.aether.graph.Dependency;
-import org.eclipse.aether.repository.RemoteRepository;
-import org.eclipse.aether.resolution.ArtifactRequest;
-import org.eclipse.aether.resolution.ArtifactResolutionException;
-import org.eclipse.aether.resolution.ArtifactResult;
-import org.eclipse.aether.resolution.DependencyRequest;
-import org.eclipse.aether.resolution.DependencyResolutionException;
-import org.eclipse.aether.resolution.DependencyResult;
-import org.eclipse.aether.transfer.ArtifactNotFoundException;
-
-import lombok.Getter;
-import lombok.Setter;
 
 /**
  * Prepares a repository to support builds using provided dependencies
@@ -64,429 +38,158 @@ import lombok.Setter;
 		name="update", 
 		requiresProject=false, 
 		threadSafe=true)
-public class UpdateMojo implements Mojo
+public class UpdateMojo extends AbstractResolveMojo
 {
-	@Getter
-	@Setter
-	private Log log;
-
-    @Parameter(defaultValue="${project}", readonly=true, required=true)
-    private MavenProject project;
-    
-	@Parameter(defaultValue="${repositorySystemSession}", required=true, readonly=true)
-	private RepositorySystemSession rss;
-	
-    /**
-     * The ID of the repository that should be updated with dependencies.  If
-     * used in combination with the {@link #repositoryUrl} parameter, the updated 
-     * repository is the provided URL used in combination with proxy/login 
-     * settings associated to the provided repository ID.
-     */
-    @Parameter(property="repositoryId", defaultValue="remote-repository", required=true)
-    private String repositoryId;
-    
-    /**
-     * The URL of the repository that should be updated with dependencies.  Used 
-     * in combination with the {@link #repositoryId} parameter, the 
-     * updated repository is the provided URL used in combination with 
-     * proxy/login settings associated to the provided repository ID.
-     */
-    @Parameter(property="repositoryUrl", required=true)
-    private String repositoryUrl;
-    
-    /**
-     * The artifacts to update when executing the plugin within a POM 
-     * configuration 
-     */
-    @Parameter
-    private List<ArtifactItem> artifactItems;
-    
     /**
-     * The artifact to update when executing the plugin from the command-line, 
-     * in the format <code>&lt;groupId&gt;:&lt;artifactId&gt;[:&lt;extension&gt;[:&lt;classifier&gt;]]:[version]</code>.
-     * If {@code version} is omitted, dependency management will be used to determine the version.
-     * Multiple artifacts may be specified, separated by a comma, or one or more 
-     * whitespace characters.  Use {@link #artifactItems} when executing the 
-     * plugin within a POM configuration.
+     * If <code>true</code>, the release artifacts resolved for each requested 
+     * artifact are deployed as soon as that artifact and its extras are 
+     * resolved, while the other requested artifacts are still being resolved.
+     * Each artifact is deployed once: an artifact resolved again for a later
+     * requested artifact is not deployed again, and an artifact added to a 
+     * version that was already deployed is deployed with the artifacts of the
+     * requested artifact it was resolved for.  Only snapshot artifacts are 
+     * held back until resolution completes.
      */
-    @Parameter(property="artifact")
-    private String artifact;
+    @Parameter(property="pipeline", defaultValue="false")
+    private boolean pipeline;
     
     /**
-     * Extra artifacts to include when executing the plugin within a POM
-     * configuration
+     * If set, the resolved release artifacts are written to this archive in 
+     * repository layout, along with their checksums and meta-data, instead of
+     * being deployed.  The format is chosen by the extension: 
+     * <code>.zip</code>, <code>.tar</code>, <code>.tar.gz</code> or 
+     * <code>.tgz</code>.  Snapshots are not bundled.  The bundle is deployed 
+     * with the <code>import</code> goal.
      */
-    @Parameter
-    private List<ExtraItem> extraItems;
-    
-    /**
-     * Extra artifacts to include when executing the plugin from the command-
-     * line, in the format
-     * <code>&lt;extension&gt;[:&lt;classifier&gt;]</code>.  Multiple extras may
-     * be specified, separated by a comma, or one or more whitespace characters.  For 
-     * example, "jar:sources jar:javadoc"
-     */
-    @Parameter(property="extra")
-    private String extra;
-    
-    /**
-     * If <code>true</code>, artifacts are updated even when they are determined 
-     * to have originated from the target repository.
-     */
-    @Parameter(defaultValue="false", property="force")
-    private boolean force;
-    
-    /**
-     * If <code>true</code>, the plugin execution will fail when no artifacts
-     * have been specified.
-     */
-    @Parameter(defaultValue="true", property="failOnNoArtifact")
-    private boolean failOnNoArtifact;
-    
-    /**
-     * If <code>true</code>, snapshot artifacts using timestamps are deployed to the target repository as releases 
-     */
-    @Parameter(property="snapshotAsRelease", defaultValue="false")
-    private boolean snapshotAsRelease;
-    
-    /**
-     * a regular expression against which an artifact must be matched before being deployed to the target repository.
-     * artifacts are matched using {@code <groupId>:<artifactId>:<extension>[:<classifier>]:<version>}
-     */
-    @Parameter(property="filter")
-    private String filter;
-    
-    /**
-     * a filter against which an artifact must be matched before deploying to the repository.  Values are
-     * <ul>
-     * <li>{@code SNAPSHOT}: only include artifacts with snapshot versions</li>
-     * <li>{@code RELEASE}: only include artifacts with release versions</li>
-     * </ul>
-     */
-    @Parameter(property="filterType")
-    private Filter filterType;
-    
-    @Inject
-    private RepositorySystem repositorySystem;
-    
-    private RemoteRepository buildDistRepo()
-    {
-        RemoteRepository remoteRepo = new RemoteRepository.Builder(repositoryId, "default", repositoryUrl).build();
-        
-        boolean hasAuthentication = remoteRepo.getAuthentication() != null;
-        boolean hasProxy = remoteRepo.getProxy() != null;
-        
-        if (hasAuthentication && hasProxy)
-        {
-        	return remoteRepo;
-        }
-        
-        RemoteRepository.Builder builder = new RemoteRepository.Builder(remoteRepo);
-        if (!hasAuthentication)
-        {
-        	builder.setAuthentication(rss.getAuthenticationSelector().getAuthentication(remoteRepo));
-        }
-        
-        if (!hasProxy)
-        {
-        	builder.setProxy(rss.getProxySelector().getProxy(remoteRepo));
-        }
-        
-        return builder.build();
-    }
-    
-    private static void removeNoVersionArtifacts(
-    		Iterable<ArtifactItem> items, Consumer<? super ArtifactItem> addTo)
-    {
-    	Iterator<ArtifactItem> iter = items.iterator();
-    	while (iter.hasNext())
-    	{
-    		ArtifactItem next = iter.next();
-    		if ("".equals(next.getVersion()))
-    		{
-    			addTo.accept(next);
-    			iter.remove();
-    		}
-    	}
-    }
-    
-    private Map<ManagedDependencyKey, String> getManagedDependencies()
-    {
-    	DependencyManagement dm = project.getDependencyManagement();
-    	return dm == null ?
-    			Collections.emptyMap()
-    			: dm.getDependencies().stream()
-    					.collect(Collectors.toMap(
-    							ManagedDependencyKey::new, 
-    							org.apache.maven.model.Dependency::getVersion));
-    }
+    @Parameter(property="bundle")
+    private File bundle;
     
 	@Override
 	public void execute() throws MojoExecutionException
 	{
-		if (repositoryId == null && repositoryUrl == null)
-		{
-			throw new MojoExecutionException(
-					"One of repositoryId or repositoryUrl is required");
-		}
-		
-		
-		Set<ArtifactItem> finalArtifactItems = new HashSet<>();
-		if (artifactItems != null)
-		{
-			finalArtifactItems.addAll(artifactItems);
-		}
-		
-		if (artifact != null)
+		try (ArtifactItemReader finalArtifactItems = openArtifactItems();
+				ResolutionCollector collector = newCollector())
 		{
-			for (String token: Utils.getTokens(artifact))
+			if (!hasRoots(finalArtifactItems))
 			{
-				finalArtifactItems.add(new ArtifactItem(token));
+				return;
 			}
-		}
-		
-		if (finalArtifactItems.isEmpty())
-		{
-			if (failOnNoArtifact)
+			
+			if (bundle != null)
 			{
-				throw new MojoExecutionException("no artifact specified");
+				collect(finalArtifactItems, collector);
+				writeBundle(getDeploySets(collector));
+				return;
 			}
-			return;
-		}
-		
-		List<ArtifactItem> noVersionArtifacts = new ArrayList<>();
-		removeNoVersionArtifacts(finalArtifactItems, noVersionArtifacts::add);
-		
-		if (!noVersionArtifacts.isEmpty())
-		{
-			Map<ManagedDependencyKey, String> dm = getManagedDependencies();
-			for (ArtifactItem noVersionArtifact: noVersionArtifacts)
+			
+			if (pipeline)
 			{
-				String version = dm.get(new ManagedDependencyKey(
-						noVersionArtifact.getGroupId(),
-						noVersionArtifact.getArtifactId(),
-						noVersionArtifact.getExtension(),
-						noVersionArtifact.getClassifier()));
-				if (version == null)
-				{
-					throw new MojoExecutionException("could not find managed dependency for " + noVersionArtifact);
-				}
-				
-				finalArtifactItems.add(new ArtifactItem(
-						noVersionArtifact.getGroupId(),
-						noVersionArtifact.getArtifactId(),
-						noVersionArtifact.getExtension(),
-						noVersionArtifact.getClassifier(),
-						version));
+				deployPipelined(finalArtifactItems, collector);
+				return;
 			}
+			
+			deploy(() -> {
+				collect(finalArtifactItems, collector);
+				return getDeploySets(collector);
+			});
 		}
-		
-		Set<ExtraItem> finalExtraItems = new HashSet<>();
-		if (extraItems != null)
+		catch (IOException e)
 		{
-			finalExtraItems.addAll(extraItems);
+			throw new MojoExecutionException("Failed to close requested artifacts", e);
 		}
-		if (extra != null)
+	}
+	
+	/**
+	 * Writes artifact sets to the {@link #bundle}, then writes the report
+	 */
+	private void writeBundle(Iterable<? extends Collection<Artifact>> artifactSets) 
+			throws MojoExecutionException
+	{
+		long phaseStart = System.nanoTime();
+		int snapshotSets = 0;
+		try (BundleWriter writer = new BundleWriter(bundle, Checksums.getAlgorithms(rss)))
 		{
-			for (String token: Utils.getTokens(extra))
+			for (Collection<Artifact> artifactSet: artifactSets)
 			{
-				finalExtraItems.add(new ExtraItem(token));
+				if (!writer.write(artifactSet))
+				{
+					snapshotSets++;
+				}
 			}
+			checkFailures();
 		}
-		
-		List<RemoteRepository> remoteRepos = project.getRemoteProjectRepositories();
-		
-		ResolutionCollector collector = new ResolutionCollector(log, force ? null : repositoryUrl);
-		
-		/*
-		 * We'll be using a collecting session during dependency resolution.  We
-		 * need to not only include the final dependencies, but also the POM's 
-		 * for all competing dependency candidates.  The target repository needs
-		 * the POM's for these unused dependencies so that dependency analysis
-		 * can arrive at the same conclusions afterward.
-		 */
-		RepositorySystemSession collectingSession = collector.createSession(rss);
-		
-		final Set<ArtifactItem> artifactSetForExtras = 
-				finalExtraItems.isEmpty() ? null : new HashSet<ArtifactItem>();
-		
-		/*
-		 * We don't want to submit all dependencies at once: we're not making a 
-		 * repository that supports a build that uses all these dependencies 
-		 * simultaneously; we're making a repository that supports builds that 
-		 * use any of these dependencies independently.
-		 */
-		for (ArtifactItem artifactItem: finalArtifactItems)
+		catch (IOException | UncheckedIOException e)
 		{
-			DependencyRequest dr = new DependencyRequest(
-					new CollectRequest(
-							Collections.singletonList(new Dependency(artifactItem.toArtifact(), null)),
-							null, 
-							remoteRepos),
-					null);
-			final DependencyResult dependencyResult;
-			try
-			{
-				dependencyResult = repositorySystem.resolveDependencies(collectingSession, dr);
-			}
-			catch (DependencyResolutionException e)
-			{
-				throw new MojoExecutionException(
-						"Failed to resolve dependencies for " + artifactItem, 
-						e);
-			}
-			
-			if (artifactSetForExtras == null)
-			{
-				/*
-				 * No extras were requested, so we can continue to the next
-				 * artifact
-				 */
-				continue;
-			}
-			
-			/*
-			 * Extras were requested.  We're not looking at the collector, 
-			 * because we only want extras for the "winning" dependencies.
-			 */
-			for (ArtifactResult ar: dependencyResult.getArtifactResults())
+			throw new MojoExecutionException("Failed to write bundle " + bundle, e);
+		}
+		finally
+		{
+			syncReport.phase("bundle", phaseStart);
+			if (snapshotSets > 0)
 			{
-				artifactSetForExtras.add(new ArtifactItem(ar.getArtifact()));
+				log.warn(String.format(
+						"Skipped %d snapshot artifact sets, which cannot be bundled", 
+						snapshotSets));
+				syncReport.count("bundleSkippedSnapshotSets", snapshotSets);
 			}
+			writeReport();
 		}
-		
-		
-		/*
-		 * Now resolve extras, if any
-		 */
-		if (artifactSetForExtras != null)
+	}
+	
+	/**
+	 * Resolves the requested artifacts on another thread, and deploys the 
+	 * artifacts of each requested artifact as they are handed over
+	 */
+	private void deployPipelined(
+			Iterator<ArtifactItem> finalArtifactItems, 
+			ResolutionCollector collector) 
+			throws MojoExecutionException
+	{
+		Map<String, Predicate<Artifact>> filters = getDeployFilters();
+		ArtifactSetQueue queue = new ArtifactSetQueue();
+		ExecutorService producer = Utils.newExecutor("reposync-pipeline", 1);
+		try
 		{
-			/*
-			 * Extras were requested.  We'll weed-out the ones that were already
-			 * resolved
-			 */
-			Set<ArtifactPath> processedPaths = new HashSet<>();
-			Collection<ArtifactRequest> extraRequests = new ArrayList<>();
-			for (ArtifactItem artifactForExtras: artifactSetForExtras)
-			{
-				if ("pom".equals(artifactForExtras.getExtension())
-						&& "".equals(artifactForExtras.getClassifier()))
-				{
-					/*
-					 * We don't get extras for POM's, since they are often
-					 * resolved through the course of disqualifying artifacts as 
-					 * dependencies
-					 */
-					continue;
-				}
-				
-				ArtifactPath artifactPath = new ArtifactPath(artifactForExtras);
-				if (!processedPaths.add(artifactPath))
+			producer.execute(() -> {
+				try
 				{
+					collect(
+							finalArtifactItems, 
+							collector, 
+							artifactSet -> queue.add(filterArtifactSet(
+									artifactSet, filters, (a, f) -> {})));
+					
 					/*
-					 * We've already added the requests for this artifact path's
-					 * extras
+					 * Whatever was not handed over is deployed last
 					 */
-					continue;
-				}
-				
-				for (ExtraItem extra: finalExtraItems)
-				{
-					ArtifactItem extraToResolve = new ArtifactItem(
-							artifactPath, extra);
-					if (artifactSetForExtras.contains(extraToResolve))
+					for (Collection<Artifact> artifactSet: getDeploySets(collector))
 					{
-						/*
-						 * This extra was already resolved during dependency
-						 * resolution
-						 */
-						continue;
+						queue.add(artifactSet);
 					}
-					extraRequests.add(new ArtifactRequest(
-							extraToResolve.toArtifact(),
-			    			remoteRepos,
-			    			null));
+					queue.finish();
 				}
-			}
-			
-			if (!extraRequests.isEmpty())
-			{
-				try
+				catch (Throwable e)
 				{
-					/*
-					 * Like the dependencies above, the collector will hear 
-					 * about all artifact resolutions: so we don't need to look 
-					 * at the resolution results
-					 */
-					repositorySystem.resolveArtifacts(
-							collectingSession, extraRequests);
+					queue.fail(e);
 				}
-				catch (ArtifactResolutionException e)
-				{
-					for (ArtifactResult r: e.getResults())
-					{
-						if (r.isResolved())
-						{
-							continue;
-						}
-						for (Exception e2: r.getExceptions())
-						{
-							if (!(e2 instanceof ArtifactNotFoundException))
-							{
-								throw new MojoExecutionException(
-										String.format(
-												"Could not resolve extra: %s", 
-												r.getRequest().getArtifact()),
-										e2);
-							}
-						}
-					}
-				}
-			}
+			});
+			
+			deploy(() -> queue);
 		}
-		
-		
-		/*
-		 * All artifacts have been collected.  Now we push them to the remote
-		 * repository.
-		 */
-		RemoteRepository distRepo = buildDistRepo();
-        
-		/*
-		 * The collector returns the artifacts grouped by group-artifact-version
-		 * coordinate.  We want to update all artifacts from the same path 
-		 * in the same deploy request (current Maven version seems to trample 
-		 * the old version meta-data).
-		 */
-		for (Collection<Artifact> artifactSet: collector.getArtifactSets())
+		catch (ArtifactSetQueue.ProducerException e)
 		{
-			Stream<Artifact> toDeploy = artifactSet.stream();
-			if (filter != null)
-			{
-				toDeploy = toDeploy.filter(new RegExFilter(filter));
-			}
-			
-			if (filterType != null)
-			{
-				toDeploy = toDeploy.filter(filterType);
-			}
-			
-			if (snapshotAsRelease)
-			{
-				toDeploy = toDeploy.map(ReleaseArtifact::timestampSnapshotAsRelease);
-			}
-			
-			DeployRequest dr = new DeployRequest();
-			dr.setArtifacts(toDeploy.collect(Collectors.toList()));
-			dr.setRepository(distRepo);
-			try
+			if (e.getCause() instanceof MojoExecutionException)
 			{
-				repositorySystem.deploy(rss, dr);
-			}
-			catch (DeploymentException e)
-			{
-				throw new MojoExecutionException("Deployment failed", e);
+				throw (MojoExecutionException) e.getCause();
 			}
+			throw new MojoExecutionException("Failed to resolve artifacts", e.getCause());
+		}
+		finally
+		{
+			/*
+			 * Interrupts the resolution if the deployment failed
+			 */
+			Utils.shutdown(producer);
 		}
 	}
 }
@@ -18,14 +18,28 @@
  */
 package com.kerbaya.maven.reposync;
 
-import java.util.Arrays;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.aether.artifact.Artifact;
 
 final class Utils
 {
-	private static final Pattern TOKEN_SEPARATOR = Pattern.compile("\\s+|,");
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
 	private Utils() {}
 	
@@ -62,13 +76,16 @@ final class Utils
 	}
 	
 	/**
-	 * Separates a string that is delimited by white-spaces
+	 * Separates a string that is delimited by white-spaces or commas.  Commas 
+	 * within a version range, such as {@code [2.0,3.0)}, do not separate 
+	 * tokens
 	 * 
 	 * @param str
 	 * The string to separate
 	 * 
 	 * @return
-	 * A list of tokens in {@code str} that were separated by white-spaces
+	 * A list of tokens in {@code str} that were separated by white-spaces or
+	 * commas
 	 */
 	public static List<String> getTokens(CharSequence str)
 	{
@@ -76,11 +93,250 @@ final class Utils
 		{
 			return Collections.emptyList();
 		}
-		List<String> tokens = Arrays.asList(TOKEN_SEPARATOR.split(str));
-		if (!tokens.isEmpty() && tokens.get(0).isEmpty())
+		List<String> tokens = new ArrayList<>();
+		StringBuilder token = new StringBuilder();
+		int depth = 0;
+		for (int i = 0; i < str.length(); i++)
+		{
+			char c = str.charAt(i);
+			if (Character.isWhitespace(c) || (c == ',' && depth == 0))
+			{
+				if (token.length() != 0)
+				{
+					tokens.add(token.toString());
+					token.setLength(0);
+				}
+				continue;
+			}
+			
+			if (c == '[' || c == '(')
+			{
+				depth++;
+			}
+			else if ((c == ']' || c == ')') && depth > 0)
+			{
+				depth--;
+			}
+			token.append(c);
+		}
+		if (token.length() != 0)
 		{
-			tokens = tokens.subList(1, tokens.size());
+			tokens.add(token.toString());
 		}
 		return Collections.unmodifiableList(tokens);
 	}
+	
+	/**
+	 * Creates a fixed-size thread pool of daemon threads
+	 * 
+	 * @param name
+	 * The prefix of the names of the pool's threads
+	 * 
+	 * @param threads
+	 * The number of threads in the pool
+	 * 
+	 * @return
+	 * A new thread pool
+	 */
+	public static ExecutorService newExecutor(String name, int threads)
+	{
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = r -> {
+			Thread thread = new Thread(r, name + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return Executors.newFixedThreadPool(Math.max(threads, 1), threadFactory);
+	}
+	
+	/**
+	 * Interrupts the running tasks of an executor, discards its pending tasks,
+	 * and waits for the running tasks to end
+	 * 
+	 * @param executor
+	 * The executor to shut down
+	 */
+	public static void shutdown(ExecutorService executor)
+	{
+		executor.shutdownNow();
+		awaitTermination(executor);
+	}
+	
+	/**
+	 * Lets the submitted tasks of an executor complete, and waits for them to
+	 * end
+	 * 
+	 * @param executor
+	 * The executor to shut down
+	 */
+	public static void awaitTermination(ExecutorService executor)
+	{
+		executor.shutdown();
+		try
+		{
+			while (!executor.awaitTermination(1, TimeUnit.MINUTES))
+			{
+				// keep waiting: running tasks must not outlive the execution
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Obtains the location of an artifact in a repository using the default 
+	 * layout
+	 * 
+	 * @param artifact
+	 * The artifact to locate
+	 * 
+	 * @return
+	 * The path of the artifact, relative to the repository root
+	 */
+	public static String getRepositoryPath(Artifact artifact)
+	{
+		StringBuilder sb = new StringBuilder()
+				.append(artifact.getGroupId().replace('.', '/'))
+				.append('/')
+				.append(artifact.getArtifactId())
+				.append('/')
+				.append(artifact.getBaseVersion())
+				.append('/')
+				.append(artifact.getArtifactId())
+				.append('-')
+				.append(artifact.getVersion());
+		
+		String classifier = artifact.getClassifier();
+		if (!classifier.isEmpty())
+		{
+			sb.append('-').append(classifier);
+		}
+		
+		String extension = artifact.getExtension();
+		if (!extension.isEmpty())
+		{
+			sb.append('.').append(extension);
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Calculates the SHA-1 checksum of a file
+	 * 
+	 * @param file
+	 * The file to read
+	 * 
+	 * @return
+	 * The lower-case hexadecimal SHA-1 checksum of the file's content
+	 */
+	public static String sha1(File file) throws IOException
+	{
+		MessageDigest md;
+		try
+		{
+			md = MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		byte[] buf = new byte[65536];
+		try (InputStream is = Files.newInputStream(file.toPath()))
+		{
+			int read;
+			while ((read = is.read(buf)) != -1)
+			{
+				md.update(buf, 0, read);
+			}
+		}
+		return toHex(md.digest());
+	}
+	
+	/**
+	 * Converts bytes to a lower-case hexadecimal string
+	 * 
+	 * @param bytes
+	 * The bytes to convert
+	 * 
+	 * @return
+	 * Two hexadecimal digits for each byte
+	 */
+	public static String toHex(byte[] bytes)
+	{
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++)
+		{
+			chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+			chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+		}
+		return new String(chars);
+	}
+	
+	/**
+	 * Joins two iterators
+	 * 
+	 * @param first
+	 * The iterator whose elements come first
+	 * 
+	 * @param second
+	 * The iterator whose elements come after those of {@code first}
+	 * 
+	 * @return
+	 * An iterator over the elements of {@code first}, then those of 
+	 * {@code second}
+	 */
+	public static <T> Iterator<T> concat(
+			Iterator<? extends T> first, Iterator<? extends T> second)
+	{
+		return new Iterator<T>() {
+			@Override
+			public boolean hasNext()
+			{
+				return first.hasNext() || second.hasNext();
+			}
+			
+			@Override
+			public T next()
+			{
+				return first.hasNext() ? first.next() : second.next();
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the elements of an iterable as they are iterated
+	 * 
+	 * @param iterable
+	 * The elements to transform
+	 * 
+	 * @param function
+	 * The transformation
+	 * 
+	 * @return
+	 * An iterable of the transformed elements
+	 */
+	public static <T, R> Iterable<R> transform(
+			Iterable<? extends T> iterable, Function<? super T, ? extends R> function)
+	{
+		return () -> {
+			Iterator<? extends T> iterator = iterable.iterator();
+			return new Iterator<R>() {
+				@Override
+				public boolean hasNext()
+				{
+					return iterator.hasNext();
+				}
+				
+				@Override
+				public R next()
+				{
+					return function.apply(iterator.next());
+				}
+			};
+		};
+	}
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.VersionRangeRequest;
+import org.eclipse.aether.resolution.VersionRangeResolutionException;
+import org.eclipse.aether.resolution.VersionRangeResult;
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.eclipse.aether.version.Version;
+import org.eclipse.aether.version.VersionConstraint;
+import org.eclipse.aether.version.VersionScheme;
+
+/**
+ * Expands artifact items whose version is a range, such as 
+ * {@code [2.0,3.0)}, into one artifact item per available version.  The 
+ * available versions of each group-artifact coordinate are fetched once, and 
+ * reused for every range of the same coordinate.
+ */
+final class VersionRangeExpander
+{
+	/**
+	 * Matches every version
+	 */
+	private static final String ALL_VERSIONS = "(,)";
+	
+	private final VersionScheme versionScheme = new GenericVersionScheme();
+	private final Map<GroupArtifactKey, List<Version>> versionMap = 
+			new ConcurrentHashMap<>();
+	
+	private final RepositorySystem repositorySystem;
+	private final RepositorySystemSession session;
+	private final List<RemoteRepository> remoteRepos;
+	private final int limit;
+	
+	/**
+	 * @param limit
+	 * The maximum number of versions of each range, keeping the newest ones,
+	 * or {@code 0} to keep all versions
+	 */
+	public VersionRangeExpander(
+			RepositorySystem repositorySystem,
+			RepositorySystemSession session,
+			List<RemoteRepository> remoteRepos,
+			int limit)
+	{
+		this.repositorySystem = repositorySystem;
+		this.session = session;
+		this.remoteRepos = remoteRepos;
+		this.limit = limit;
+	}
+	
+	/**
+	 * Determines whether a version is a range
+	 * 
+	 * @param version
+	 * The version of an artifact item
+	 * 
+	 * @return
+	 * {@code true} if {@code version} is a range
+	 */
+	public static boolean isRange(String version)
+	{
+		return version.startsWith("[") || version.startsWith("(");
+	}
+	
+	/**
+	 * Selects the versions that satisfy a constraint
+	 * 
+	 * @param versions
+	 * The available versions, in ascending order
+	 * 
+	 * @param constraint
+	 * The constraint to satisfy
+	 * 
+	 * @param limit
+	 * The maximum number of versions to select, keeping the newest ones, or
+	 * {@code 0} to keep all versions
+	 * 
+	 * @return
+	 * The selected versions, in ascending order
+	 */
+	static List<Version> select(List<Version> versions, VersionConstraint constraint, int limit)
+	{
+		List<Version> selected = new ArrayList<>();
+		for (Version version: versions)
+		{
+			if (constraint.containsVersion(version))
+			{
+				selected.add(version);
+			}
+		}
+		
+		if (limit > 0 && selected.size() > limit)
+		{
+			selected = selected.subList(selected.size() - limit, selected.size());
+		}
+		return selected;
+	}
+	
+	private List<Version> getVersions(ArtifactItem artifactItem) 
+			throws VersionRangeResolutionException
+	{
+		GroupArtifactKey key = new GroupArtifactKey(
+				artifactItem.getGroupId(), artifactItem.getArtifactId());
+		List<Version> versions = versionMap.get(key);
+		if (versions == null)
+		{
+			VersionRangeResult result = repositorySystem.resolveVersionRange(
+					session, 
+					new VersionRangeRequest(
+							new DefaultArtifact(
+									artifactItem.getGroupId(), 
+									artifactItem.getArtifactId(), 
+									artifactItem.getClassifier(), 
+									artifactItem.getExtension(), 
+									ALL_VERSIONS), 
+							remoteRepos, 
+							null));
+			versions = result.getVersions();
+			versionMap.put(key, versions);
+		}
+		return versions;
+	}
+	
+	/**
+	 * Expands an artifact item whose version is a range
+	 * 
+	 * @param artifactItem
+	 * The artifact item to expand
+	 * 
+	 * @return
+	 * One artifact item for each available version in the range
+	 */
+	public List<ArtifactItem> expand(ArtifactItem artifactItem) throws MojoExecutionException
+	{
+		VersionConstraint constraint;
+		try
+		{
+			constraint = versionScheme.parseVersionConstraint(artifactItem.getVersion());
+		}
+		catch (InvalidVersionSpecificationException e)
+		{
+			throw new MojoExecutionException("invalid version range for " + artifactItem, e);
+		}
+		
+		List<Version> versions;
+		try
+		{
+			versions = select(getVersions(artifactItem), constraint, limit);
+		}
+		catch (VersionRangeResolutionException e)
+		{
+			throw new MojoExecutionException("could not resolve versions of " + artifactItem, e);
+		}
+		
+		if (versions.isEmpty())
+		{
+			throw new MojoExecutionException("could not find a version for " + artifactItem);
+		}
+		
+		List<ArtifactItem> result = new ArrayList<>(versions.size());
+		for (Version version: versions)
+		{
+			result.add(new ArtifactItem(
+					artifactItem.getGroupId(),
+					artifactItem.getArtifactId(),
+					artifactItem.getExtension(),
+					artifactItem.getClassifier(),
+					version.toString()));
+		}
+		return result;
+	}
+}
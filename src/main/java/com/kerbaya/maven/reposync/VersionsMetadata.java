@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+
+/**
+ * Builds the group-artifact {@code maven-metadata.xml} of released versions 
+ * as the repository system does when deploying them
+ */
+final class VersionsMetadata
+{
+	public static final String FILE_NAME = "maven-metadata.xml";
+	
+	private VersionsMetadata()
+	{
+	}
+	
+	/**
+	 * Obtains the path of the meta-data of an artifact's group-artifact 
+	 * coordinate
+	 * 
+	 * @param artifact
+	 * The artifact
+	 * 
+	 * @return
+	 * The path, relative to the repository root
+	 */
+	public static String getPath(Artifact artifact)
+	{
+		return artifact.getGroupId().replace('.', '/') 
+				+ '/' + artifact.getArtifactId() 
+				+ '/' + FILE_NAME;
+	}
+	
+	/**
+	 * Creates the meta-data describing one released version
+	 * 
+	 * @param artifact
+	 * An artifact of the version
+	 * 
+	 * @return
+	 * The meta-data
+	 */
+	public static Metadata create(Artifact artifact)
+	{
+		Versioning versioning = new Versioning();
+		versioning.addVersion(artifact.getBaseVersion());
+		versioning.setRelease(artifact.getBaseVersion());
+		if ("maven-plugin".equals(artifact.getProperty(ArtifactProperties.TYPE, "")))
+		{
+			versioning.setLatest(artifact.getBaseVersion());
+		}
+		
+		Metadata metadata = new Metadata();
+		metadata.setGroupId(artifact.getGroupId());
+		metadata.setArtifactId(artifact.getArtifactId());
+		metadata.setVersioning(versioning);
+		return metadata;
+	}
+	
+	/**
+	 * Merges meta-data into older meta-data of the same group-artifact 
+	 * coordinate.  The newer meta-data's latest and release versions win, and
+	 * its versions are listed after the older ones.
+	 * 
+	 * @param metadata
+	 * The newer meta-data, which is updated
+	 * 
+	 * @param recessive
+	 * The older meta-data
+	 * 
+	 * @return
+	 * {@code metadata}
+	 */
+	public static Metadata merge(Metadata metadata, Metadata recessive)
+	{
+		Versioning versioning = metadata.getVersioning();
+		versioning.setLastUpdatedTimestamp(new Date());
+		if (recessive.getVersioning() != null)
+		{
+			if (versioning.getLatest() == null)
+			{
+				versioning.setLatest(recessive.getVersioning().getLatest());
+			}
+			if (versioning.getRelease() == null)
+			{
+				versioning.setRelease(recessive.getVersioning().getRelease());
+			}
+			
+			Set<String> versions = new LinkedHashSet<>(recessive.getVersioning().getVersions());
+			versions.addAll(versioning.getVersions());
+			versioning.setVersions(new ArrayList<>(versions));
+		}
+		return metadata;
+	}
+	
+	/**
+	 * Reads meta-data
+	 * 
+	 * @param is
+	 * The stream to read, which is not closed
+	 * 
+	 * @return
+	 * The meta-data
+	 */
+	public static Metadata read(InputStream is) throws IOException
+	{
+		try
+		{
+			return new MetadataXpp3Reader().read(is, false);
+		}
+		catch (XmlPullParserException e)
+		{
+			throw new IOException("Could not parse metadata", e);
+		}
+	}
+	
+	/**
+	 * Writes meta-data
+	 * 
+	 * @param metadata
+	 * The meta-data to write
+	 * 
+	 * @return
+	 * The UTF-8 encoded document
+	 */
+	public static byte[] toBytes(Metadata metadata) throws IOException
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (Writer writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8))
+		{
+			new MetadataXpp3Writer().write(writer, metadata);
+		}
+		return baos.toByteArray();
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArtifactItemSetTest
+{
+	@Test
+	public void add()
+	{
+		ArtifactItemSet set = new ArtifactItemSet();
+		Assert.assertTrue(set.add(new ArtifactItem("g:a:1")));
+		Assert.assertFalse(set.add(new ArtifactItem("g:a:jar:1")));
+		Assert.assertTrue(set.add(new ArtifactItem("g:a:jar:sources:1")));
+		Assert.assertTrue(set.add(new ArtifactItem("g:a:2")));
+		Assert.assertTrue(set.add(new ArtifactItem("g:b:1")));
+		Assert.assertFalse(set.add(new ArtifactItem("g:b:1")));
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArtifactSetQueueTest
+{
+	private static Collection<Artifact> set(String coords)
+	{
+		return Collections.singletonList(new DefaultArtifact(coords));
+	}
+	
+	@Test
+	public void finish() throws InterruptedException
+	{
+		ArtifactSetQueue queue = new ArtifactSetQueue();
+		Thread producer = new Thread(() -> {
+			queue.add(set("g:a:1"));
+			queue.add(Collections.emptyList());
+			queue.add(set("g:b:1"));
+			queue.finish();
+		});
+		producer.start();
+		
+		Iterator<Collection<Artifact>> i = queue.iterator();
+		Assert.assertEquals(set("g:a:1"), i.next());
+		Assert.assertEquals(set("g:b:1"), i.next());
+		Assert.assertFalse(i.hasNext());
+		producer.join();
+	}
+	
+	@Test
+	public void fail()
+	{
+		ArtifactSetQueue queue = new ArtifactSetQueue();
+		IllegalStateException failure = new IllegalStateException();
+		queue.add(set("g:a:1"));
+		queue.fail(failure);
+		
+		Iterator<Collection<Artifact>> i = queue.iterator();
+		Assert.assertEquals(set("g:a:1"), i.next());
+		try
+		{
+			i.hasNext();
+			Assert.fail();
+		}
+		catch (ArtifactSetQueue.ProducerException e)
+		{
+			Assert.assertSame(failure, e.getCause());
+		}
+	}
+	
+	@Test
+	public void abandon() throws InterruptedException
+	{
+		ArtifactSetQueue queue = new ArtifactSetQueue(1);
+		Thread producer = new Thread(() -> {
+			queue.add(set("g:a:1"));
+			queue.add(set("g:b:1"));
+			queue.add(set("g:c:1"));
+			queue.finish();
+		});
+		producer.start();
+		
+		Iterator<Collection<Artifact>> i = queue.iterator();
+		Assert.assertEquals(set("g:a:1"), i.next());
+		queue.abandon();
+		producer.join();
+	}
+}
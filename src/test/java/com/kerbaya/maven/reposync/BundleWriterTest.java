@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BundleWriterTest
+{
+	private static final String LONG_GROUP = 
+			"com.example.a.very.long.group.identifier.that.does.not.fit.a.tar.header";
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private List<String> roundTrip(String bundleName) throws Exception
+	{
+		File dir = folder.newFolder();
+		File bundle = new File(dir, bundleName);
+		try (BundleWriter writer = new BundleWriter(bundle, Arrays.asList("SHA-1", "MD5")))
+		{
+			Assert.assertTrue(writer.write(Arrays.asList(
+					TestArtifacts.artifact(dir, "g:a:jar:1", "jar1"), 
+					TestArtifacts.artifact(dir, "g:a:jar:sources:1", "sources1"))));
+			Assert.assertTrue(writer.write(Collections.singletonList(
+					TestArtifacts.artifact(dir, "g:a:pom:2", "pom2"))));
+			Assert.assertTrue(writer.write(Collections.singletonList(
+					TestArtifacts.artifact(
+							dir, LONG_GROUP + ":artifact-with-a-long-name:jar:1.0.0", "long"))));
+			Assert.assertFalse(writer.write(Collections.singletonList(
+					TestArtifacts.artifact(dir, "g:a:jar:3-SNAPSHOT", "snapshot"))));
+		}
+		
+		List<Collection<Artifact>> artifactSets = new ArrayList<>();
+		new BundleReader(new SystemStreamLog(), new File(dir, "extracted"))
+				.extract(bundle, 2, artifactSets::add);
+		List<String> result = new ArrayList<>();
+		for (Collection<Artifact> artifactSet: artifactSets)
+		{
+			StringBuilder sb = new StringBuilder();
+			for (Artifact artifact: artifactSet)
+			{
+				sb.append(artifact).append('=').append(new String(
+						Files.readAllBytes(artifact.getFile().toPath()), 
+						StandardCharsets.UTF_8)).append(' ');
+			}
+			result.add(sb.toString().trim());
+		}
+		return result;
+	}
+	
+	@Test
+	public void formats() throws Exception
+	{
+		List<String> expected = Arrays.asList(
+				"g:a:jar:1=jar1 g:a:jar:sources:1=sources1",
+				"g:a:pom:2=pom2",
+				LONG_GROUP + ":artifact-with-a-long-name:jar:1.0.0=long");
+		Assert.assertEquals(expected, roundTrip("bundle.zip"));
+		Assert.assertEquals(expected, roundTrip("bundle.tar"));
+		Assert.assertEquals(expected, roundTrip("bundle.tar.gz"));
+	}
+	
+	@Test
+	public void parsePath()
+	{
+		Assert.assertEquals(
+				"g.h:a:tar.gz:bin:1", 
+				BundleReader.parsePath("g/h/a/1/a-1-bin.tar.gz").toString());
+		Assert.assertEquals(
+				"g:a:jar.asc:1", 
+				BundleReader.parsePath("g/a/1/a-1.jar.asc").toString());
+		Assert.assertNull(BundleReader.parsePath("a/1/a-1.jar"));
+		Assert.assertNull(BundleReader.parsePath("g/a/1/b-1.jar"));
+		Assert.assertNull(BundleReader.parsePath("g/a/1/a-1"));
+	}
+}
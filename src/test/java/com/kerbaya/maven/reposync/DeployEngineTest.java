@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeployEngineTest
+{
+	private static Collection<Artifact> set(String coords)
+	{
+		return Collections.singletonList(new DefaultArtifact(coords));
+	}
+	
+	@Test
+	public void batchMetadata() throws Exception
+	{
+		List<String> calls = Collections.synchronizedList(new ArrayList<>());
+		ReleaseDeployer deployer = new ReleaseDeployer() {
+			@Override
+			public void deployArtifacts(Collection<Artifact> artifactSet)
+			{
+				calls.add("artifacts " + new ArtifactPath(artifactSet.iterator().next()));
+			}
+			
+			@Override
+			public void deployMetadata(List<Artifact> versions)
+			{
+				StringBuilder sb = new StringBuilder("metadata");
+				for (Artifact version: versions)
+				{
+					sb.append(' ').append(version.getVersion());
+				}
+				calls.add(sb.toString());
+			}
+		};
+		
+		List<String> notified = new ArrayList<>();
+		new DeployEngine(null, null, null, 1)
+				.setReleaseDeployer(deployer)
+				.addListener(artifactSet -> notified.add(
+						calls.size() + " " + new ArtifactPath(artifactSet.iterator().next())))
+				.deploy(Arrays.asList(
+						set("g:a:jar:1"), 
+						set("g:a:jar:2"), 
+						set("g:a:jar:3"), 
+						set("g:b:jar:1")));
+		
+		Assert.assertEquals(
+				Arrays.asList(
+						"artifacts g:a:1", 
+						"artifacts g:a:2", 
+						"artifacts g:a:3", 
+						"metadata 1 2 3", 
+						"artifacts g:b:1", 
+						"metadata 1"), 
+				calls);
+		
+		/*
+		 * Listeners hear of each set once its meta-data is written
+		 */
+		Assert.assertEquals(
+				Arrays.asList("4 g:a:1", "4 g:a:2", "4 g:a:3", "6 g:b:1"), 
+				notified);
+	}
+	
+	/**
+	 * Records the deploy requests in progress for each group-artifact 
+	 * coordinate
+	 */
+	private static final class OverlapDeployer implements ReleaseDeployer
+	{
+		private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+		private final AtomicInteger artifactCalls = new AtomicInteger();
+		private volatile boolean overlapped;
+		
+		private void run(Artifact artifact) throws InterruptedException
+		{
+			AtomicInteger count = active.computeIfAbsent(
+					artifact.getGroupId() + ":" + artifact.getArtifactId(), 
+					key -> new AtomicInteger());
+			if (count.incrementAndGet() > 1)
+			{
+				overlapped = true;
+			}
+			try
+			{
+				Thread.sleep(10);
+			}
+			finally
+			{
+				count.decrementAndGet();
+			}
+		}
+		
+		@Override
+		public void deployArtifacts(Collection<Artifact> artifactSet) throws Exception
+		{
+			artifactCalls.incrementAndGet();
+			run(artifactSet.iterator().next());
+		}
+		
+		@Override
+		public void deployMetadata(List<Artifact> versions) throws Exception
+		{
+			run(versions.get(0));
+		}
+	}
+	
+	@Test
+	public void groupArtifactsDoNotOverlap() throws Exception
+	{
+		OverlapDeployer deployer = new OverlapDeployer();
+		new DeployEngine(null, null, null, 4)
+				.setReleaseDeployer(deployer)
+				.deploy(Arrays.asList(
+						set("g:a:jar:1"), 
+						set("g:b:jar:1"), 
+						set("g:a:jar:2"), 
+						set("g:c:jar:1"), 
+						set("g:a:jar:3"), 
+						set("g:b:jar:2"), 
+						set("g:a:jar:4"), 
+						set("g:c:jar:2"), 
+						set("g:a:jar:5"), 
+						set("g:b:jar:3")));
+		
+		Assert.assertEquals(10, deployer.artifactCalls.get());
+		Assert.assertFalse(deployer.overlapped);
+	}
+	
+	@Test
+	public void stopsAtFirstFailure() throws Exception
+	{
+		CountDownLatch started = new CountDownLatch(1);
+		List<String> calls = Collections.synchronizedList(new ArrayList<>());
+		ReleaseDeployer deployer = new ReleaseDeployer() {
+			@Override
+			public void deployArtifacts(Collection<Artifact> artifactSet) throws Exception
+			{
+				String path = new ArtifactPath(artifactSet.iterator().next()).toString();
+				calls.add(path);
+				if (path.equals("g:a:1"))
+				{
+					started.await();
+					throw new IllegalStateException("failed");
+				}
+				if (path.equals("g:b:1"))
+				{
+					/*
+					 * Keeps the second thread busy until the failure is seen
+					 */
+					started.countDown();
+					Thread.sleep(200);
+				}
+			}
+			
+			@Override
+			public void deployMetadata(List<Artifact> versions)
+			{
+			}
+		};
+		
+		List<Collection<Artifact>> artifactSets = new ArrayList<>();
+		for (char artifactId = 'a'; artifactId <= 'z'; artifactId++)
+		{
+			artifactSets.add(set("g:" + artifactId + ":jar:1"));
+		}
+		
+		try
+		{
+			new DeployEngine(null, null, null, 2)
+					.setReleaseDeployer(deployer)
+					.deploy(artifactSets);
+			Assert.fail();
+		}
+		catch (MojoExecutionException e)
+		{
+			Assert.assertEquals("failed", e.getCause().getMessage());
+		}
+		calls.sort(null);
+		Assert.assertEquals(Arrays.asList("g:a:1", "g:b:1"), calls);
+	}
+}
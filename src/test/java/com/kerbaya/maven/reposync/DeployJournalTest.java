@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeployJournalTest
+{
+	private static final String URL = "file:/target";
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private static DeployJournal open(File file, boolean resume) 
+			throws IOException, MojoExecutionException
+	{
+		return new DeployJournal(new SystemStreamLog(), file, URL, resume, new ChecksumCache());
+	}
+	
+	@Test
+	public void resume() throws IOException, MojoExecutionException
+	{
+		File dir = folder.getRoot();
+		File file = new File(dir, "journal.txt");
+		
+		Collection<Artifact> released = Arrays.asList(
+				TestArtifacts.artifact(dir, "g:a:jar:1", "jar"), 
+				TestArtifacts.artifact(dir, "g:a:pom:1", "pom"));
+		Collection<Artifact> snapshot = Collections.singletonList(
+				TestArtifacts.artifact(dir, "g:a:jar:1-SNAPSHOT", "snapshot"));
+		
+		try (DeployJournal journal = open(file, true))
+		{
+			Assert.assertFalse(journal.contains(released));
+			journal.record(released);
+			journal.record(snapshot);
+			Assert.assertTrue(journal.contains(released));
+		}
+		
+		try (DeployJournal journal = open(file, true))
+		{
+			Assert.assertTrue(journal.contains(released));
+			Assert.assertTrue(journal.contains(snapshot));
+			Assert.assertFalse(journal.contains(Collections.singletonList(
+					released.iterator().next())));
+			Assert.assertFalse(journal.contains(Arrays.asList(
+					TestArtifacts.artifact(dir, "g:a:jar:1", "changed"), 
+					TestArtifacts.artifact(dir, "g:a:pom:1", "pom"))));
+		}
+		
+		/*
+		 * Without resume, the journal starts anew
+		 */
+		try (DeployJournal journal = open(file, false))
+		{
+			Assert.assertFalse(journal.contains(released));
+		}
+		Assert.assertEquals(1, Files.readAllLines(file.toPath()).size());
+	}
+	
+	@Test
+	public void expect() throws IOException, MojoExecutionException
+	{
+		File dir = folder.getRoot();
+		File file = new File(dir, "journal.txt");
+		
+		Artifact jar = TestArtifacts.artifact(dir, "g:a:jar:1", "jar");
+		Collection<Artifact> released = Arrays.asList(
+				jar, 
+				TestArtifacts.artifact(dir, "g:a:pom:1", "pom"));
+		
+		/*
+		 * Only the JAR is deployed, the POM having been filtered out
+		 */
+		try (DeployJournal journal = open(file, true))
+		{
+			Assert.assertFalse(journal.expect(released));
+			journal.record(Collections.singletonList(jar));
+		}
+		
+		try (DeployJournal journal = open(file, true))
+		{
+			Assert.assertTrue(journal.expect(released));
+			Assert.assertFalse(journal.contains(Collections.singletonList(jar)));
+		}
+	}
+	
+	@Test(expected=MojoExecutionException.class)
+	public void otherRepository() throws IOException, MojoExecutionException
+	{
+		File file = new File(folder.getRoot(), "journal.txt");
+		open(file, false).close();
+		new DeployJournal(new SystemStreamLog(), file, "file:/other", true, new ChecksumCache()).close();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.Artifact;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeployLedgerTest
+{
+	private static final String URL = "file:/target";
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void recordAndReload() throws IOException, MojoExecutionException
+	{
+		File dir = folder.getRoot();
+		File file = new File(dir, "ledger.txt");
+		
+		Artifact jar = TestArtifacts.artifact(dir, "g:a:jar:1", "jar");
+		Artifact pom = TestArtifacts.artifact(dir, "g:a:pom:1", "pom");
+		Artifact snapshot = TestArtifacts.artifact(dir, "g:a:jar:1-SNAPSHOT", "snapshot");
+		
+		try (DeployLedger ledger = new DeployLedger(new SystemStreamLog(), file, URL, new ChecksumCache()))
+		{
+			Assert.assertFalse(ledger.contains(jar));
+			ledger.record(Arrays.asList(jar, pom, snapshot));
+			Assert.assertTrue(ledger.contains(jar));
+		}
+		
+		try (DeployLedger ledger = new DeployLedger(new SystemStreamLog(), file, URL, new ChecksumCache()))
+		{
+			Assert.assertTrue(ledger.contains(jar));
+			Assert.assertTrue(ledger.contains(pom));
+			Assert.assertFalse(ledger.contains(snapshot));
+			Assert.assertFalse(ledger.contains(TestArtifacts.artifact(dir, "g:a:jar:1", "changed")));
+			Assert.assertFalse(ledger.contains(TestArtifacts.artifact(dir, "g:a:jar:2", "jar")));
+			
+			ledger.record(Collections.singletonList(TestArtifacts.artifact(dir, "g:a:jar:1", "changed")));
+		}
+		
+		/*
+		 * The second record of g:a:jar:1 replaced the first
+		 */
+		Assert.assertEquals(3, Files.readAllLines(file.toPath()).size());
+	}
+	
+	@Test(expected=MojoExecutionException.class)
+	public void otherRepository() throws IOException, MojoExecutionException
+	{
+		File file = new File(folder.getRoot(), "ledger.txt");
+		new DeployLedger(new SystemStreamLog(), file, URL, new ChecksumCache()).close();
+		new DeployLedger(new SystemStreamLog(), file, "file:/other", new ChecksumCache()).close();
+	}
+}
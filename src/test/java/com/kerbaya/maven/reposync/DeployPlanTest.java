@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeployPlanTest
+{
+	private static final String URL = "file:/target";
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void json()
+	{
+		Map<String, Object> line = new LinkedHashMap<>();
+		line.put("str", "a \"b\" \\ \n\u0001");
+		line.put("num", 12L);
+		line.put("bool", Boolean.TRUE);
+		line.put("null", null);
+		Assert.assertEquals(line, JsonLines.parse(JsonLines.format(line)));
+		
+		Map<String, Object> nested = new LinkedHashMap<>();
+		nested.put("obj", Collections.singletonMap("key", "value"));
+		nested.put("empty", Collections.emptyMap());
+		Assert.assertEquals(nested, JsonLines.parse(JsonLines.format(nested)));
+		
+		Assert.assertEquals(
+				"{\"a\":[1,\"b\"]}", 
+				JsonLines.format(Collections.singletonMap("a", Arrays.asList(1, "b"))));
+	}
+	
+	@Test
+	public void roundTrip() throws IOException
+	{
+		/*
+		 * The file paths are escaped in the plan
+		 */
+		File dir = folder.newFolder("plan \"quoted\"");
+		File file = new File(dir, "plan.jsonl");
+		ChecksumCache checksums = new ChecksumCache();
+		
+		Artifact jar = TestArtifacts.artifact(dir, "g:a:jar:1", "jar")
+				.setProperties(Collections.singletonMap(ArtifactProperties.TYPE, "maven-plugin"));
+		Artifact pom = TestArtifacts.artifact(dir, "g:a:pom:1", "pom");
+		Artifact release = ReleaseArtifact.create(
+				TestArtifacts.artifact(dir, "g:b:jar:1-20220101.012345-1", "release"));
+		Artifact rejected = TestArtifacts.artifact(
+				dir, "g:b:jar:sources:1-20220101.012345-1", "rejected");
+		
+		try (DeployPlan.Writer writer = new DeployPlan.Writer(file, URL, checksums))
+		{
+			writer.write(Arrays.asList(jar, pom), Collections.emptyMap());
+			writer.write(
+					Collections.singletonList(release), 
+					Collections.singletonMap(rejected, "filter"));
+		}
+		
+		List<Collection<Artifact>> artifactSets = new ArrayList<>();
+		DeployPlan.read(file, URL, new ChecksumCache(), artifactSets::add);
+		
+		Assert.assertEquals(2, artifactSets.size());
+		List<Artifact> set1 = new ArrayList<>(artifactSets.get(0));
+		Assert.assertEquals(jar.toString(), set1.get(0).toString());
+		Assert.assertEquals(jar.getFile().getAbsoluteFile(), set1.get(0).getFile());
+		Assert.assertEquals(
+				"maven-plugin", 
+				set1.get(0).getProperty(ArtifactProperties.TYPE, null));
+		Assert.assertEquals(Collections.emptyMap(), set1.get(1).getProperties());
+		Assert.assertEquals(pom.toString(), set1.get(1).toString());
+		
+		Artifact readRelease = artifactSets.get(1).iterator().next();
+		Assert.assertTrue(readRelease instanceof ReleaseArtifact);
+		Assert.assertFalse(readRelease.isSnapshot());
+	}
+	
+	@Test(expected=IOException.class)
+	public void changedFile() throws IOException
+	{
+		File dir = folder.getRoot();
+		File file = new File(dir, "plan.jsonl");
+		Artifact jar = TestArtifacts.artifact(dir, "g:a:jar:1", "jar");
+		try (DeployPlan.Writer writer = new DeployPlan.Writer(file, URL, new ChecksumCache()))
+		{
+			writer.write(Collections.singletonList(jar), Collections.emptyMap());
+		}
+		
+		Files.write(jar.getFile().toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+		DeployPlan.read(file, URL, new ChecksumCache(), artifactSet -> {});
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.IOException;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FailureSummaryTest
+{
+	@Test
+	public void empty() throws MojoExecutionException
+	{
+		new FailureSummary(new SystemStreamLog()).check();
+	}
+	
+	@Test
+	public void summary()
+	{
+		FailureSummary failures = new FailureSummary(new SystemStreamLog());
+		IOException first = new IOException("timeout");
+		failures.add("Failed to deploy g:a:1", first);
+		failures.add("Failed to deploy g:b:1", new IOException("refused"));
+		Assert.assertEquals(2, failures.size());
+		try
+		{
+			failures.check();
+			Assert.fail();
+		}
+		catch (MojoExecutionException e)
+		{
+			Assert.assertEquals(
+					"2 failures:\n"
+					+ "  Failed to deploy g:a:1: timeout\n"
+					+ "  Failed to deploy g:b:1: refused", 
+					e.getMessage());
+			Assert.assertSame(first, e.getCause());
+			Assert.assertEquals(1, e.getSuppressed().length);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlobFilterTest
+{
+	private static boolean test(List<String> includes, String coords)
+	{
+		return new GlobFilter(includes, Collections.emptyList())
+				.test(new DefaultArtifact(coords));
+	}
+	
+	private static void matched(String glob, String coords)
+	{
+		Assert.assertTrue(glob + " " + coords, test(Collections.singletonList(glob), coords));
+	}
+	
+	private static void unmatched(String glob, String coords)
+	{
+		Assert.assertFalse(glob + " " + coords, test(Collections.singletonList(glob), coords));
+	}
+	
+	@Test
+	public void globMatches()
+	{
+		Assert.assertTrue(GlobFilter.globMatches("commons-*", "commons-io"));
+		Assert.assertTrue(GlobFilter.globMatches("*-io", "commons-io"));
+		Assert.assertTrue(GlobFilter.globMatches("c?mmons*i*", "commons-io"));
+		Assert.assertTrue(GlobFilter.globMatches("*", ""));
+		Assert.assertFalse(GlobFilter.globMatches("commons-?", "commons-io"));
+		Assert.assertFalse(GlobFilter.globMatches("", "a"));
+	}
+	
+	@Test
+	public void groupSegments()
+	{
+		matched("org.apache.**:*:jar:*", "org.apache.commons:commons-io:jar:2.0");
+		matched("org.apache.**:*:jar:*", "org.apache.maven.plugins:p:jar:1");
+		matched("org.apache.**", "org.apache:apache:pom:1");
+		unmatched("org.apache.**:*:jar:*", "org.apache.commons:commons-io:pom:2.0");
+		unmatched("org.apache.**", "org.apachex:a:jar:1");
+		matched("org.*.commons", "org.apache.commons:a:jar:1");
+		unmatched("org.*.commons", "org.apache.x.commons:a:jar:1");
+		matched("**.commons", "org.apache.commons:a:jar:1");
+		matched("org.**.commons", "org.commons:a:jar:1");
+		matched("org.apa*e", "org.apache:a:jar:1");
+		unmatched("org.apache", "org.apache.commons:a:jar:1");
+	}
+	
+	@Test
+	public void fields()
+	{
+		matched("g:a", "g:a:jar:sources:1");
+		matched("g:a:jar:sources:1", "g:a:jar:sources:1");
+		unmatched("g:a:jar::1", "g:a:jar:sources:1");
+		matched("g:a:jar:1.*", "g:a:jar:1.5");
+		unmatched("g:a:jar:1.*", "g:a:jar:2.0");
+		unmatched("g:b", "g:a:jar:1");
+	}
+	
+	@Test
+	public void includesAndExcludes()
+	{
+		GlobFilter filter = new GlobFilter(
+				Arrays.asList("org.apache.**", "com.example"),
+				Arrays.asList("org.apache.bad.**", "*:*:*:*-SNAPSHOT"));
+		Assert.assertTrue(filter.test(new DefaultArtifact("org.apache.good:a:jar:1")));
+		Assert.assertTrue(filter.test(new DefaultArtifact("com.example:a:jar:1")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("org.apache.bad.sub:a:jar:1")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("com.example:a:jar:1-SNAPSHOT")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("net.other:a:jar:1")));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void invalid()
+	{
+		new GlobFilter(Collections.singletonList("g:a:e:c:v:x"), Collections.emptyList());
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalDeployerTest
+{
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private static String read(File file) throws IOException
+	{
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+	
+	@Test
+	public void deploy() throws Exception
+	{
+		File dir = folder.getRoot();
+		File basedir = new File(dir, "repo");
+		LocalDeployer deployer = new LocalDeployer(new DefaultRepositorySystemSession(), basedir, false);
+		
+		Assert.assertFalse(ReleaseDeployer.isRelease(Collections.singletonList(
+				TestArtifacts.artifact(dir, "g:a:jar:1-SNAPSHOT", "snapshot"))));
+		
+		Artifact jar = TestArtifacts.artifact(dir, "g.h:a:jar:1", "jar");
+		Artifact pom2 = TestArtifacts.artifact(dir, "g.h:a:pom:2", "pom2");
+		deployer.deployArtifacts(Arrays.asList(jar, TestArtifacts.artifact(dir, "g.h:a:pom:1", "pom")));
+		deployer.deployMetadata(Collections.singletonList(jar));
+		deployer.deployArtifacts(Collections.singletonList(pom2));
+		deployer.deployMetadata(Collections.singletonList(pom2));
+		deployer.deployArtifacts(Collections.singletonList(TestArtifacts.artifact(dir, "g.h:a:pom:3", "pom3")));
+		deployer.deployArtifacts(Collections.singletonList(TestArtifacts.artifact(dir, "g.h:a:pom:4", "pom4")));
+		deployer.deployMetadata(Arrays.asList(
+				new DefaultArtifact("g.h:a:pom:3"), 
+				new DefaultArtifact("g.h:a:pom:4")));
+		
+		File versionDir = new File(basedir, "g/h/a/1");
+		Assert.assertEquals("jar", read(new File(versionDir, "a-1.jar")));
+		Assert.assertEquals("pom", read(new File(versionDir, "a-1.pom")));
+		Assert.assertEquals(Utils.sha1(jar.getFile()), read(new File(versionDir, "a-1.jar.sha1")));
+		Assert.assertEquals(32, read(new File(versionDir, "a-1.jar.md5")).length());
+		Assert.assertTrue(new File(basedir, "g/h/a/2/a-2.pom").isFile());
+		Assert.assertEquals(
+				Collections.singletonList("a-1.jar"), 
+				Arrays.asList(versionDir.list((d, name) -> name.endsWith(".jar"))));
+		
+		File metadataFile = new File(basedir, "g/h/a/maven-metadata.xml");
+		Metadata metadata;
+		try (Reader reader = Files.newBufferedReader(metadataFile.toPath(), StandardCharsets.UTF_8))
+		{
+			metadata = new MetadataXpp3Reader().read(reader, false);
+		}
+		Assert.assertEquals("g.h", metadata.getGroupId());
+		Assert.assertEquals("a", metadata.getArtifactId());
+		Assert.assertEquals(Arrays.asList("1", "2", "3", "4"), metadata.getVersioning().getVersions());
+		Assert.assertEquals("4", metadata.getVersioning().getRelease());
+		Assert.assertNull(metadata.getVersioning().getLatest());
+		Assert.assertNotNull(metadata.getVersioning().getLastUpdated());
+		Assert.assertEquals(
+				Utils.sha1(metadataFile), 
+				read(new File(metadataFile.getPath() + ".sha1")));
+		
+		/*
+		 * The files are copied
+		 */
+		Files.write(jar.getFile().toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+		Assert.assertEquals("jar", read(new File(versionDir, "a-1.jar")));
+	}
+	
+	@Test
+	public void hardLink() throws Exception
+	{
+		File dir = folder.getRoot();
+		File basedir = new File(dir, "repo");
+		LocalDeployer deployer = new LocalDeployer(new DefaultRepositorySystemSession(), basedir, true);
+		
+		Artifact jar = TestArtifacts.artifact(dir, "g:a:jar:1", "jar");
+		deployer.deployArtifacts(Collections.singletonList(jar));
+		
+		/*
+		 * The temporary directory is on one file system, which allows the 
+		 * file to be linked
+		 */
+		Assert.assertTrue(Files.isSameFile(
+				jar.getFile().toPath(), 
+				new File(basedir, "g/a/1/a-1.jar").toPath()));
+	}
+}
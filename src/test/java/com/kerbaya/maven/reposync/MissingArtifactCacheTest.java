@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MissingArtifactCacheTest
+{
+	private static final RemoteRepository CENTRAL = 
+			new RemoteRepository.Builder("central", "default", "https://central/").build();
+	
+	private static final RemoteRepository OTHER = 
+			new RemoteRepository.Builder("other", "default", "https://other/").build();
+	
+	private static final List<RemoteRepository> REPOS = Arrays.asList(CENTRAL, OTHER);
+	
+	private static final long TTL = TimeUnit.HOURS.toMillis(24);
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void recordAndReload() throws IOException
+	{
+		File file = new File(folder.getRoot(), "missing.txt");
+		ArtifactItem sources = new ArtifactItem("g:a:jar:sources:1");
+		
+		try (MissingArtifactCache cache = new MissingArtifactCache(new SystemStreamLog(), file, TTL))
+		{
+			Assert.assertEquals(REPOS, cache.getCandidates(sources, REPOS));
+			cache.recordMissing(sources, CENTRAL);
+			Assert.assertEquals(
+					Collections.singletonList(OTHER), cache.getCandidates(sources, REPOS));
+			cache.recordMissing(sources, OTHER);
+		}
+		
+		try (MissingArtifactCache cache = new MissingArtifactCache(new SystemStreamLog(), file, TTL))
+		{
+			Assert.assertTrue(cache.getCandidates(sources, REPOS).isEmpty());
+			Assert.assertEquals(REPOS, cache.getCandidates(
+					new ArtifactItem("g:a:jar:javadoc:1"), REPOS));
+			Assert.assertEquals(1, cache.getHits());
+		}
+	}
+	
+	@Test
+	public void shared() throws IOException
+	{
+		File file = new File(folder.getRoot(), "missing.txt");
+		long old = System.currentTimeMillis() - TTL - 1;
+		Files.write(file.toPath(), Collections.singletonList(
+				old + " https://central/ g:a:jar:sources:1"), StandardCharsets.UTF_8);
+		ArtifactItem sources = new ArtifactItem("g:b:jar:sources:1");
+		ArtifactItem javadoc = new ArtifactItem("g:c:jar:javadoc:1");
+		
+		/*
+		 * The first cache compacts the file when closed, keeping the record 
+		 * that the second cache appended in the meantime
+		 */
+		MissingArtifactCache first = new MissingArtifactCache(new SystemStreamLog(), file, TTL);
+		try (MissingArtifactCache second = new MissingArtifactCache(new SystemStreamLog(), file, TTL))
+		{
+			first.recordMissing(sources, CENTRAL);
+			second.recordMissing(javadoc, CENTRAL);
+			first.close();
+		}
+		
+		Assert.assertEquals(2, Files.readAllLines(file.toPath()).size());
+		try (MissingArtifactCache cache = new MissingArtifactCache(new SystemStreamLog(), file, TTL))
+		{
+			Assert.assertEquals(
+					Collections.singletonList(OTHER), cache.getCandidates(sources, REPOS));
+			Assert.assertEquals(
+					Collections.singletonList(OTHER), cache.getCandidates(javadoc, REPOS));
+		}
+	}
+	
+	@Test
+	public void expired() throws IOException
+	{
+		File file = new File(folder.getRoot(), "missing.txt");
+		long old = System.currentTimeMillis() - TTL - 1;
+		Files.write(file.toPath(), Arrays.asList(
+				old + " https://central/ g:a:jar:sources:1",
+				"garbage"), StandardCharsets.UTF_8);
+		
+		try (MissingArtifactCache cache = new MissingArtifactCache(new SystemStreamLog(), file, TTL))
+		{
+			Assert.assertEquals(REPOS, cache.getCandidates(
+					new ArtifactItem("g:a:jar:sources:1"), REPOS));
+		}
+		
+		/*
+		 * Expired and unreadable lines are dropped
+		 */
+		Assert.assertEquals(0, Files.readAllLines(file.toPath()).size());
+	}
+}
@@ -18,6 +18,9 @@
  */
 package com.kerbaya.maven.reposync;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.junit.Assert;
 import org.junit.Test;
@@ -48,4 +51,40 @@ public class RegExFilterTest
 		matched("g.*p:a.*t:e.*n:c.*r:v.*n", "group:artifact:extension:classifier:version");
 		unmatched("group:artifact:extension:classifier2:version", "group:artifact:extension:classifier:version");
 	}
+	
+	@Test
+	public void literalPrefix()
+	{
+		Assert.assertEquals("org.apache.", RegExFilter.getLiteralPrefix("org\\.apache\\..*"));
+		Assert.assertEquals("group:artifact", RegExFilter.getLiteralPrefix("^group:artifact"));
+		Assert.assertEquals("group", RegExFilter.getLiteralPrefix("groups?:.*"));
+		Assert.assertEquals("gr", RegExFilter.getLiteralPrefix("gr+oup:.*"));
+		Assert.assertEquals("", RegExFilter.getLiteralPrefix("org:.*|com:.*"));
+		Assert.assertEquals("", RegExFilter.getLiteralPrefix("(?i)org:.*"));
+		Assert.assertEquals("", RegExFilter.getLiteralPrefix("\\Qorg\\E.*"));
+	}
+	
+	@Test
+	public void includesAndExcludes()
+	{
+		RegExFilter filter = new RegExFilter(
+				Arrays.asList("org\\.apache\\..*", "com\\.example:.*", ".*:sources:.*"),
+				Arrays.asList("org\\.apache\\.bad:.*", ".*-SNAPSHOT"));
+		Assert.assertTrue(filter.test(new DefaultArtifact("org.apache.commons:commons-io:jar:2.0")));
+		Assert.assertTrue(filter.test(new DefaultArtifact("com.example:a:pom:1")));
+		Assert.assertTrue(filter.test(new DefaultArtifact("net.other:a:jar:sources:1")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("com.example.sub:a:pom:1")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("org.apache.bad:a:jar:1")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("org.apache.commons:a:jar:1-SNAPSHOT")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("org.apachex:a:jar:1")));
+	}
+	
+	@Test
+	public void excludesOnly()
+	{
+		RegExFilter filter = new RegExFilter(
+				Collections.emptyList(), Collections.singletonList("com\\.example:.*"));
+		Assert.assertTrue(filter.test(new DefaultArtifact("org.example:a:jar:1")));
+		Assert.assertFalse(filter.test(new DefaultArtifact("com.example:a:jar:1")));
+	}
 }
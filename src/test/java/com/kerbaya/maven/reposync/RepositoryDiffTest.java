@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RepositoryDiffTest
+{
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private static void write(File basedir, String path, String content) throws IOException
+	{
+		File file = new File(basedir, path);
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static TargetInspector inspector(File basedir) throws Exception
+	{
+		return new TargetInspector(
+				null, 
+				new DefaultRepositorySystemSession(), 
+				new RemoteRepository.Builder("repo", "default", basedir.toURI().toString()).build());
+	}
+	
+	private static List<RepositoryDiff.Difference> differences(
+			File source, File target, String... prefixes) 
+			throws Exception
+	{
+		try (TargetInspector sourceInspector = inspector(source);
+				TargetInspector targetInspector = inspector(target))
+		{
+			return new RepositoryDiff(sourceInspector, targetInspector, 4)
+					.compare(Arrays.asList(prefixes));
+		}
+	}
+	
+	private static List<String> compare(File source, File target, String... prefixes) 
+			throws Exception
+	{
+		List<String> result = new ArrayList<>();
+		for (RepositoryDiff.Difference difference: differences(source, target, prefixes))
+		{
+			result.add(difference.toString());
+		}
+		return result;
+	}
+	
+	private static List<String> artifacts(File source, File target, String... prefixes) 
+			throws Exception
+	{
+		List<String> result = new ArrayList<>();
+		for (RepositoryDiff.Difference difference: differences(source, target, prefixes))
+		{
+			result.addAll(difference.getArtifacts());
+		}
+		return result;
+	}
+	
+	@Test
+	public void compare() throws Exception
+	{
+		File dir = folder.getRoot();
+		File source = new File(dir, "source");
+		File target = new File(dir, "target");
+		
+		write(source, "g/a/1/a-1.jar", "jar1");
+		write(source, "g/a/1/a-1.pom", "pom1");
+		write(source, "g/a/1/_remote.repositories", "");
+		write(source, "g/a/2/a-2.pom", "pom2");
+		write(source, "g/a/10/a-10.pom", "pom10");
+		write(source, "g/a/4-SNAPSHOT/a-4-SNAPSHOT.pom", "snapshot");
+		write(source, "g/b/1/b-1.jar", "b1");
+		write(source, "g/c/1/c-1.jar.lastUpdated", "");
+		write(source, "h/a/1/a-1.jar", "other group");
+		
+		write(target, "g/a/1/a-1.jar", "changed");
+		write(target, "g/a/1/a-1.pom", "pom1");
+		write(target, "g/a/3/a-3.jar", "jar3");
+		write(target, "g/a/10/a-10.pom", "pom10");
+		write(target, "g/a/10/a-10.pom.sha1", Utils.sha1(new File(source, "g/a/10/a-10.pom")));
+		write(target, "g/b/1/b-1.jar", "b1");
+		
+		Assert.assertEquals(
+				Arrays.asList(
+						"different g:a:1 a-1.jar", 
+						"missing g:a:2", 
+						"extra g:a:3"), 
+				compare(source, target, "g"));
+		Assert.assertEquals(Collections.emptyList(), compare(source, target, "g:b"));
+		Assert.assertEquals(
+				Collections.singletonList("missing g:b:1"), 
+				compare(source, new File(dir, "empty"), "g:b"));
+	}
+	
+	@Test
+	public void artifacts() throws Exception
+	{
+		File dir = folder.getRoot();
+		File source = new File(dir, "source");
+		File target = new File(dir, "target");
+		
+		write(source, "g/w/1/w-1.pom", "pom");
+		write(source, "g/w/1/w-1.war", "war");
+		write(source, "g/a/1/a-1.jar", "jar");
+		write(source, "g/a/1/a-1.pom", "pom");
+		write(source, "g/a/1/a-1-sources.jar", "sources");
+		write(source, "g/a/1/a-1-javadoc.jar", "javadoc");
+		write(source, "g/a/2/a-2.jar", "jar");
+		write(source, "g/a/2/a-2-tests.jar", "tests");
+		
+		write(target, "g/a/1/a-1.jar", "jar");
+		write(target, "g/a/1/a-1.pom", "pom");
+		write(target, "g/a/1/a-1-javadoc.jar", "changed");
+		write(target, "g/a/2/a-2.jar", "jar");
+		write(target, "g/a/2/a-2-tests.jar", "changed");
+		
+		Assert.assertEquals(
+				Arrays.asList(
+						"missing g:a:1 a-1-javadoc.jar, a-1-sources.jar", 
+						"different g:a:2 a-2-tests.jar", 
+						"missing g:w:1"), 
+				compare(source, target, "g"));
+		Assert.assertEquals(
+				Arrays.asList(
+						"g:a:jar:javadoc:1", 
+						"g:a:jar:sources:1", 
+						"g:a:jar:tests:2", 
+						"g:w:pom:1", 
+						"g:w:war:1"), 
+				artifacts(source, target, "g"));
+	}
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryEvent;
+import org.eclipse.aether.RepositoryEvent.EventType;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResolutionCollectorTest
+{
+	private static final String IGNORED_URL = "file:/ignored";
+	
+	private static final RemoteRepository IGNORED_REPO = 
+			new RemoteRepository.Builder("ignored", "default", IGNORED_URL).build();
+	
+	private static final RemoteRepository OTHER_REPO = 
+			new RemoteRepository.Builder("other", "default", "file:/other").build();
+	
+	private static final DefaultRepositorySystemSession SESSION = 
+			new DefaultRepositorySystemSession();
+	
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private static void resolved(
+			ResolutionCollector collector, String coords, RemoteRepository repo)
+	{
+		Artifact artifact = new DefaultArtifact(coords).setFile(new File("file"));
+		collector.artifactResolved(
+				new RepositoryEvent.Builder(SESSION, EventType.ARTIFACT_RESOLVED)
+						.setArtifact(artifact)
+						.setRepository(repo)
+						.build());
+	}
+	
+	private static List<String> sorted(Iterable<Collection<Artifact>> artifactSets)
+	{
+		List<String> result = new ArrayList<>();
+		for (Collection<Artifact> artifactSet: artifactSets)
+		{
+			List<String> setResult = new ArrayList<>();
+			for (Artifact artifact: artifactSet)
+			{
+				setResult.add(artifact.toString());
+			}
+			setResult.sort(null);
+			result.add(String.join(" ", setResult));
+		}
+		result.sort(null);
+		return result;
+	}
+	
+	@Test
+	public void grouping()
+	{
+		ResolutionCollector collector = new ResolutionCollector(new SystemStreamLog(), null);
+		resolved(collector, "g:a:jar:1", OTHER_REPO);
+		resolved(collector, "g:a:pom:1", OTHER_REPO);
+		resolved(collector, "g:a:jar:sources:1", OTHER_REPO);
+		resolved(collector, "g:a:jar:2", OTHER_REPO);
+		resolved(collector, "g:a:jar:1", OTHER_REPO);
+		
+		List<String> expected = new ArrayList<>();
+		expected.add("g:a:jar:1 g:a:jar:sources:1 g:a:pom:1");
+		expected.add("g:a:jar:2");
+		Assert.assertEquals(expected, sorted(collector.getArtifactSets()));
+	}
+	
+	@Test
+	public void retainsNoArtifact() throws InterruptedException
+	{
+		ResolutionCollector collector = new ResolutionCollector(new SystemStreamLog(), null);
+		Artifact artifact = new DefaultArtifact(
+				"g", "a", "tests", "jar", "1", 
+				Collections.singletonMap("type", "test-jar"), 
+				new File("file"));
+		WeakReference<Artifact> ref = new WeakReference<>(artifact);
+		collector.artifactResolved(
+				new RepositoryEvent.Builder(SESSION, EventType.ARTIFACT_RESOLVED)
+						.setArtifact(artifact)
+						.setRepository(OTHER_REPO)
+						.build());
+		artifact = null;
+		
+		/*
+		 * Only the coordinate symbols, file and properties are kept
+		 */
+		for (int i = 0; i < 50 && ref.get() != null; i++)
+		{
+			System.gc();
+			Thread.sleep(10);
+		}
+		Assert.assertNull(ref.get());
+		
+		Artifact collected = collector.getArtifactSets().iterator().next().iterator().next();
+		Assert.assertEquals("g:a:jar:tests:1", collected.toString());
+		Assert.assertEquals("test-jar", collected.getProperty("type", null));
+		Assert.assertEquals(new File("file"), collected.getFile());
+	}
+	
+	@Test
+	public void ignoredWins()
+	{
+		ResolutionCollector collector = new ResolutionCollector(new SystemStreamLog(), IGNORED_URL);
+		resolved(collector, "g:a:jar:1", OTHER_REPO);
+		resolved(collector, "g:a:jar:1", IGNORED_REPO);
+		resolved(collector, "g:a:jar:1", OTHER_REPO);
+		resolved(collector, "g:a:pom:1", IGNORED_REPO);
+		resolved(collector, "g:a:pom:1", OTHER_REPO);
+		resolved(collector, "g:b:jar:1", IGNORED_REPO);
+		resolved(collector, "g:c:jar:1", OTHER_REPO);
+		
+		List<String> expected = new ArrayList<>();
+		expected.add("g:c:jar:1");
+		Assert.assertEquals(expected, sorted(collector.getArtifactSets()));
+	}
+	
+	@Test
+	public void severalTargets() throws IOException
+	{
+		List<String> urls = Arrays.asList(IGNORED_URL, "file:/other");
+		File dir = folder.getRoot();
+		for (int spillThreshold: new int[] {0, 1})
+		{
+			try (ResolutionCollector collector = new ResolutionCollector(
+					new SystemStreamLog(), urls, spillThreshold, dir))
+			{
+				resolved(collector, "g:a:jar:1", IGNORED_REPO);
+				resolved(collector, "g:a:pom:1", OTHER_REPO);
+				resolved(collector, "g:b:jar:1", IGNORED_REPO);
+				resolved(collector, "g:b:jar:1", OTHER_REPO);
+				resolved(collector, "g:c:jar:1", IGNORED_REPO);
+				
+				/*
+				 * Each target only leaves out the artifacts resolved from it,
+				 * and an artifact resolved from both targets is left out
+				 */
+				List<Collection<Artifact>> ignoredSets = new ArrayList<>();
+				List<Collection<Artifact>> otherSets = new ArrayList<>();
+				for (Collection<Artifact> artifactSet: collector.getArtifactSets())
+				{
+					ignoredSets.add(IgnoredTargets.forTarget(artifactSet, IGNORED_URL));
+					otherSets.add(IgnoredTargets.forTarget(artifactSet, "file:/other"));
+				}
+				Assert.assertEquals(
+						Arrays.asList("", "g:a:pom:1"), 
+						sorted(ignoredSets));
+				Assert.assertEquals(
+						Arrays.asList("g:a:jar:1", "g:c:jar:1"), 
+						sorted(otherSets));
+			}
+		}
+	}
+	
+	@Test
+	public void concurrentEvents() throws InterruptedException
+	{
+		ResolutionCollector collector = new ResolutionCollector(new SystemStreamLog(), IGNORED_URL);
+		ExecutorService executor = Utils.newExecutor("test", 8);
+		for (int i = 0; i < 8; i++)
+		{
+			int thread = i;
+			executor.execute(() -> {
+				for (int j = 0; j < 1000; j++)
+				{
+					resolved(collector, "g:a" + (j % 10) + ":jar:" + j, 
+							thread == j % 8 ? IGNORED_REPO : OTHER_REPO);
+				}
+			});
+		}
+		Utils.awaitTermination(executor);
+		
+		/*
+		 * Every artifact was seen in the ignored repository by one thread 
+		 */
+		Assert.assertFalse(collector.getArtifactSets().iterator().hasNext());
+	}
+	
+	@Test
+	public void takeFinished()
+	{
+		ResolutionCollector collector = new ResolutionCollector(new SystemStreamLog(), IGNORED_URL);
+		resolved(collector, "g:c:jar:1", OTHER_REPO);
+		collector.track();
+		resolved(collector, "g:a:jar:1", OTHER_REPO);
+		resolved(collector, "g:a:pom:1", OTHER_REPO);
+		resolved(collector, "g:b:jar:1", IGNORED_REPO);
+		resolved(collector, "g:s:jar:1-SNAPSHOT", OTHER_REPO);
+		Set<Long> pathKeys = collector.untrack();
+		
+		List<String> expected = new ArrayList<>();
+		expected.add("g:a:jar:1 g:a:pom:1");
+		Assert.assertEquals(expected, sorted(collector.takeFinished(pathKeys)));
+		Assert.assertTrue(collector.takeFinished(pathKeys).isEmpty());
+		
+		/*
+		 * Artifacts resolved after the hand-over are left in the collector
+		 */
+		resolved(collector, "g:a:jar:sources:1", OTHER_REPO);
+		resolved(collector, "g:a:jar:1", OTHER_REPO);
+		expected.clear();
+		expected.add("g:a:jar:sources:1");
+		expected.add("g:c:jar:1");
+		expected.add("g:s:jar:1-SNAPSHOT");
+		Assert.assertEquals(expected, sorted(collector.getArtifactSets()));
+		Assert.assertTrue(collector.untrack().isEmpty());
+	}
+	
+	@Test
+	public void spill() throws IOException
+	{
+		File dir = folder.getRoot();
+		try (ResolutionCollector collector = new ResolutionCollector(
+				new SystemStreamLog(), Collections.singletonList(IGNORED_URL), 2, dir))
+		{
+			resolved(collector, "g:b:jar:1", OTHER_REPO);
+			resolved(collector, "g:a:jar:1", OTHER_REPO);
+			resolved(collector, "g:a:pom:1", OTHER_REPO);
+			resolved(collector, "g:a:jar:1", OTHER_REPO);
+			resolved(collector, "g:c:jar:1", OTHER_REPO);
+			resolved(collector, "g:a:jar:sources:1", OTHER_REPO);
+			resolved(collector, "g:c:jar:1", IGNORED_REPO);
+			resolved(collector, "g:a:jar:2", OTHER_REPO);
+			Assert.assertTrue(dir.list().length > 0);
+			
+			/*
+			 * Sets come back in sorted order, and can be read again
+			 */
+			for (int i = 0; i < 2; i++)
+			{
+				List<String> actual = new ArrayList<>();
+				for (Collection<Artifact> artifactSet: collector.getArtifactSets())
+				{
+					List<String> setResult = new ArrayList<>();
+					for (Artifact artifact: artifactSet)
+					{
+						setResult.add(artifact.toString());
+						Assert.assertEquals(new File("file"), artifact.getFile());
+					}
+					actual.add(String.join(" ", setResult));
+				}
+				
+				List<String> expected = new ArrayList<>();
+				expected.add("g:a:jar:1 g:a:jar:sources:1 g:a:pom:1");
+				expected.add("g:a:jar:2");
+				expected.add("g:b:jar:1");
+				Assert.assertEquals(expected, actual);
+			}
+		}
+		Assert.assertEquals(0, dir.list().length);
+	}
+	
+	@Test
+	public void spillKeepsPropertiesAndTaken() throws IOException
+	{
+		File dir = folder.getRoot();
+		try (ResolutionCollector collector = new ResolutionCollector(
+				new SystemStreamLog(), Collections.singletonList(IGNORED_URL), 1, dir))
+		{
+			collector.track();
+			resolved(collector, "g:p:jar:1", OTHER_REPO);
+			Assert.assertEquals(1, collector.takeFinished(collector.untrack()).size());
+			
+			Artifact plugin = new DefaultArtifact(
+					"g", "q", "", "jar", "1", 
+					Collections.singletonMap("type", "maven-plugin"), 
+					new File("file"));
+			collector.artifactResolved(
+					new RepositoryEvent.Builder(SESSION, EventType.ARTIFACT_RESOLVED)
+							.setArtifact(plugin)
+							.setRepository(OTHER_REPO)
+							.build());
+			resolved(collector, "g:b:jar:1", OTHER_REPO);
+			Assert.assertTrue(dir.list().length > 0);
+			
+			/*
+			 * The artifact handed over before the spill is not handed over 
+			 * again, nor read back
+			 */
+			collector.track();
+			resolved(collector, "g:p:jar:1", OTHER_REPO);
+			Assert.assertTrue(collector.takeFinished(collector.untrack()).isEmpty());
+			
+			List<String> expected = new ArrayList<>();
+			expected.add("g:b:jar:1");
+			expected.add("g:q:jar:1");
+			Assert.assertEquals(expected, sorted(collector.getArtifactSets()));
+			for (Collection<Artifact> artifactSet: collector.getArtifactSets())
+			{
+				Artifact artifact = artifactSet.iterator().next();
+				if (artifact.getArtifactId().equals("q"))
+				{
+					Assert.assertEquals("maven-plugin", artifact.getProperty("type", null));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RetrierTest
+{
+	@Test
+	public void delay()
+	{
+		Assert.assertEquals(500, Retrier.getDelay(1000, 1, 0));
+		Assert.assertEquals(1999, Retrier.getDelay(2000, 1, 0.99999));
+		Assert.assertEquals(2000, Retrier.getDelay(1000, 3, 0));
+		Assert.assertEquals(30000, Retrier.getDelay(1000, 20, 0));
+		Assert.assertEquals(30000, Retrier.getDelay(Long.MAX_VALUE, 2, 0));
+		Assert.assertEquals(0, Retrier.getDelay(0, 5, 0.5));
+	}
+	
+	@Test
+	public void retryable()
+	{
+		Assert.assertTrue(Retrier.isRetryable(new IOException()));
+		Assert.assertFalse(Retrier.isRetryable(new ArtifactResolutionException(
+				null, 
+				"missing", 
+				new ArtifactNotFoundException(new DefaultArtifact("g:a:1"), null))));
+	}
+	
+	@Test
+	public void retriesUntilSuccess() throws Exception
+	{
+		AtomicInteger attempts = new AtomicInteger();
+		String result = new Retrier(new SystemStreamLog(), 2, 0).call("test", attempt -> {
+			Assert.assertEquals(attempts.getAndIncrement(), attempt);
+			if (attempt < 2)
+			{
+				throw new IOException("transient");
+			}
+			return "done";
+		});
+		Assert.assertEquals("done", result);
+		Assert.assertEquals(3, attempts.get());
+	}
+	
+	@Test
+	public void givesUp() throws Exception
+	{
+		AtomicInteger attempts = new AtomicInteger();
+		try
+		{
+			new Retrier(new SystemStreamLog(), 1, 0).call("test", attempt -> {
+				attempts.incrementAndGet();
+				throw new IOException("down");
+			});
+			Assert.fail();
+		}
+		catch (IOException e)
+		{
+			Assert.assertEquals(2, attempts.get());
+		}
+	}
+}
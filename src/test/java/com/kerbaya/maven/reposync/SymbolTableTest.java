@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SymbolTableTest
+{
+	@Test
+	public void intern()
+	{
+		SymbolTable table = new SymbolTable();
+		int a = table.intern("org.apache");
+		int b = table.intern("commons-io");
+		Assert.assertEquals(a, table.intern(new String("org.apache")));
+		Assert.assertTrue(a != b);
+		Assert.assertEquals("commons-io", table.get(b));
+		Assert.assertEquals(2, table.size());
+		for (int i = 0; i < 1000; i++)
+		{
+			table.intern("v" + i);
+		}
+		Assert.assertEquals("v999", table.get(table.intern("v999")));
+	}
+	
+	@Test
+	public void concurrent() throws InterruptedException
+	{
+		SymbolTable table = new SymbolTable();
+		AtomicBoolean mismatch = new AtomicBoolean();
+		ExecutorService executor = Utils.newExecutor("test", 8);
+		for (int i = 0; i < 8; i++)
+		{
+			int thread = i;
+			executor.execute(() -> {
+				for (int j = 0; j < 5000; j++)
+				{
+					String symbol = "s" + ((j * 8 + thread) % 10000);
+					if (!symbol.equals(table.get(table.intern(symbol))))
+					{
+						mismatch.set(true);
+					}
+				}
+			});
+		}
+		Utils.awaitTermination(executor);
+		
+		Assert.assertFalse(mismatch.get());
+		Assert.assertEquals(10000, table.size());
+	}
+	
+	@Test
+	public void pack()
+	{
+		long key = SymbolTable.pack(7, -1);
+		Assert.assertEquals(7, SymbolTable.high(key));
+		Assert.assertEquals(-1, SymbolTable.low(key));
+		Assert.assertTrue(SymbolTable.pack(1, 2) != SymbolTable.pack(2, 1));
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SyncReportTest
+{
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void write() throws IOException
+	{
+		File dir = folder.getRoot();
+		File jar = new File(dir, "a-1.jar");
+		Files.write(jar.toPath(), new byte[1000]);
+		
+		SyncReport report = new SyncReport();
+		report.phase("resolve", System.nanoTime());
+		report.root(new ArtifactItem("g:a:1"), TimeUnit.MILLISECONDS.toNanos(5));
+		report.deployRequest(
+				Arrays.asList(new DefaultArtifact("g:a:jar:1").setFile(jar)), 
+				TimeUnit.SECONDS.toNanos(2));
+		
+		File file = new File(dir, "target/report.json");
+		report.write(file);
+		String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		
+		Assert.assertTrue(json, json.startsWith("{\"phaseMillis\":{\"resolve\":"));
+		Assert.assertTrue(json, json.contains("\"roots\":[{\"root\":\"g:a:jar:1\",\"millis\":5}]"));
+		Assert.assertTrue(json, json.contains(
+				"\"artifacts\":1,\"bytes\":1000,\"millis\":2000,\"bytesPerSecond\":500}"));
+		Assert.assertTrue(json, json.contains("\"deployedBytes\":1000"));
+		Assert.assertFalse(json, json.contains("deployNanos"));
+	}
+	
+	@Test
+	public void targets() throws IOException
+	{
+		File dir = folder.getRoot();
+		File jar = new File(dir, "a-1.jar");
+		Files.write(jar.toPath(), new byte[10]);
+		
+		SyncReport report = new SyncReport();
+		Assert.assertSame(report.forTarget("dr"), report.forTarget("dr"));
+		report.forTarget("primary").count("ledgerSkippedArtifacts", 2);
+		report.forTarget("dr").deployRequest(
+				Arrays.asList(new DefaultArtifact("g:a:jar:1").setFile(jar)), 
+				TimeUnit.SECONDS.toNanos(1));
+		
+		File file = new File(dir, "report.json");
+		report.write(file);
+		String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		
+		Assert.assertTrue(json, json.contains("\"deployRequests\":[],\"targets\":{\"dr\":"));
+		Assert.assertTrue(json, json.contains("\"primary\":{\"phaseMillis\":{},"
+				+ "\"counts\":{\"ledgerSkippedArtifacts\":2}"));
+		Assert.assertTrue(json, json.contains("\"deployedBytes\":10"));
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TargetIndexTest
+{
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private static void write(File file, String content) throws IOException
+	{
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static TargetIndex open(
+			File file, File basedir, TargetInspector inspector, ChecksumCache checksums) 
+			throws IOException
+	{
+		return new TargetIndex(
+				new SystemStreamLog(), 
+				file, 
+				basedir.toURI().toString(), 
+				inspector == null ? basedir : null, 
+				inspector, 
+				checksums, 
+				false);
+	}
+	
+	@Test
+	public void walk() throws IOException
+	{
+		File dir = folder.getRoot();
+		File basedir = new File(dir, "repo");
+		File file = new File(dir, "index.txt");
+		ChecksumCache checksums = new ChecksumCache();
+		
+		/*
+		 * Enough files to span several blocks of the index
+		 */
+		for (int i = 0; i < 200; i++)
+		{
+			File jar = new File(basedir, "g/a/" + i + "/a-" + i + ".jar");
+			write(jar, "jar" + i);
+			write(new File(jar.getPath() + ".sha1"), Utils.sha1(jar));
+		}
+		write(new File(basedir, "g/a/1/a-1.pom"), "pom");
+		write(new File(basedir, "g/a/maven-metadata.xml"), "<metadata/>");
+		write(new File(basedir, ".reposync/missing-extras.txt"), "");
+		
+		Artifact sameJar = TestArtifacts.artifact(dir, "g:a:jar:150", "jar150");
+		Artifact otherJar = TestArtifacts.artifact(dir, "g:a:jar:17", "other");
+		Artifact pom = TestArtifacts.artifact(dir, "g:a:pom:1", "pom");
+		Artifact newJar = TestArtifacts.artifact(dir, "g:a:jar:200", "jar200");
+		
+		try (TargetIndex index = open(file, basedir, null, checksums))
+		{
+			Assert.assertEquals(TargetIndex.Presence.PRESENT, index.lookup(sameJar));
+			Assert.assertEquals(TargetIndex.Presence.ABSENT, index.lookup(otherJar));
+			Assert.assertEquals(TargetIndex.Presence.UNKNOWN, index.lookup(pom));
+			Assert.assertEquals(TargetIndex.Presence.ABSENT, index.lookup(newJar));
+			Assert.assertEquals(TargetIndex.Presence.ABSENT, index.lookup(
+					TestArtifacts.artifact(dir, "g:a:jar:1-SNAPSHOT", "snapshot")));
+			index.record(Collections.singletonList(newJar));
+			Assert.assertEquals(TargetIndex.Presence.PRESENT, index.lookup(newJar));
+		}
+		
+		String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		Assert.assertFalse(content.contains("maven-metadata"));
+		Assert.assertFalse(content.contains(".reposync"));
+		Assert.assertFalse(content.contains(".sha1 "));
+		
+		try (TargetIndex index = open(file, basedir, null, checksums))
+		{
+			Assert.assertEquals(TargetIndex.Presence.PRESENT, index.lookup(sameJar));
+			Assert.assertEquals(TargetIndex.Presence.PRESENT, index.lookup(newJar));
+			Assert.assertEquals(TargetIndex.Presence.PRESENT, index.lookup(
+					TestArtifacts.artifact(dir, "g:a:jar:0", "jar0")));
+			Assert.assertEquals(TargetIndex.Presence.PRESENT, index.lookup(
+					TestArtifacts.artifact(dir, "g:a:jar:99", "jar99")));
+		}
+	}
+	
+	@Test
+	public void crawl() throws Exception
+	{
+		File dir = folder.getRoot();
+		File basedir = new File(dir, "repo");
+		File file = new File(dir, "index.txt");
+		ChecksumCache checksums = new ChecksumCache();
+		write(new File(basedir, "g/a/maven-metadata.xml"), 
+				"<metadata><groupId>g</groupId><artifactId>a</artifactId>"
+				+ "<versioning><versions><version>1</version></versions></versioning>"
+				+ "</metadata>");
+		
+		Artifact version1 = TestArtifacts.artifact(dir, "g:a:jar:1", "jar");
+		Artifact version2 = TestArtifacts.artifact(dir, "g:a:jar:2", "jar");
+		Artifact otherArtifact = TestArtifacts.artifact(dir, "g:b:jar:1", "jar");
+		
+		try (TargetInspector inspector = new TargetInspector(
+				null, 
+				new DefaultRepositorySystemSession(), 
+				new RemoteRepository.Builder(
+						"target", "default", basedir.toURI().toString()).build()))
+		{
+			try (TargetIndex index = open(file, basedir, inspector, checksums))
+			{
+				Assert.assertEquals(TargetIndex.Presence.UNKNOWN, index.lookup(version1));
+				Assert.assertEquals(TargetIndex.Presence.ABSENT, index.lookup(version2));
+				Assert.assertEquals(TargetIndex.Presence.ABSENT, index.lookup(otherArtifact));
+				index.record(Collections.singletonList(version2));
+			}
+			
+			/*
+			 * The crawled versions are kept
+			 */
+			Files.delete(new File(basedir, "g/a/maven-metadata.xml").toPath());
+			try (TargetIndex index = open(file, basedir, inspector, checksums))
+			{
+				Assert.assertEquals(TargetIndex.Presence.UNKNOWN, index.lookup(version1));
+				Assert.assertEquals(TargetIndex.Presence.PRESENT, index.lookup(version2));
+			}
+		}
+	}
+}
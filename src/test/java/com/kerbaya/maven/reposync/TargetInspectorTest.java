@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TargetInspectorTest
+{
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	private static RemoteRepository repository(String url)
+	{
+		return new RemoteRepository.Builder("target", "default", url).build();
+	}
+	
+	@Test
+	public void basedir()
+	{
+		Assert.assertNull(TargetInspector.getBasedir(repository("https://host/repo")));
+		Assert.assertEquals(
+				new File("/my repo").getAbsoluteFile(), 
+				TargetInspector.getBasedir(repository("file:/my%20repo")));
+		Assert.assertEquals(
+				new File("/my/repo").getAbsoluteFile(), 
+				TargetInspector.getBasedir(repository("file:///my/repo")));
+		Assert.assertEquals(
+				new File("/my/repo").getAbsoluteFile(), 
+				TargetInspector.getBasedir(repository("file://host/my/repo")));
+		Assert.assertEquals(
+				new File("/x").getAbsoluteFile(), 
+				TargetInspector.getBasedir(repository("file:/x")));
+		Assert.assertEquals(
+				new File("/x").getAbsoluteFile(), 
+				TargetInspector.getBasedir(repository("file:///x")));
+		Assert.assertEquals(
+				new File("/a+b").getAbsoluteFile(), 
+				TargetInspector.getBasedir(repository("file:/a+b")));
+	}
+	
+	@Test
+	public void fileRepository() throws Exception
+	{
+		File basedir = folder.getRoot();
+		File dir = new File(basedir, "g/a/1");
+		Files.createDirectories(dir.toPath());
+		Files.write(new File(dir, "a-1.jar").toPath(), "jar".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(dir, "a-1.pom").toPath(), "pom".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(dir, "a-1.pom.sha1").toPath(), "ABCDEF  a-1.pom\n".getBytes(StandardCharsets.UTF_8));
+		
+		try (TargetInspector inspector = new TargetInspector(
+				null, 
+				new DefaultRepositorySystemSession(), 
+				repository(basedir.toURI().toString())))
+		{
+			Assert.assertEquals("abcdef", inspector.getSha1("g/a/1/a-1.pom"));
+			Assert.assertEquals(
+					Utils.sha1(new File(dir, "a-1.jar")), 
+					inspector.getSha1("g/a/1/a-1.jar"));
+			Assert.assertNull(inspector.getSha1("g/a/1/a-1-sources.jar"));
+		}
+	}
+}
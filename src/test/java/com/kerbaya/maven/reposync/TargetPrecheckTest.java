@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TargetPrecheckTest
+{
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void removePresent() throws Exception
+	{
+		File source = folder.newFolder("source");
+		File jar = new File(source, "a-1.jar");
+		Files.write(jar.toPath(), "jar".getBytes(StandardCharsets.UTF_8));
+		
+		File basedir = folder.newFolder("repo");
+		File dir = new File(basedir, "g/a0/1");
+		Files.createDirectories(dir.toPath());
+		Files.copy(jar.toPath(), new File(dir, "a0-1.jar").toPath());
+		
+		List<Collection<Artifact>> artifactSets = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			artifactSets.add(Collections.singletonList(
+					new DefaultArtifact("g:a" + i + ":1").setFile(jar)));
+		}
+		AtomicInteger read = new AtomicInteger();
+		Iterable<Collection<Artifact>> counted = Utils.transform(artifactSets, artifactSet -> {
+			read.incrementAndGet();
+			return artifactSet;
+		});
+		
+		try (TargetInspector inspector = new TargetInspector(
+						null, 
+						new DefaultRepositorySystemSession(), 
+						new RemoteRepository.Builder("target", "default", basedir.toURI().toString())
+								.build());
+				TargetPrecheck precheck = new TargetPrecheck(
+						new SystemStreamLog(), inspector, new ChecksumCache(), 1))
+		{
+			Iterator<Collection<Artifact>> i = precheck.removePresent(counted).iterator();
+			Assert.assertEquals("a1", i.next().iterator().next().getArtifactId());
+			Assert.assertTrue(String.valueOf(read.get()), read.get() < artifactSets.size());
+			
+			int missing = 1;
+			for (; i.hasNext(); i.next())
+			{
+				missing++;
+			}
+			Assert.assertEquals(99, missing);
+			Assert.assertEquals(1, precheck.getPresentCount());
+		}
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+
+/**
+ * Creates artifacts whose files hold given content
+ */
+final class TestArtifacts
+{
+	private TestArtifacts() {}
+	
+	/**
+	 * @param dir
+	 * The directory in which the artifact file is created
+	 * 
+	 * @param coords
+	 * The coordinates of the artifact, as accepted by 
+	 * {@link DefaultArtifact#DefaultArtifact(String)}
+	 * 
+	 * @param content
+	 * The content of the artifact file
+	 */
+	public static Artifact artifact(File dir, String coords, String content) 
+			throws IOException
+	{
+		File file = File.createTempFile("artifact", ".jar", dir);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return new DefaultArtifact(coords).setFile(file);
+	}
+}
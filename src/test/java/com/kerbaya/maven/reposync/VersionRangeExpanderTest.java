@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Kerbaya Software
+ * 
+ * This file is part of reposync. 
+ * 
+ * reposync is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * reposync is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with reposync.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.kerbaya.maven.reposync;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.eclipse.aether.version.Version;
+import org.eclipse.aether.version.VersionScheme;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VersionRangeExpanderTest
+{
+	private final VersionScheme versionScheme = new GenericVersionScheme();
+	
+	private List<String> select(String range, int limit, String... versions) 
+			throws InvalidVersionSpecificationException
+	{
+		List<Version> available = new ArrayList<>();
+		for (String version: versions)
+		{
+			available.add(versionScheme.parseVersion(version));
+		}
+		List<String> result = new ArrayList<>();
+		for (Version version: VersionRangeExpander.select(
+				available, versionScheme.parseVersionConstraint(range), limit))
+		{
+			result.add(version.toString());
+		}
+		return result;
+	}
+	
+	@Test
+	public void tokens()
+	{
+		Assert.assertEquals(
+				Arrays.asList("g:a:[2.0,3.0)", "g:b:1.0", "g:c:(,1.0]"), 
+				Utils.getTokens("g:a:[2.0,3.0),g:b:1.0 g:c:(,1.0]"));
+		Assert.assertEquals(Arrays.asList("a", "b"), Utils.getTokens(" a, ,b "));
+	}
+	
+	@Test
+	public void isRange()
+	{
+		Assert.assertTrue(VersionRangeExpander.isRange("[2.0,3.0)"));
+		Assert.assertTrue(VersionRangeExpander.isRange("(,1.0]"));
+		Assert.assertFalse(VersionRangeExpander.isRange("2.0"));
+		Assert.assertFalse(VersionRangeExpander.isRange(""));
+	}
+	
+	@Test
+	public void select() throws InvalidVersionSpecificationException
+	{
+		Assert.assertEquals(
+				Arrays.asList("2.0", "2.1", "2.9"), 
+				select("[2.0,3.0)", 0, "1.9", "2.0", "2.1", "2.9", "3.0"));
+		Assert.assertEquals(
+				Arrays.asList("2.1", "2.9"), 
+				select("[2.0,3.0)", 2, "1.9", "2.0", "2.1", "2.9", "3.0"));
+		Assert.assertEquals(
+				Arrays.asList(), 
+				select("[4.0,)", 2, "1.9", "2.0"));
+	}
+}